@@ -0,0 +1,165 @@
+package com.simon.credit.toolkit.batch;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自适应批大小控制器(AIMD：加性增、乘性减)
+ * <pre>
+ * 最优批大小随下游负载变化：批太小浪费往返次数，批太大拉长单批耗时(超出延迟目标、长时间持有锁)。
+ * 每批处理完后按实际耗时调整下一批的大小：
+ * 1、耗时不超过目标：批大小加上固定步长(加性增)，逐步试探更高吞吐
+ * 2、耗时超过目标：批大小乘以衰减系数(乘性减)，迅速回到目标以内
+ * 3、批大小始终在[minBatchSize, maxBatchSize]之内
+ *
+ * 稳定后批大小会在"刚好达到目标耗时"的位置附近小幅振荡，可通过getCurrentBatchSize/getSizeHistory观察。
+ * 线程安全：并行执行时各工作线程并发回报耗时。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class AdaptiveBatchSizer {
+
+	/** 默认乘性减系数 */
+	private static final double DEFAULT_DECREASE_FACTOR = 0.7;
+
+	/** 保留最近多少次的批大小 */
+	private static final int HISTORY_SIZE = 64;
+
+	private final int minBatchSize;
+	private final int maxBatchSize;
+	private final long targetLatencyNanos;
+	private final int additiveIncrease;
+	private final double decreaseFactor;
+
+	private int currentBatchSize;
+
+	private long batchCount;
+	private long itemCount;
+	private long totalLatencyNanos;
+
+	private final int[] sizeHistory = new int[HISTORY_SIZE];
+	private long historyCount;
+
+	/**
+	 * 加性增步长默认取 (maxBatchSize - minBatchSize) / 32，乘性减系数默认0.7
+	 * @param minBatchSize 最小批大小
+	 * @param maxBatchSize 最大批大小
+	 * @param initialBatchSize 初始批大小
+	 * @param targetLatency 单批目标耗时
+	 * @param unit 时间单位
+	 */
+	public AdaptiveBatchSizer(int minBatchSize, int maxBatchSize, int initialBatchSize, long targetLatency, TimeUnit unit) {
+		this(minBatchSize, maxBatchSize, initialBatchSize, targetLatency, unit,
+			Math.max(1, (maxBatchSize - minBatchSize) / 32), DEFAULT_DECREASE_FACTOR);
+	}
+
+	/**
+	 * @param minBatchSize 最小批大小
+	 * @param maxBatchSize 最大批大小
+	 * @param initialBatchSize 初始批大小
+	 * @param targetLatency 单批目标耗时
+	 * @param unit 时间单位
+	 * @param additiveIncrease 耗时达标时批大小的增加量
+	 * @param decreaseFactor 耗时超标时批大小的乘数(0~1)
+	 */
+	public AdaptiveBatchSizer(int minBatchSize, int maxBatchSize, int initialBatchSize, long targetLatency,
+							  TimeUnit unit, int additiveIncrease, double decreaseFactor) {
+		if (minBatchSize <= 0 || maxBatchSize < minBatchSize) {
+			throw new IllegalArgumentException("Illegal batch size range: [" + minBatchSize + ", " + maxBatchSize + "]");
+		}
+		if (targetLatency <= 0 || additiveIncrease <= 0 || decreaseFactor <= 0 || decreaseFactor >= 1) {
+			throw new IllegalArgumentException("Illegal target latency, additive increase or decrease factor");
+		}
+		this.minBatchSize = minBatchSize;
+		this.maxBatchSize = maxBatchSize;
+		this.targetLatencyNanos = unit.toNanos(targetLatency);
+		this.additiveIncrease = additiveIncrease;
+		this.decreaseFactor = decreaseFactor;
+		this.currentBatchSize = clamp(initialBatchSize);
+	}
+
+	/**
+	 * 下一批的大小
+	 */
+	public synchronized int nextBatchSize() {
+		return currentBatchSize;
+	}
+
+	/**
+	 * 回报一批的处理耗时，并调整下一批的大小
+	 * @param batchSize 该批实际大小
+	 * @param latencyNanos 该批处理耗时(纳秒)
+	 */
+	public synchronized void record(int batchSize, long latencyNanos) {
+		batchCount++;
+		itemCount += batchSize;
+		totalLatencyNanos += latencyNanos;
+
+		if (latencyNanos > targetLatencyNanos) {
+			currentBatchSize = clamp((int) (currentBatchSize * decreaseFactor));
+		} else if (batchSize >= currentBatchSize) {
+			// 只有满批才加性增：数据源末尾的不满批耗时偏低，不代表可以处理更大的批
+			currentBatchSize = clamp(currentBatchSize + additiveIncrease);
+		}
+
+		sizeHistory[(int) (historyCount++ % HISTORY_SIZE)] = currentBatchSize;
+	}
+
+	public synchronized int getCurrentBatchSize() {
+		return currentBatchSize;
+	}
+
+	public synchronized long getBatchCount() {
+		return batchCount;
+	}
+
+	public synchronized long getItemCount() {
+		return itemCount;
+	}
+
+	/**
+	 * 平均单批耗时(纳秒)
+	 */
+	public synchronized double getAverageLatencyNanos() {
+		return batchCount == 0 ? 0.0 : (double) totalLatencyNanos / batchCount;
+	}
+
+	/**
+	 * 吞吐：每秒处理的数据条数(按处理耗时之和计算，并行执行时为单个工作线程的吞吐)
+	 */
+	public synchronized double getThroughput() {
+		return totalLatencyNanos == 0 ? 0.0 : itemCount * 1000000000.0 / totalLatencyNanos;
+	}
+
+	/**
+	 * 最近若干次调整后的批大小(从旧到新)
+	 */
+	public synchronized int[] getSizeHistory() {
+		int count = (int) Math.min(historyCount, HISTORY_SIZE);
+		int[] history = new int[count];
+		for (int i = 0; i < count; i++) {
+			history[i] = sizeHistory[(int) ((historyCount - count + i) % HISTORY_SIZE)];
+		}
+		return history;
+	}
+
+	public int getMinBatchSize() {
+		return minBatchSize;
+	}
+
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "AdaptiveBatchSizer{currentBatchSize=" + currentBatchSize + ", range=[" + minBatchSize + ", " + maxBatchSize
+			+ "], targetLatencyMillis=" + targetLatencyNanos / 1000000.0 + ", batchCount=" + batchCount
+			+ ", averageLatencyMillis=" + String.format("%.3f", getAverageLatencyNanos() / 1000000.0)
+			+ ", throughput=" + String.format("%.1f", getThroughput()) + "/s}";
+	}
+
+	private int clamp(int batchSize) {
+		return Math.max(minBatchSize, Math.min(maxBatchSize, batchSize));
+	}
+
+}
@@ -0,0 +1,308 @@
+package com.simon.credit.toolkit.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.simon.credit.toolkit.concurrent.MyReentrantLock;
+import com.simon.credit.toolkit.concurrent.MyScheduledThreadPoolExecutor;
+import com.simon.credit.toolkit.concurrent.MySemaphore;
+
+/**
+ * 微批累加器(攒批)
+ * <pre>
+ * 多个生产者线程逐条add，累加器把数据攒成批交给BatchCallback，把逐条写转成批量写：
+ * 1、攒满batchSize条立即刷出
+ * 2、不满一批时，从该批第一条进入起等待linger时间后刷出，低流量时单条数据的最大延迟为linger
+ * 3、有界：缓冲中+刷出处理中的数据总数不超过capacity，超出时按OverflowPolicy阻塞生产者或丢弃数据
+ * 4、刷出在内部的MyScheduledThreadPoolExecutor中执行(linger定时器共用该线程池)，flushThreads>1时多批可并发处理
+ *
+ * 使用完毕必须调用close：不再接收数据，剩余数据刷出并等待处理完成，然后关闭刷出线程。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class BatchAccumulator<T> implements AutoCloseable {
+
+	/** 缓冲满时的处理策略 */
+	public enum OverflowPolicy {
+		/** 阻塞生产者，直到有批次处理完毕腾出容量 */
+		BLOCK,
+		/** 丢弃当前数据，add返回false */
+		DROP
+	}
+
+	private static final AtomicInteger ACCUMULATOR_INDEX = new AtomicInteger(0);
+
+	private final int batchSize;
+	private final long lingerNanos;
+	private final int capacity;
+	private final OverflowPolicy overflowPolicy;
+	private final BatchCallback<List<T>> callback;
+
+	/** 容量许可：add时获取，批次处理完后按批大小归还 */
+	private final MySemaphore permits;
+	private final MyScheduledThreadPoolExecutor flushExecutor;
+
+	private final MyReentrantLock lock = new MyReentrantLock();
+	private List<T> buffer;
+	/** 当前缓冲批次的linger定时器 */
+	private ScheduledFuture<?> lingerTimer;
+	/** 缓冲批次代号，每刷出一批加1，用于识别过期的linger定时器 */
+	private long generation;
+	private boolean closed;
+
+	private final LongAdder addedCount = new LongAdder();
+	private final LongAdder droppedCount = new LongAdder();
+	private final LongAdder sizeFlushCount = new LongAdder();
+	private final LongAdder lingerFlushCount = new LongAdder();
+	private final LongAdder failedBatchCount = new LongAdder();
+
+	/**
+	 * 容量为8批，缓冲满时阻塞，单个刷出线程
+	 * @param batchSize 批大小
+	 * @param linger 不满一批时的最长等待时间
+	 * @param unit 时间单位
+	 * @param callback 批处理回调
+	 */
+	public BatchAccumulator(int batchSize, long linger, TimeUnit unit, BatchCallback<List<T>> callback) {
+		this(batchSize, linger, unit, batchSize * 8, OverflowPolicy.BLOCK, 1, callback);
+	}
+
+	/**
+	 * @param batchSize 批大小
+	 * @param linger 不满一批时的最长等待时间
+	 * @param unit 时间单位
+	 * @param capacity 缓冲中+处理中的最大数据条数(不小于batchSize)
+	 * @param overflowPolicy 缓冲满时的处理策略
+	 * @param flushThreads 刷出线程数
+	 * @param callback 批处理回调
+	 */
+	public BatchAccumulator(int batchSize, long linger, TimeUnit unit, int capacity,
+							OverflowPolicy overflowPolicy, int flushThreads, BatchCallback<List<T>> callback) {
+		if (batchSize <= 0 || linger <= 0 || capacity < batchSize || flushThreads <= 0) {
+			throw new IllegalArgumentException("Illegal batchSize, linger, capacity or flushThreads");
+		}
+		if (overflowPolicy == null || callback == null) {
+			throw new NullPointerException("overflowPolicy and callback can not be null.");
+		}
+		this.batchSize = batchSize;
+		this.lingerNanos = unit.toNanos(linger);
+		this.overflowPolicy = overflowPolicy;
+		this.callback = callback;
+		this.capacity = capacity;
+		this.permits = new MySemaphore(capacity);
+		this.buffer = new ArrayList<T>(batchSize);
+
+		final String threadPrefix = BatchAccumulator.class.getName() + "_" + ACCUMULATOR_INDEX.incrementAndGet() + "_";
+		this.flushExecutor = new MyScheduledThreadPoolExecutor(flushThreads, new ThreadFactory() {
+			private AtomicInteger index = new AtomicInteger(0);
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				return new Thread(runnable, threadPrefix + index.incrementAndGet());
+			}
+		});
+		// 已取消的linger定时器立即出队(close时flush会取消当前定时器)，关闭时不必等待它到期；
+		// 不能关闭executeExistingDelayedTasksAfterShutdown，否则已提交未执行的刷出任务会在shutdown时被一并取消
+		this.flushExecutor.setRemoveOnCancelPolicy(true);
+	}
+
+	/**
+	 * 添加一条数据
+	 * @param item 数据
+	 * @return 是否被接收(DROP策略下缓冲已满时返回false)
+	 * @throws InterruptedException BLOCK策略下等待容量时被中断
+	 * @throws IllegalStateException 累加器已关闭
+	 */
+	public boolean add(T item) throws InterruptedException {
+		if (overflowPolicy == OverflowPolicy.BLOCK) {
+			permits.acquire();
+		} else if (!permits.tryAcquire()) {
+			droppedCount.increment();
+			return false;
+		}
+
+		List<T> fullBatch = null;
+		lock.lock();
+		try {
+			if (closed) {
+				permits.release();
+				throw new IllegalStateException("BatchAccumulator already closed.");
+			}
+			buffer.add(item);
+			if (buffer.size() >= batchSize) {
+				fullBatch = drainBuffer();
+			} else if (buffer.size() == 1) {
+				scheduleLinger();
+			}
+		} finally {
+			lock.unlock();
+		}
+		addedCount.increment();
+
+		if (fullBatch != null) {
+			sizeFlushCount.increment();
+			dispatch(fullBatch);
+		}
+		return true;
+	}
+
+	/**
+	 * 立即刷出当前缓冲中的数据(不等待处理完成)
+	 */
+	public void flush() {
+		List<T> batch;
+		lock.lock();
+		try {
+			batch = buffer.isEmpty() ? null : drainBuffer();
+		} finally {
+			lock.unlock();
+		}
+		if (batch != null) {
+			dispatch(batch);
+		}
+	}
+
+	/**
+	 * 关闭累加器：刷出剩余数据，等待所有批次处理完毕
+	 */
+	@Override
+	public void close() {
+		close(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * 关闭累加器：刷出剩余数据，最多等待timeout让所有批次处理完毕
+	 * @return 是否在超时前处理完毕
+	 */
+	public boolean close(long timeout, TimeUnit unit) {
+		lock.lock();
+		try {
+			if (closed) {
+				return flushExecutor.isTerminated();
+			}
+			closed = true;
+		} finally {
+			lock.unlock();
+		}
+
+		flush();
+		flushExecutor.shutdown();
+		try {
+			return flushExecutor.awaitTermination(timeout, unit);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * 取出缓冲批次，调用方须持有锁
+	 */
+	private List<T> drainBuffer() {
+		List<T> batch = buffer;
+		buffer = new ArrayList<T>(batchSize);
+		generation++;
+		if (lingerTimer != null) {
+			lingerTimer.cancel(false);
+			lingerTimer = null;
+		}
+		return batch;
+	}
+
+	/**
+	 * 缓冲批次的第一条数据进入时启动linger定时器，调用方须持有锁
+	 */
+	private void scheduleLinger() {
+		final long expectedGeneration = generation;
+		lingerTimer = flushExecutor.schedule(new Runnable() {
+			@Override
+			public void run() {
+				lingerExpired(expectedGeneration);
+			}
+		}, lingerNanos, TimeUnit.NANOSECONDS);
+	}
+
+	private void lingerExpired(long expectedGeneration) {
+		List<T> batch = null;
+		lock.lock();
+		try {
+			// 定时器与满批刷出并发时，该批可能已经被刷出
+			if (expectedGeneration == generation && !buffer.isEmpty()) {
+				batch = drainBuffer();
+			}
+		} finally {
+			lock.unlock();
+		}
+		if (batch != null) {
+			lingerFlushCount.increment();
+			dispatch(batch);
+		}
+	}
+
+	private void dispatch(final List<T> batch) {
+		Runnable task = new Runnable() {
+			@Override
+			public void run() {
+				try {
+					callback.process(batch);
+				} catch (Throwable e) {
+					failedBatchCount.increment();
+					e.printStackTrace();
+				} finally {
+					permits.release(batch.size());
+				}
+			}
+		};
+		try {
+			flushExecutor.execute(task);
+		} catch (RejectedExecutionException e) {
+			// linger定时器在close之前取走了最后一批、但在线程池关闭之后才提交：由当前线程处理，不丢数据
+			task.run();
+		}
+	}
+
+	/** 已接收的数据条数 */
+	public long getAddedCount() {
+		return addedCount.sum();
+	}
+
+	/** DROP策略下被丢弃的数据条数 */
+	public long getDroppedCount() {
+		return droppedCount.sum();
+	}
+
+	/** 攒满batchSize刷出的批次数 */
+	public long getSizeFlushCount() {
+		return sizeFlushCount.sum();
+	}
+
+	/** linger到期刷出的批次数 */
+	public long getLingerFlushCount() {
+		return lingerFlushCount.sum();
+	}
+
+	/** 回调抛出异常的批次数 */
+	public long getFailedBatchCount() {
+		return failedBatchCount.sum();
+	}
+
+	/** 缓冲中+处理中的数据条数 */
+	public int getPendingCount() {
+		return capacity - permits.availablePermits();
+	}
+
+	@Override
+	public String toString() {
+		return "BatchAccumulator{batchSize=" + batchSize + ", lingerMillis=" + lingerNanos / 1000000.0
+			+ ", overflowPolicy=" + overflowPolicy + ", added=" + getAddedCount() + ", dropped=" + getDroppedCount()
+			+ ", sizeFlushes=" + getSizeFlushCount() + ", lingerFlushes=" + getLingerFlushCount()
+			+ ", failedBatches=" + getFailedBatchCount() + "}";
+	}
+
+}
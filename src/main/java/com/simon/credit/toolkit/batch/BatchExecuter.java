@@ -1,14 +1,36 @@
 package com.simon.credit.toolkit.batch;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
 
+import com.simon.credit.exception.ExceptionToolkits;
 import com.simon.credit.toolkit.common.CommonToolkits;
+import com.simon.credit.toolkit.concurrent.MySemaphore;
+import com.simon.credit.toolkit.io.LineIterator;
 
 /**
  * 批量任务分割器
+ * <pre>
+ * 1、串行：execute(params, callback)，在调用线程上逐批处理
+ * 2、并行：execute(params, callback/function, executor, maxInFlight[, ordered])，各批提交到线程池并发处理：
+ *    - 背压：进行中的批次达到maxInFlight时，分割暂停直到有批次完成，内存中最多只有maxInFlight批数据
+ *    - 分割与处理流水线进行：下一批在前面的批次处理期间分割并提交
+ *    - 每批的结果、异常(含线程池拒绝)和耗时收集到BatchReport中，单批失败不影响其他批次
+ *    - ordered为true时报告中的结果按批次序号排列，否则按完成顺序排列
+ * 3、流式：数据源为Iterator/Stream/LineIterator(execute)或Iterable(executeIterable)时边读边分批，不需要先构建完整集合，
+ *    内存峰值为 批大小 * 同时处理的批次数，与数据总量无关；批次默认每批新建，pooledBatches为true时池化复用
+ * 4、自适应：传入AdaptiveBatchSizer时，每批处理耗时回报给控制器，下一批的大小由控制器决定(以上所有模式均适用)
+ * </pre>
  * @author XUZIMING 2019-11-16
  */
 public class BatchExecuter {
@@ -17,15 +39,59 @@ public class BatchExecuter {
 
 	private int initBatchSize = 100;
 
+	/** 流式分批时是否池化复用批次List(回调不能在处理完后继续持有批次引用) */
+	private boolean pooledBatches = false;
+
+	/** 自适应批大小控制器，为null时使用固定批大小 */
+	private AdaptiveBatchSizer batchSizer;
+
 	public BatchExecuter() {
 		this(DEFAULT_BATCH_SIZE);
 	}
 
 	public BatchExecuter(int initBatchSiz) {
+		this(initBatchSiz, false);
+	}
+
+	/**
+	 * @param initBatchSiz 批大小
+	 * @param pooledBatches 流式分批时是否池化复用批次List
+	 */
+	public BatchExecuter(int initBatchSiz, boolean pooledBatches) {
 		if (initBatchSiz <= 0) {
 			initBatchSiz = DEFAULT_BATCH_SIZE;
 		}
 		this.initBatchSize = initBatchSiz;
+		this.pooledBatches = pooledBatches;
+	}
+
+	/**
+	 * 自适应批大小
+	 * @param batchSizer 批大小控制器
+	 */
+	public BatchExecuter(AdaptiveBatchSizer batchSizer) {
+		this(batchSizer, false);
+	}
+
+	/**
+	 * 自适应批大小
+	 * @param batchSizer 批大小控制器
+	 * @param pooledBatches 流式分批时是否池化复用批次List
+	 */
+	public BatchExecuter(AdaptiveBatchSizer batchSizer, boolean pooledBatches) {
+		if (batchSizer == null) {
+			throw new NullPointerException("batchSizer can not be null.");
+		}
+		this.batchSizer = batchSizer;
+		this.initBatchSize = batchSizer.nextBatchSize();
+		this.pooledBatches = pooledBatches;
+	}
+
+	/**
+	 * 自适应批大小控制器，固定批大小时为null
+	 */
+	public AdaptiveBatchSizer getBatchSizer() {
+		return batchSizer;
 	}
 
 	/**
@@ -39,21 +105,18 @@ public class BatchExecuter {
 			return;
 		}
 
-		if (params.size() <= initBatchSize) {
+		if (batchSizer == null && params.size() <= initBatchSize) {
 			callback.process(params);
 			return;
 		}
 
-		int batchSize = initBatchSize;
-		int batchTimes = (params.size() - 1) / batchSize + 1;
+		for (int from = 0; from < params.size(); ) {
+			int to = Math.min(from + nextBatchSize(), params.size());
 
-		for (int i = 0; i < batchTimes; i++) {
-			int from = batchSize * i;
-			int to   = batchSize * (i + 1);
+			List<T> batchParams = params.subList(from, to);
 
-			List<T> batchParams = params.subList(from, Math.min(to, params.size()));
-
-			callback.process(batchParams);
+			process(callback, batchParams);
+			from = to;
 		}
 	}
 
@@ -68,26 +131,361 @@ public class BatchExecuter {
 			return;
 		}
 
-		if (params.size() <= initBatchSize) {
+		if (batchSizer == null && params.size() <= initBatchSize) {
 			callback.process(params);
 			return;
 		}
 
-		Set<T> batchParams = new HashSet<T>(initBatchSize);
+		int batchSize = nextBatchSize();
+		Set<T> batchParams = new HashSet<T>(batchSize * 4 / 3 + 1);
 
 		for (Iterator<T> iterator = params.iterator(); iterator.hasNext();) {
 			T element = iterator.next();
 			batchParams.add(element);
 
-			if (batchParams.size() == initBatchSize) {
-				callback.process(batchParams);
-				batchParams.clear();
+			if (batchParams.size() >= batchSize) {
+				process(callback, batchParams);
+				// 每批使用新的Set，回调可以持有批次引用
+				batchSize = nextBatchSize();
+				batchParams = new HashSet<T>(batchSize * 4 / 3 + 1);
 			}
 		}
 
 		if (CommonToolkits.isNotEmpty(batchParams)) {
+			process(callback, batchParams);
+		}
+	}
+
+	/**
+	 * 并行执行(结果按批次序号排列)
+	 * @param params 数据
+	 * @param callback 批量处理
+	 * @param executor 执行批次的线程池
+	 * @param maxInFlight 最多同时处理的批次数
+	 * @return 执行报告
+	 */
+	public <T> BatchReport<Void> execute(List<T> params, BatchCallback<List<T>> callback,
+										 ExecutorService executor, int maxInFlight) {
+		return execute(params, asFunction(callback), executor, maxInFlight, true);
+	}
+
+	/**
+	 * 并行执行(结果按批次序号排列)，每批为独立的新Set
+	 * @param params 数据
+	 * @param callback 批量处理
+	 * @param executor 执行批次的线程池
+	 * @param maxInFlight 最多同时处理的批次数
+	 * @return 执行报告
+	 */
+	public <T> BatchReport<Void> execute(Set<T> params, BatchCallback<Set<T>> callback,
+										 ExecutorService executor, int maxInFlight) {
+		return execute(params, asFunction(callback), executor, maxInFlight, true);
+	}
+
+	/**
+	 * 并行执行并收集每批结果
+	 * @param params 数据(各批为subList视图，处理期间不能修改params)
+	 * @param function 批量处理
+	 * @param executor 执行批次的线程池
+	 * @param maxInFlight 最多同时处理的批次数
+	 * @param ordered 报告中的结果是否按批次序号排列
+	 * @return 执行报告
+	 */
+	public <T, R> BatchReport<R> execute(final List<T> params, BatchFunction<List<T>, R> function,
+										 ExecutorService executor, int maxInFlight, boolean ordered) {
+		Iterator<List<T>> batches = new Iterator<List<T>>() {
+			private final int total = params == null ? 0 : params.size();
+			private int from = 0;
+
+			@Override
+			public boolean hasNext() {
+				return from < total;
+			}
+
+			@Override
+			public List<T> next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				int to = Math.min(from + nextBatchSize(), total);
+				List<T> batchParams = params.subList(from, to);
+				from = to;
+				return batchParams;
+			}
+		};
+		return executeParallel(batches, function, executor, maxInFlight, ordered);
+	}
+
+	/**
+	 * 并行执行并收集每批结果，每批为独立的新Set
+	 * @param params 数据
+	 * @param function 批量处理
+	 * @param executor 执行批次的线程池
+	 * @param maxInFlight 最多同时处理的批次数
+	 * @param ordered 报告中的结果是否按批次序号排列
+	 * @return 执行报告
+	 */
+	public <T, R> BatchReport<R> execute(Set<T> params, BatchFunction<Set<T>, R> function,
+										 ExecutorService executor, int maxInFlight, boolean ordered) {
+		final Iterator<T> iterator = params == null ? Collections.<T>emptySet().iterator() : params.iterator();
+		Iterator<Set<T>> batches = new Iterator<Set<T>>() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public Set<T> next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				int batchSize = nextBatchSize();
+				Set<T> batchParams = new HashSet<T>(batchSize * 4 / 3 + 1);
+				while (iterator.hasNext() && batchParams.size() < batchSize) {
+					batchParams.add(iterator.next());
+				}
+				return batchParams;
+			}
+		};
+		return executeParallel(batches, function, executor, maxInFlight, ordered);
+	}
+
+	/**
+	 * 流式串行执行：边读边分批，不构建完整集合
+	 * @param source 数据源
+	 * @param callback 批量处理
+	 */
+	public <T> void execute(Iterator<? extends T> source, BatchCallback<List<T>> callback) {
+		if (source == null) {
+			return;
+		}
+		BatchIterator<T> batches = new BatchIterator<T>(source, initBatchSize, batchSizer, pooledBatches);
+		while (batches.hasNext()) {
+			List<T> batchParams = batches.next();
+			try {
+				process(callback, batchParams);
+			} finally {
+				batches.recycle(batchParams);
+			}
+		}
+	}
+
+	/**
+	 * 流式串行执行
+	 * <pre>
+	 * 不与execute重载：Iterable与execute(Set, ...)的参数重叠，同名时传入Set和lambda的调用会有歧义。
+	 * </pre>
+	 * @param source 数据源
+	 * @param callback 批量处理
+	 */
+	public <T> void executeIterable(Iterable<? extends T> source, BatchCallback<List<T>> callback) {
+		execute(source == null ? null : source.iterator(), callback);
+	}
+
+	/**
+	 * 流式串行执行(按Stream的迭代器顺序读取，不关闭Stream)
+	 * @param source 数据源
+	 * @param callback 批量处理
+	 */
+	public <T> void execute(Stream<? extends T> source, BatchCallback<List<T>> callback) {
+		execute(source == null ? null : source.iterator(), callback);
+	}
+
+	/**
+	 * 按行流式串行执行(不关闭LineIterator)
+	 * @param lines 文本行
+	 * @param callback 批量处理
+	 */
+	public void execute(LineIterator lines, BatchCallback<List<String>> callback) {
+		execute(asStringIterator(lines), callback);
+	}
+
+	/**
+	 * 流式并行执行：边读边分批，进行中的批次达到maxInFlight时暂停读取数据源
+	 * @param source 数据源
+	 * @param function 批量处理
+	 * @param executor 执行批次的线程池
+	 * @param maxInFlight 最多同时处理的批次数
+	 * @param ordered 报告中的结果是否按批次序号排列
+	 * @return 执行报告
+	 */
+	public <T, R> BatchReport<R> execute(Iterator<? extends T> source, final BatchFunction<List<T>, R> function,
+										 ExecutorService executor, int maxInFlight, boolean ordered) {
+		Iterator<T> emptyIterator = Collections.<T>emptyList().iterator();
+		final BatchIterator<T> batches = new BatchIterator<T>(source == null ? emptyIterator : source,
+			initBatchSize, batchSizer, pooledBatches);
+		if (!batches.isPooled() || function == null) {
+			return executeParallel(batches, function, executor, maxInFlight, ordered);
+		}
+
+		// 池化：批次处理完后放回池中
+		return executeParallel(batches, new BatchFunction<List<T>, R>() {
+			@Override
+			public R process(List<T> batchParams) throws Exception {
+				try {
+					return function.process(batchParams);
+				} finally {
+					batches.recycle(batchParams);
+				}
+			}
+		}, executor, maxInFlight, ordered);
+	}
+
+	/**
+	 * 流式并行执行
+	 * @see #execute(Iterator, BatchFunction, ExecutorService, int, boolean)
+	 */
+	public <T, R> BatchReport<R> executeIterable(Iterable<? extends T> source, BatchFunction<List<T>, R> function,
+										 ExecutorService executor, int maxInFlight, boolean ordered) {
+		return execute(source == null ? null : source.iterator(), function, executor, maxInFlight, ordered);
+	}
+
+	/**
+	 * 流式并行执行(按Stream的迭代器顺序读取，不关闭Stream)
+	 * @see #execute(Iterator, BatchFunction, ExecutorService, int, boolean)
+	 */
+	public <T, R> BatchReport<R> execute(Stream<? extends T> source, BatchFunction<List<T>, R> function,
+										 ExecutorService executor, int maxInFlight, boolean ordered) {
+		return execute(source == null ? null : source.iterator(), function, executor, maxInFlight, ordered);
+	}
+
+	/**
+	 * 按行流式并行执行(不关闭LineIterator)
+	 * @see #execute(Iterator, BatchFunction, ExecutorService, int, boolean)
+	 */
+	public <R> BatchReport<R> execute(LineIterator lines, BatchFunction<List<String>, R> function,
+									  ExecutorService executor, int maxInFlight, boolean ordered) {
+		return execute(asStringIterator(lines), function, executor, maxInFlight, ordered);
+	}
+
+	private <C extends Collection<?>, R> BatchReport<R> executeParallel(Iterator<C> batches, final BatchFunction<C, R> function,
+																	   ExecutorService executor, int maxInFlight, boolean ordered) {
+		if (function == null || executor == null) {
+			throw new NullPointerException();
+		}
+		if (maxInFlight <= 0) {
+			throw new IllegalArgumentException("Illegal max in flight: " + maxInFlight);
+		}
+
+		final MySemaphore inFlight = new MySemaphore(maxInFlight);
+		final List<BatchResult<R>> results = Collections.synchronizedList(new ArrayList<BatchResult<R>>());
+		long start = System.nanoTime();
+
+		boolean permitHeld = false;
+		try {
+			for (int batchIndex = 0; ; batchIndex++) {
+				inFlight.acquire();// 背压：进行中的批次达到上限时暂停分割
+				permitHeld = true;
+				if (!batches.hasNext()) {
+					break;
+				}
+
+				final C batchParams = batches.next();
+				final int index = batchIndex;
+				final int batchSize = batchParams.size();
+				permitHeld = false;// 许可交给批次任务(或拒绝分支)释放
+				try {
+					executor.execute(new Runnable() {
+						@Override
+						public void run() {
+							long begin = System.nanoTime();
+							R result = null;
+							Throwable error = null;
+							try {
+								result = function.process(batchParams);
+							} catch (Throwable e) {
+								error = e;
+							} finally {
+								long cost = System.nanoTime() - begin;
+								if (batchSizer != null) {
+									batchSizer.record(batchSize, cost);
+								}
+								results.add(new BatchResult<R>(index, batchSize, result, error, cost));
+								inFlight.release();
+							}
+						}
+					});
+				} catch (RejectedExecutionException e) {
+					results.add(new BatchResult<R>(index, batchSize, null, e, 0L));
+					inFlight.release();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw ExceptionToolkits.illegalStateException("batch execution interrupted", e);
+		} finally {
+			if (permitHeld) {
+				inFlight.release();
+			}
+			// 等待所有进行中的批次完成：分割异常(如读取失败)或中断时也不能留下仍在线程池中执行的批次
+			inFlight.acquireUninterruptibly(maxInFlight);
+			inFlight.release(maxInFlight);
+		}
+
+		List<BatchResult<R>> resultList;
+		synchronized (results) {
+			resultList = new ArrayList<BatchResult<R>>(results);
+		}
+		if (ordered) {
+			Collections.sort(resultList, new Comparator<BatchResult<R>>() {
+				@Override
+				public int compare(BatchResult<R> r1, BatchResult<R> r2) {
+					return Integer.compare(r1.getBatchIndex(), r2.getBatchIndex());
+				}
+			});
+		}
+		return new BatchReport<R>(resultList, System.nanoTime() - start);
+	}
+
+	private int nextBatchSize() {
+		return batchSizer == null ? initBatchSize : batchSizer.nextBatchSize();
+	}
+
+	/**
+	 * 处理一批，自适应模式下回报耗时
+	 */
+	private <C extends Collection<?>> void process(BatchCallback<C> callback, C batchParams) {
+		if (batchSizer == null) {
 			callback.process(batchParams);
+			return;
+		}
+		int batchSize = batchParams.size();// 池化批次处理后会被清空，提前取大小
+		long begin = System.nanoTime();
+		try {
+			callback.process(batchParams);
+		} finally {
+			batchSizer.record(batchSize, System.nanoTime() - begin);
+		}
+	}
+
+	private static Iterator<String> asStringIterator(final LineIterator lines) {
+		if (lines == null) {
+			return null;
+		}
+		return new Iterator<String>() {
+			@Override
+			public boolean hasNext() {
+				return lines.hasNext();
+			}
+
+			@Override
+			public String next() {
+				return lines.nextLine();
+			}
+		};
+	}
+
+	private static <C extends Collection<?>> BatchFunction<C, Void> asFunction(final BatchCallback<C> callback) {
+		if (callback == null) {
+			throw new NullPointerException();
 		}
+		return new BatchFunction<C, Void>() {
+			@Override
+			public Void process(C batchParams) {
+				callback.process(batchParams);
+				return null;
+			}
+		};
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.simon.credit.toolkit.batch;
+
+import java.util.Collection;
+
+/**
+ * 带返回结果的批量处理
+ * <pre>
+ * 与BatchCallback相比：可以返回每批的处理结果(例如影响行数)，也可以直接抛出受检异常，
+ * 结果和异常由BatchExecuter收集到BatchReport中。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public interface BatchFunction<C extends Collection<?>, R> {
+
+	/**
+	 * 处理一批数据
+	 * @param batchParams 本批数据
+	 * @return 本批处理结果
+	 */
+	R process(C batchParams) throws Exception;
+
+}
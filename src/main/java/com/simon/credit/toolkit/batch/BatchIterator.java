@@ -0,0 +1,78 @@
+package com.simon.credit.toolkit.batch;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 流式分批迭代器
+ * <pre>
+ * 从数据源逐个读取元素，每读满一批(固定batchSize或由AdaptiveBatchSizer决定，或数据源读完)输出一批，任意时刻只持有正在组装的一批，
+ * 不会把数据源全部加载到内存。
+ *
+ * 批次List有两种来源：
+ * 1、新建(默认)：每批都是新的ArrayList，调用方可以放心持有批次引用
+ * 2、池化：批次处理完后由recycle清空并放回池中，下一批复用，池中List数量不超过同时处理的批次数，
+ *    适合超大数据量且回调不持有批次引用的场景，减少大List的分配
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+final class BatchIterator<T> implements Iterator<List<T>> {
+
+	private final Iterator<? extends T> source;
+	private final int batchSize;
+	private final AdaptiveBatchSizer batchSizer;// 为null表示固定批大小
+	private final Queue<List<T>> pool;// 为null表示不池化
+
+	BatchIterator(Iterator<? extends T> source, int batchSize, AdaptiveBatchSizer batchSizer, boolean pooled) {
+		this.source = source;
+		this.batchSize = batchSize;
+		this.batchSizer = batchSizer;
+		this.pool = pooled ? new ConcurrentLinkedQueue<List<T>>() : null;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return source.hasNext();
+	}
+
+	@Override
+	public List<T> next() {
+		if (!source.hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		int size = (batchSizer == null) ? batchSize : batchSizer.nextBatchSize();
+		List<T> batch = (pool == null) ? null : pool.poll();
+		if (batch == null) {
+			batch = new ArrayList<T>(size);
+		}
+		while (source.hasNext() && batch.size() < size) {
+			batch.add(source.next());
+		}
+		return batch;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	boolean isPooled() {
+		return pool != null;
+	}
+
+	/**
+	 * 批次处理完毕，池化模式下清空后放回池中(可在任意线程调用)
+	 */
+	void recycle(List<T> batch) {
+		if (pool != null) {
+			batch.clear();
+			pool.offer(batch);
+		}
+	}
+
+}
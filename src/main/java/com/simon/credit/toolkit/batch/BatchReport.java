@@ -0,0 +1,92 @@
+package com.simon.credit.toolkit.batch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 批量执行报告
+ * @author XUZIMING 2026-10-18
+ */
+public final class BatchReport<R> {
+
+	private final List<BatchResult<R>> results;
+	private final long elapsedNanos;
+	private final int succeededCount;
+	private final int failedCount;
+	private final long processedCount;
+
+	BatchReport(List<BatchResult<R>> results, long elapsedNanos) {
+		this.results = Collections.unmodifiableList(results);
+		this.elapsedNanos = elapsedNanos;
+
+		int succeeded = 0;
+		long processed = 0;
+		for (BatchResult<R> result : results) {
+			if (result.isSuccess()) {
+				succeeded++;
+				processed += result.getBatchSize();
+			}
+		}
+		this.succeededCount = succeeded;
+		this.failedCount = results.size() - succeeded;
+		this.processedCount = processed;
+	}
+
+	/**
+	 * 每批的处理结果：有序执行时按批次序号排列，否则按完成顺序排列
+	 */
+	public List<BatchResult<R>> getResults() {
+		return results;
+	}
+
+	/**
+	 * 失败的批次
+	 */
+	public List<BatchResult<R>> getFailures() {
+		List<BatchResult<R>> failures = new ArrayList<BatchResult<R>>(failedCount);
+		for (BatchResult<R> result : results) {
+			if (!result.isSuccess()) {
+				failures.add(result);
+			}
+		}
+		return failures;
+	}
+
+	public int getTotalBatches() {
+		return results.size();
+	}
+
+	public int getSucceededCount() {
+		return succeededCount;
+	}
+
+	public int getFailedCount() {
+		return failedCount;
+	}
+
+	/**
+	 * 处理成功的数据条数
+	 */
+	public long getProcessedCount() {
+		return processedCount;
+	}
+
+	public boolean isAllSucceeded() {
+		return failedCount == 0;
+	}
+
+	/**
+	 * 从第一批开始到最后一批完成的总耗时
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "BatchReport{totalBatches=" + results.size() + ", succeeded=" + succeededCount + ", failed=" + failedCount
+			+ ", processedCount=" + processedCount + ", elapsedMillis=" + elapsedNanos / 1000000 + "}";
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.simon.credit.toolkit.batch;
+
+/**
+ * 单批处理结果
+ * @author XUZIMING 2026-10-18
+ */
+public final class BatchResult<R> {
+
+	private final int batchIndex;
+	private final int batchSize;
+	private final R result;
+	private final Throwable error;
+	private final long costNanos;
+
+	BatchResult(int batchIndex, int batchSize, R result, Throwable error, long costNanos) {
+		this.batchIndex = batchIndex;
+		this.batchSize = batchSize;
+		this.result = result;
+		this.error = error;
+		this.costNanos = costNanos;
+	}
+
+	/**
+	 * 批次序号(从0开始，按分割顺序)
+	 */
+	public int getBatchIndex() {
+		return batchIndex;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public R getResult() {
+		return result;
+	}
+
+	/**
+	 * 处理异常(含线程池拒绝)，成功时为null
+	 */
+	public Throwable getError() {
+		return error;
+	}
+
+	public long getCostNanos() {
+		return costNanos;
+	}
+
+	public boolean isSuccess() {
+		return error == null;
+	}
+
+	@Override
+	public String toString() {
+		return "BatchResult{batchIndex=" + batchIndex + ", batchSize=" + batchSize
+			+ (error == null ? ", result=" + result : ", error=" + error) + ", costMillis=" + costNanos / 1000000 + "}";
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.simon.credit.toolkit.batch;
+
+/**
+ * 批量执行检查点(不可变)
+ * <pre>
+ * 记录已提交(处理成功)的进度：
+ * 1、batchIndex：已提交的批次数，即下一批的序号
+ * 2、offset：已提交的数据位置，集合/迭代器为已处理的条数，文本文件为已处理行之后的字节偏移量
+ * 3、cursor：用户游标，由批处理函数返回(例如本批最后一条记录的主键)，可为null
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public final class Checkpoint {
+
+	/** 从头开始 */
+	public static final Checkpoint START = new Checkpoint(0, 0, null, 0);
+
+	private final long batchIndex;
+	private final long offset;
+	private final String cursor;
+	private final long updateTime;
+
+	public Checkpoint(long batchIndex, long offset, String cursor, long updateTime) {
+		if (batchIndex < 0 || offset < 0) {
+			throw new IllegalArgumentException("Illegal checkpoint: batchIndex=" + batchIndex + ", offset=" + offset);
+		}
+		this.batchIndex = batchIndex;
+		this.offset = offset;
+		this.cursor = cursor;
+		this.updateTime = updateTime;
+	}
+
+	/**
+	 * 提交一批后的检查点
+	 */
+	Checkpoint advance(long newOffset, String newCursor) {
+		return new Checkpoint(batchIndex + 1, newOffset, newCursor, System.currentTimeMillis());
+	}
+
+	public long getBatchIndex() {
+		return batchIndex;
+	}
+
+	public long getOffset() {
+		return offset;
+	}
+
+	public String getCursor() {
+		return cursor;
+	}
+
+	public long getUpdateTime() {
+		return updateTime;
+	}
+
+	@Override
+	public String toString() {
+		return "Checkpoint{batchIndex=" + batchIndex + ", offset=" + offset + ", cursor=" + cursor + ", updateTime=" + updateTime + "}";
+	}
+
+}
@@ -0,0 +1,126 @@
+package com.simon.credit.toolkit.batch;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+import com.simon.credit.toolkit.io.IOToolkits;
+
+/**
+ * 本地检查点文件
+ * <pre>
+ * 检查点以properties格式保存(几十个字节)：
+ * 1、先完整写入同目录下的临时文件并fsync，再原子重命名覆盖正式文件，进程在任意时刻崩溃，
+ *    正式文件要么是旧检查点、要么是新检查点，不会是写了一半的内容
+ * 2、文件系统不支持原子重命名时退化为普通覆盖
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class CheckpointFile {
+
+	private static final String BATCH_INDEX = "batchIndex";
+	private static final String OFFSET = "offset";
+	private static final String CURSOR = "cursor";
+	private static final String UPDATE_TIME = "updateTime";
+
+	private final File file;
+	private final File tmpFile;
+
+	public CheckpointFile(String path) {
+		this(new File(path));
+	}
+
+	public CheckpointFile(File file) {
+		if (file == null) {
+			throw new NullPointerException("checkpoint file can not be null.");
+		}
+		this.file = file.getAbsoluteFile();
+		this.tmpFile = new File(this.file.getParentFile(), this.file.getName() + ".tmp");
+	}
+
+	/**
+	 * 读取检查点
+	 * @return 检查点，文件不存在时返回null
+	 */
+	public Checkpoint load() throws IOException {
+		if (!file.exists()) {
+			return null;
+		}
+
+		Properties props = new Properties();
+		Reader reader = new InputStreamReader(new FileInputStream(file), IOToolkits.UTF8);
+		try {
+			props.load(reader);
+		} finally {
+			IOToolkits.close(reader);
+		}
+
+		try {
+			return new Checkpoint(Long.parseLong(props.getProperty(BATCH_INDEX)), Long.parseLong(props.getProperty(OFFSET)),
+				props.getProperty(CURSOR), Long.parseLong(props.getProperty(UPDATE_TIME, "0")));
+		} catch (RuntimeException e) {// 缺少字段或格式错误
+			throw new IOException("Corrupted checkpoint file: " + file, e);
+		}
+	}
+
+	/**
+	 * 原子保存检查点
+	 */
+	public void save(Checkpoint checkpoint) throws IOException {
+		Properties props = new Properties();
+		props.setProperty(BATCH_INDEX, String.valueOf(checkpoint.getBatchIndex()));
+		props.setProperty(OFFSET, String.valueOf(checkpoint.getOffset()));
+		if (checkpoint.getCursor() != null) {
+			props.setProperty(CURSOR, checkpoint.getCursor());
+		}
+		props.setProperty(UPDATE_TIME, String.valueOf(checkpoint.getUpdateTime()));
+
+		File parent = file.getParentFile();
+		if (parent != null && !parent.exists() && !parent.mkdirs() && !parent.exists()) {
+			throw new IOException("Directory '" + parent + "' could not be created");
+		}
+
+		FileOutputStream output = new FileOutputStream(tmpFile);
+		try {
+			Writer writer = new OutputStreamWriter(output, IOToolkits.UTF8);
+			props.store(writer, null);
+			writer.flush();
+			output.getFD().sync();
+		} finally {
+			IOToolkits.close(output);
+		}
+
+		try {
+			Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * 删除检查点(任务全部完成后调用)
+	 */
+	public void delete() throws IOException {
+		Files.deleteIfExists(tmpFile.toPath());
+		Files.deleteIfExists(file.toPath());
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	@Override
+	public String toString() {
+		return "CheckpointFile{" + file + "}";
+	}
+
+}
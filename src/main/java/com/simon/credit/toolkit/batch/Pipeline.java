@@ -0,0 +1,409 @@
+package com.simon.credit.toolkit.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.simon.credit.exception.ExceptionToolkits;
+import com.simon.credit.toolkit.concurrent.OptimizedThreadPool;
+import com.simon.credit.toolkit.core.MyArrayBlockingQueue;
+
+/**
+ * 多阶段流水线(SEDA)
+ * <pre>
+ * 把"解析 -> 补全 -> 批量写入"这类处理链拆成多个阶段，每个阶段有独立的工作线程数和有界输入队列：
+ * 1、阶段之间通过MyArrayBlockingQueue连接，下游处理不过来时上游阻塞(背压)，内存占用有上限
+ * 2、单条阶段(StageFunction)逐条处理，返回null表示过滤；批处理阶段(BatchFunction)攒满batchSize条或
+ *    等待超过linger后处理一批，批结果不为null时传给下一阶段
+ * 3、流结束：complete()向第一阶段发送结束标记，每个阶段所有工作线程处理完(批处理阶段先刷出剩余数据)后，
+ *    再向下一阶段发送结束标记，await在最后一个阶段结束后返回
+ * 4、异常：任一阶段抛出异常时流水线失败，所有阶段停止处理，submit和await抛出包含原始异常的IllegalStateException
+ * 5、每个阶段的队列长度、吞吐、利用率通过getStageMetrics观察，据此找到瓶颈阶段并单独调整其线程数和队列长度
+ *
+ * 用法：
+ * Pipeline&lt;String&gt; pipeline = Pipeline.&lt;String&gt;builder()
+ *     .stage("parse", 2, 1024, parseFunction)
+ *     .stage("enrich", 8, 1024, enrichFunction)
+ *     .batchStage("write", 2, 256, 500, 100, TimeUnit.MILLISECONDS, writeFunction)
+ *     .build();
+ * for (String line : lines) pipeline.submit(line);
+ * pipeline.complete();
+ * pipeline.await();
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public final class Pipeline<I> {
+
+	/** 结束标记 */
+	private static final Object END_OF_STREAM = new Object();
+
+	/** 阻塞等待队列时检查流水线是否已失败的间隔 */
+	private static final long CHECK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private final List<Stage> stages;
+	private final ExecutorService workerPool;
+	private final CountDownLatch workersDone;
+	private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+	private volatile String failedStage;
+	private volatile boolean completed;
+	private final long startNanos;
+	private volatile long endNanos;
+
+	private Pipeline(List<StageDefinition> definitions) {
+		this.stages = new ArrayList<Stage>(definitions.size());
+		for (StageDefinition definition : definitions) {
+			stages.add(new Stage(definition));
+		}
+
+		int totalWorkers = 0;
+		for (int i = 0; i < stages.size(); i++) {
+			Stage stage = stages.get(i);
+			stage.next = (i + 1 < stages.size()) ? stages.get(i + 1) : null;
+			totalWorkers += stage.workers;
+		}
+		this.workersDone = new CountDownLatch(totalWorkers);
+		this.workerPool = OptimizedThreadPool.newCachedThreadPool(totalWorkers, totalWorkers);
+		this.startNanos = System.nanoTime();
+
+		for (final Stage stage : stages) {
+			for (int i = 0; i < stage.workers; i++) {
+				workerPool.execute(new Runnable() {
+					@Override
+					public void run() {
+						stage.work();
+					}
+				});
+			}
+		}
+	}
+
+	public static <I> Builder<I, I> builder() {
+		return new Builder<I, I>();
+	}
+
+	/**
+	 * 提交一条数据到第一阶段，队列满时阻塞
+	 * @throws IllegalStateException 已调用complete，或流水线已失败
+	 */
+	public void submit(I item) throws InterruptedException {
+		if (item == null) {
+			throw new NullPointerException("item can not be null.");
+		}
+		if (completed) {
+			throw new IllegalStateException("Pipeline already completed.");
+		}
+		if (!enqueue(stages.get(0), item)) {
+			throw failureException();
+		}
+	}
+
+	/**
+	 * 数据提交完毕，发送结束标记
+	 */
+	public void complete() throws InterruptedException {
+		if (completed) {
+			return;
+		}
+		completed = true;
+		enqueue(stages.get(0), END_OF_STREAM);
+	}
+
+	/**
+	 * 等待所有阶段处理完毕
+	 * @throws IllegalStateException 某个阶段处理失败
+	 */
+	public void await() throws InterruptedException {
+		workersDone.await();
+		checkFailure();
+	}
+
+	/**
+	 * 最多等待timeout让所有阶段处理完毕
+	 * @return 是否在超时前处理完毕
+	 * @throws IllegalStateException 某个阶段处理失败
+	 */
+	public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+		boolean done = workersDone.await(timeout, unit);
+		checkFailure();
+		return done;
+	}
+
+	/**
+	 * 失败时的原始异常，未失败返回null
+	 */
+	public Throwable getFailure() {
+		return failure.get();
+	}
+
+	/**
+	 * 各阶段指标(按阶段顺序)
+	 */
+	public List<StageMetrics> getStageMetrics() {
+		long elapsed = (endNanos != 0 ? endNanos : System.nanoTime()) - startNanos;
+		List<StageMetrics> metrics = new ArrayList<StageMetrics>(stages.size());
+		for (Stage stage : stages) {
+			metrics.add(stage.metrics(elapsed));
+		}
+		return metrics;
+	}
+
+	@Override
+	public String toString() {
+		return "Pipeline" + getStageMetrics();
+	}
+
+	private void checkFailure() {
+		if (failure.get() != null) {
+			throw failureException();
+		}
+	}
+
+	private IllegalStateException failureException() {
+		return ExceptionToolkits.illegalStateException("Pipeline stage '" + failedStage + "' failed", failure.get());
+	}
+
+	private void fail(Stage stage, Throwable cause) {
+		if (failure.compareAndSet(null, cause)) {
+			failedStage = stage.name;
+		}
+	}
+
+	/**
+	 * 放入阶段输入队列，队列满时阻塞；流水线失败时放弃并返回false
+	 */
+	private boolean enqueue(Stage stage, Object item) throws InterruptedException {
+		while (!stage.queue.offer(item, CHECK_INTERVAL_NANOS, TimeUnit.NANOSECONDS)) {
+			if (failure.get() != null) {
+				return false;
+			}
+		}
+		return failure.get() == null;
+	}
+
+	/**
+	 * 流水线阶段
+	 */
+	private final class Stage {
+		final String name;
+		final int workers;
+		final int queueCapacity;
+		final MyArrayBlockingQueue<Object> queue;
+		final StageFunction<Object, Object> function;// 单条阶段
+		final BatchFunction<List<Object>, Object> batchFunction;// 批处理阶段
+		final int batchSize;
+		final long lingerNanos;
+		Stage next;
+
+		final AtomicInteger runningWorkers;
+		final LongAdder inCount = new LongAdder();
+		final LongAdder outCount = new LongAdder();
+		final LongAdder busyNanos = new LongAdder();
+
+		Stage(StageDefinition definition) {
+			this.name = definition.name;
+			this.workers = definition.workers;
+			this.queueCapacity = definition.queueCapacity;
+			this.queue = new MyArrayBlockingQueue<Object>(definition.queueCapacity);
+			this.function = definition.function;
+			this.batchFunction = definition.batchFunction;
+			this.batchSize = definition.batchSize;
+			this.lingerNanos = definition.lingerNanos;
+			this.runningWorkers = new AtomicInteger(definition.workers);
+		}
+
+		void work() {
+			List<Object> batch = null;
+			long batchStartNanos = 0;
+			try {
+				while (failure.get() == null) {
+					long waitNanos = CHECK_INTERVAL_NANOS;
+					if (batch != null && !batch.isEmpty()) {
+						waitNanos = Math.min(waitNanos, batchStartNanos + lingerNanos - System.nanoTime());
+						if (waitNanos <= 0) {
+							flush(batch);
+							batch = null;
+							continue;
+						}
+					}
+
+					Object item = queue.poll(waitNanos, TimeUnit.NANOSECONDS);
+					if (item == null) {
+						continue;
+					}
+					if (item == END_OF_STREAM) {
+						// 结束标记放回队列，让同阶段的其他工作线程也能收到
+						queue.put(END_OF_STREAM);
+						if (batch != null && !batch.isEmpty()) {
+							flush(batch);
+						}
+						break;
+					}
+
+					inCount.increment();
+					if (batchFunction == null) {
+						long begin = System.nanoTime();
+						Object result = function.apply(item);
+						busyNanos.add(System.nanoTime() - begin);
+						emit(result);
+					} else {
+						if (batch == null) {
+							batch = new ArrayList<Object>(batchSize);
+						}
+						if (batch.isEmpty()) {
+							batchStartNanos = System.nanoTime();
+						}
+						batch.add(item);
+						if (batch.size() >= batchSize) {
+							flush(batch);
+							batch = null;
+						}
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				fail(this, e);
+			} catch (Throwable e) {
+				fail(this, e);
+			} finally {
+				finishWorker();
+			}
+		}
+
+		private void flush(List<Object> batch) throws Exception {
+			long begin = System.nanoTime();
+			Object result = batchFunction.process(batch);
+			busyNanos.add(System.nanoTime() - begin);
+			emit(result);
+		}
+
+		private void emit(Object result) throws InterruptedException {
+			if (result != null && next != null) {
+				if (enqueue(next, result)) {
+					outCount.increment();
+				}
+			} else if (result != null) {
+				outCount.increment();
+			}
+		}
+
+		private void finishWorker() {
+			try {
+				// 本阶段最后一个工作线程退出时，向下一阶段发送结束标记
+				if (runningWorkers.decrementAndGet() == 0 && next != null && failure.get() == null) {
+					enqueue(next, END_OF_STREAM);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				fail(this, e);
+			} finally {
+				workersDone.countDown();
+				if (workersDone.getCount() == 0) {
+					endNanos = System.nanoTime();
+					workerPool.shutdown();
+				}
+			}
+		}
+
+		StageMetrics metrics(long elapsedNanos) {
+			int queueSize = queue.size();
+			if (queueSize > 0 && queue.peek() == END_OF_STREAM) {
+				queueSize--;
+			}
+			return new StageMetrics(name, workers, queueSize, queueCapacity, inCount.sum(), outCount.sum(),
+				busyNanos.sum(), elapsedNanos);
+		}
+	}
+
+	/**
+	 * 阶段定义(构建时使用)
+	 */
+	private static final class StageDefinition {
+		final String name;
+		final int workers;
+		final int queueCapacity;
+		final StageFunction<Object, Object> function;
+		final BatchFunction<List<Object>, Object> batchFunction;
+		final int batchSize;
+		final long lingerNanos;
+
+		StageDefinition(String name, int workers, int queueCapacity, StageFunction<Object, Object> function,
+						BatchFunction<List<Object>, Object> batchFunction, int batchSize, long lingerNanos) {
+			if (name == null || (function == null && batchFunction == null)) {
+				throw new NullPointerException("stage name and function can not be null.");
+			}
+			if (workers <= 0 || queueCapacity <= 0) {
+				throw new IllegalArgumentException("Illegal workers or queueCapacity of stage '" + name + "'");
+			}
+			this.name = name;
+			this.workers = workers;
+			this.queueCapacity = queueCapacity;
+			this.function = function;
+			this.batchFunction = batchFunction;
+			this.batchSize = batchSize;
+			this.lingerNanos = lingerNanos;
+		}
+	}
+
+	/**
+	 * 流水线构建器
+	 * @param <I> 流水线输入类型
+	 * @param <O> 当前最后一个阶段的输出类型
+	 */
+	public static final class Builder<I, O> {
+
+		private final List<StageDefinition> definitions = new ArrayList<StageDefinition>();
+
+		private Builder() {}
+
+		/**
+		 * 追加单条处理阶段
+		 * @param name 阶段名称
+		 * @param workers 工作线程数
+		 * @param queueCapacity 输入队列长度
+		 * @param function 处理函数，返回null表示过滤掉该条
+		 */
+		@SuppressWarnings("unchecked")
+		public <R> Builder<I, R> stage(String name, int workers, int queueCapacity, StageFunction<? super O, R> function) {
+			definitions.add(new StageDefinition(name, workers, queueCapacity,
+				(StageFunction<Object, Object>) function, null, 0, 0));
+			return (Builder<I, R>) this;
+		}
+
+		/**
+		 * 追加批处理阶段
+		 * @param name 阶段名称
+		 * @param workers 工作线程数(每个工作线程独立攒批)
+		 * @param queueCapacity 输入队列长度
+		 * @param batchSize 批大小
+		 * @param linger 不满一批时的最长等待时间
+		 * @param unit 时间单位
+		 * @param batchFunction 批处理函数，返回值不为null时传给下一阶段
+		 */
+		@SuppressWarnings("unchecked")
+		public <R> Builder<I, R> batchStage(String name, int workers, int queueCapacity, int batchSize, long linger,
+											TimeUnit unit, BatchFunction<List<O>, R> batchFunction) {
+			if (batchSize <= 0 || linger <= 0) {
+				throw new IllegalArgumentException("Illegal batchSize or linger of stage '" + name + "'");
+			}
+			definitions.add(new StageDefinition(name, workers, queueCapacity, null,
+				(BatchFunction<List<Object>, Object>) (BatchFunction<?, ?>) batchFunction, batchSize, unit.toNanos(linger)));
+			return (Builder<I, R>) this;
+		}
+
+		/**
+		 * 构建并启动流水线
+		 */
+		public Pipeline<I> build() {
+			if (definitions.isEmpty()) {
+				throw new IllegalStateException("Pipeline has no stage.");
+			}
+			return new Pipeline<I>(new ArrayList<StageDefinition>(definitions));
+		}
+	}
+
+}
@@ -0,0 +1,162 @@
+package com.simon.credit.toolkit.batch;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.simon.credit.toolkit.batch.BatchAccumulator.OverflowPolicy;
+import com.simon.credit.toolkit.concurrent.MyConcurrentHashMap;
+
+/**
+ * 请求合并器(DataLoader)
+ * <pre>
+ * 大量线程各自按单个key查询(findById)时，把同一时间窗口内的key合并成一次批量查询：
+ * 1、调用方load(key)立即得到该key的CompletableFuture，不阻塞
+ * 2、key在BatchAccumulator中攒批：攒满maxBatchSize个或窗口时间到期，调用一次批量加载函数
+ * 3、去重：key已在等待或加载中时，直接返回同一个Future，同一个key只会被加载一次
+ * 4、批量加载返回Map后按key分发结果；Map中没有的key结果为null，加载异常时该批所有Future异常完成
+ *
+ * 下游调用次数从"请求数"降为"请求数 / 批大小"，代价是每个请求最多多等待一个窗口时间。
+ * 使用完毕必须调用close。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class RequestCoalescer<K, V> implements AutoCloseable {
+
+	/** 等待或加载中的key，同一个key只对应一个Future */
+	private final MyConcurrentHashMap<K, CompletableFuture<V>> pending = new MyConcurrentHashMap<K, CompletableFuture<V>>();
+
+	private final BatchFunction<Set<K>, Map<K, V>> batchLoader;
+	private final BatchAccumulator<K> accumulator;
+
+	private final LongAdder requestCount = new LongAdder();
+	private final LongAdder coalescedCount = new LongAdder();
+	private final LongAdder batchLoadCount = new LongAdder();
+
+	/**
+	 * 单个加载线程，最多8批同时等待或加载
+	 * @param maxBatchSize 单次批量加载的最大key数
+	 * @param window 合并窗口
+	 * @param unit 时间单位
+	 * @param batchLoader 批量加载函数
+	 */
+	public RequestCoalescer(int maxBatchSize, long window, TimeUnit unit, BatchFunction<Set<K>, Map<K, V>> batchLoader) {
+		this(maxBatchSize, window, unit, 1, batchLoader);
+	}
+
+	/**
+	 * @param maxBatchSize 单次批量加载的最大key数
+	 * @param window 合并窗口
+	 * @param unit 时间单位
+	 * @param loadThreads 并发批量加载的线程数
+	 * @param batchLoader 批量加载函数
+	 */
+	public RequestCoalescer(int maxBatchSize, long window, TimeUnit unit, int loadThreads,
+							BatchFunction<Set<K>, Map<K, V>> batchLoader) {
+		if (batchLoader == null) {
+			throw new NullPointerException("batchLoader can not be null.");
+		}
+		this.batchLoader = batchLoader;
+		this.accumulator = new BatchAccumulator<K>(maxBatchSize, window, unit, maxBatchSize * 8,
+			OverflowPolicy.BLOCK, loadThreads, new BatchCallback<List<K>>() {
+				@Override
+				public void process(List<K> keys) {
+					loadBatch(keys);
+				}
+			});
+	}
+
+	/**
+	 * 加载单个key
+	 * @param key 不能为null
+	 * @return 结果Future，批量加载完成后完成
+	 */
+	public CompletableFuture<V> load(K key) {
+		if (key == null) {
+			throw new NullPointerException("key can not be null.");
+		}
+		requestCount.increment();
+
+		CompletableFuture<V> future = new CompletableFuture<V>();
+		CompletableFuture<V> existing = pending.putIfAbsent(key, future);
+		if (existing != null) {
+			coalescedCount.increment();
+			return existing;
+		}
+
+		try {
+			accumulator.add(key);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			pending.remove(key, future);
+			future.completeExceptionally(e);
+		} catch (IllegalStateException e) {
+			pending.remove(key, future);
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	/**
+	 * 批量加载一批key并分发结果(在累加器的刷出线程中执行)
+	 */
+	private void loadBatch(List<K> keys) {
+		// 先摘除Future：此后同一个key的新请求创建新的Future进入下一批
+		Set<K> keySet = new LinkedHashSet<K>(keys);
+		Map<K, CompletableFuture<V>> futures = new HashMap<K, CompletableFuture<V>>(keySet.size() * 4 / 3 + 1);
+		for (K key : keySet) {
+			futures.put(key, pending.remove(key));
+		}
+
+		batchLoadCount.increment();
+		Map<K, V> values;
+		try {
+			values = batchLoader.process(Collections.unmodifiableSet(keySet));
+		} catch (Throwable e) {
+			for (CompletableFuture<V> future : futures.values()) {
+				future.completeExceptionally(e);
+			}
+			return;
+		}
+
+		for (Map.Entry<K, CompletableFuture<V>> entry : futures.entrySet()) {
+			entry.getValue().complete(values == null ? null : values.get(entry.getKey()));
+		}
+	}
+
+	/**
+	 * 关闭：剩余key立即加载，等待所有Future完成
+	 */
+	@Override
+	public void close() {
+		accumulator.close();
+	}
+
+	/** load调用次数 */
+	public long getRequestCount() {
+		return requestCount.sum();
+	}
+
+	/** 被去重合并(复用已有Future)的请求数 */
+	public long getCoalescedCount() {
+		return coalescedCount.sum();
+	}
+
+	/** 批量加载次数(即下游调用次数) */
+	public long getBatchLoadCount() {
+		return batchLoadCount.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "RequestCoalescer{requests=" + getRequestCount() + ", coalesced=" + getCoalescedCount()
+			+ ", batchLoads=" + getBatchLoadCount() + "}";
+	}
+
+}
@@ -0,0 +1,143 @@
+package com.simon.credit.toolkit.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import com.simon.credit.exception.ExceptionToolkits;
+import com.simon.credit.toolkit.io.OffsetLineReader;
+
+/**
+ * 可断点续跑的批量执行器
+ * <pre>
+ * 长时间运行的批处理任务中途失败(或进程被杀)后，重新执行时从上次提交的位置继续，而不是从头开始：
+ * 1、每批处理成功后在内存中推进检查点，每checkpointInterval批通过CheckpointFile原子落盘一次
+ * 2、某一批失败时先把最后一次成功的进度落盘，再抛出IllegalStateException
+ * 3、启动时读取检查点，跳过已提交的数据：List直接从offset处截取，Iterator跳过offset条，
+ *    文本文件按字节偏移量直接定位，不必重新读取已处理的部分
+ * 4、全部处理完毕后删除检查点文件，下次执行视为新任务
+ *
+ * 批处理函数的返回值作为用户游标随检查点一起保存(例如本批最后一条记录的主键)，可返回null。
+ * 进程崩溃时最多重复处理checkpointInterval批，批处理函数需要是幂等的(例如 insert ... on duplicate key update)。
+ * 一个检查点文件只能对应一个任务，批大小可以在两次执行之间调整(续跑位置以offset为准)。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class ResumableBatchExecuter {
+
+	private final int batchSize;
+	private final CheckpointFile checkpointFile;
+	private final int checkpointInterval;
+
+	/**
+	 * @param batchSize 批大小
+	 * @param checkpointFile 检查点文件
+	 * @param checkpointInterval 每多少批保存一次检查点
+	 */
+	public ResumableBatchExecuter(int batchSize, CheckpointFile checkpointFile, int checkpointInterval) {
+		if (batchSize <= 0 || checkpointInterval <= 0) {
+			throw new IllegalArgumentException("Illegal batchSize or checkpointInterval");
+		}
+		if (checkpointFile == null) {
+			throw new NullPointerException("checkpointFile can not be null.");
+		}
+		this.batchSize = batchSize;
+		this.checkpointFile = checkpointFile;
+		this.checkpointInterval = checkpointInterval;
+	}
+
+	/**
+	 * 分批处理List，跳过已提交的数据
+	 * @param params 数据(两次执行之间顺序必须一致)
+	 * @param function 批处理函数，返回用户游标
+	 * @return 处理完毕时的检查点
+	 * @throws IllegalStateException 某一批处理失败(进度已保存)
+	 */
+	public <T> Checkpoint execute(List<T> params, BatchFunction<List<T>, String> function) throws IOException {
+		Checkpoint checkpoint = loadCheckpoint();
+		List<T> remaining = params;
+		if (checkpoint.getOffset() >= params.size()) {
+			remaining = Collections.emptyList();
+		} else if (checkpoint.getOffset() > 0) {
+			remaining = params.subList((int) checkpoint.getOffset(), params.size());
+		}
+		return run(remaining.iterator(), null, checkpoint, function);
+	}
+
+	/**
+	 * 分批处理迭代器，跳过已提交的条数
+	 * @param source 数据源(两次执行之间顺序必须一致)
+	 * @param function 批处理函数，返回用户游标
+	 * @return 处理完毕时的检查点
+	 * @throws IllegalStateException 某一批处理失败(进度已保存)
+	 */
+	public <T> Checkpoint execute(Iterator<? extends T> source, BatchFunction<List<T>, String> function) throws IOException {
+		Checkpoint checkpoint = loadCheckpoint();
+		for (long skipped = 0; skipped < checkpoint.getOffset() && source.hasNext(); skipped++) {
+			source.next();
+		}
+		return run(source, null, checkpoint, function);
+	}
+
+	/**
+	 * 按行分批处理文本文件，从已提交的字节偏移量处继续读取
+	 * @param file 文本文件
+	 * @param encoding 编码(换行符须为单字节，见OffsetLineReader)
+	 * @param function 批处理函数，返回用户游标
+	 * @return 处理完毕时的检查点
+	 * @throws IllegalStateException 某一批处理失败(进度已保存)
+	 */
+	public Checkpoint execute(File file, String encoding, BatchFunction<List<String>, String> function) throws IOException {
+		Checkpoint checkpoint = loadCheckpoint();
+		OffsetLineReader reader = new OffsetLineReader(file, encoding, checkpoint.getOffset());
+		try {
+			return run(reader, reader, checkpoint, function);
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * 检查点文件中的进度，不存在时从头开始
+	 */
+	private Checkpoint loadCheckpoint() throws IOException {
+		Checkpoint checkpoint = checkpointFile.load();
+		return checkpoint == null ? Checkpoint.START : checkpoint;
+	}
+
+	/**
+	 * @param lineReader 文本文件模式下用于读取字节偏移量，其他模式为null(偏移量按条数累加)
+	 */
+	private <T> Checkpoint run(Iterator<? extends T> source, OffsetLineReader lineReader, Checkpoint checkpoint,
+							   BatchFunction<List<T>, String> function) throws IOException {
+		BatchIterator<T> batches = new BatchIterator<T>(source, batchSize, null, false);
+		int uncommitted = 0;// 已成功但还未落盘的批次数
+
+		while (batches.hasNext()) {
+			List<T> batchParams = batches.next();
+			String cursor;
+			try {
+				cursor = function.process(batchParams);
+			} catch (Exception e) {
+				if (uncommitted > 0) {
+					checkpointFile.save(checkpoint);
+				}
+				throw ExceptionToolkits.illegalStateException("Batch " + checkpoint.getBatchIndex()
+					+ " failed, progress saved: " + checkpoint, e);
+			}
+
+			long offset = (lineReader != null) ? lineReader.getOffset() : checkpoint.getOffset() + batchParams.size();
+			checkpoint = checkpoint.advance(offset, cursor);
+			if (++uncommitted >= checkpointInterval) {
+				checkpointFile.save(checkpoint);
+				uncommitted = 0;
+			}
+		}
+
+		checkpointFile.delete();
+		return checkpoint;
+	}
+
+}
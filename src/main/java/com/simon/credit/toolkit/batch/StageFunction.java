@@ -0,0 +1,16 @@
+package com.simon.credit.toolkit.batch;
+
+/**
+ * 流水线单条处理阶段
+ * @author XUZIMING 2026-10-18
+ */
+public interface StageFunction<T, R> {
+
+	/**
+	 * 处理一条数据
+	 * @param item 上一阶段的输出
+	 * @return 传给下一阶段的数据，返回null表示过滤掉该条
+	 */
+	R apply(T item) throws Exception;
+
+}
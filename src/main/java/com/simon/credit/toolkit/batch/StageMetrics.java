@@ -0,0 +1,82 @@
+package com.simon.credit.toolkit.batch;
+
+/**
+ * 流水线阶段指标快照
+ * <pre>
+ * 瓶颈阶段的特征：利用率接近1，且其输入队列长期接近满；下游阶段的输入队列则长期为空。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public final class StageMetrics {
+
+	private final String name;
+	private final int workers;
+	private final int queueSize;
+	private final int queueCapacity;
+	private final long inCount;
+	private final long outCount;
+	private final long busyNanos;
+	private final long elapsedNanos;
+
+	StageMetrics(String name, int workers, int queueSize, int queueCapacity,
+				 long inCount, long outCount, long busyNanos, long elapsedNanos) {
+		this.name = name;
+		this.workers = workers;
+		this.queueSize = queueSize;
+		this.queueCapacity = queueCapacity;
+		this.inCount = inCount;
+		this.outCount = outCount;
+		this.busyNanos = busyNanos;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getWorkers() {
+		return workers;
+	}
+
+	/** 输入队列当前长度 */
+	public int getQueueSize() {
+		return queueSize;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	/** 已处理的输入条数 */
+	public long getInCount() {
+		return inCount;
+	}
+
+	/** 已输出给下一阶段的条数(批处理阶段为批次结果数) */
+	public long getOutCount() {
+		return outCount;
+	}
+
+	/** 所有工作线程处理数据的耗时之和 */
+	public long getBusyNanos() {
+		return busyNanos;
+	}
+
+	/** 吞吐：每秒处理的输入条数(按流水线运行时间计算) */
+	public double getThroughput() {
+		return elapsedNanos == 0 ? 0.0 : inCount * 1000000000.0 / elapsedNanos;
+	}
+
+	/** 利用率：工作线程处于处理状态的时间占比(0~1) */
+	public double getUtilization() {
+		return elapsedNanos == 0 ? 0.0 : (double) busyNanos / ((double) elapsedNanos * workers);
+	}
+
+	@Override
+	public String toString() {
+		return name + "{workers=" + workers + ", queue=" + queueSize + "/" + queueCapacity + ", in=" + inCount
+			+ ", out=" + outCount + ", throughput=" + String.format("%.1f", getThroughput()) + "/s"
+			+ ", utilization=" + String.format("%.2f", getUtilization()) + "}";
+	}
+
+}
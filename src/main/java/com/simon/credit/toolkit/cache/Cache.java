@@ -0,0 +1,34 @@
+package com.simon.credit.toolkit.cache;
+
+/**
+ * 缓存基本操作
+ * <pre>
+ * 供LoadingCache等门面类对不同淘汰策略的缓存做统一封装，
+ * 方法签名与Map保持一致，基于MyLinkedHashMap的缓存(LRUCache、FIFOCache)无需额外适配即可实现。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public interface Cache<K, V> {
+
+	/**
+	 * 获取缓存数据，不存在返回null
+	 */
+	V get(K key);
+
+	/**
+	 * 缓存数据
+	 * @return 原数据，不存在返回null
+	 */
+	V put(K key, V value);
+
+	/**
+	 * 删除缓存数据
+	 * @return 被删除的数据，不存在返回null
+	 */
+	V remove(K key);
+
+	int size();
+
+	void clear();
+
+}
@@ -0,0 +1,34 @@
+package com.simon.credit.toolkit.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 缓存加载器
+ * @author XUZIMING 2026-10-18
+ */
+public interface CacheLoader<K, V> {
+
+	/**
+	 * 加载单个key
+	 * @return 加载结果，返回null表示数据不存在(不缓存)
+	 */
+	V load(K key) throws Exception;
+
+	/**
+	 * 批量加载，默认逐个调用load，有批量接口的数据源应覆盖此方法
+	 * @return 加载结果，不存在的key可以不放入结果
+	 */
+	default Map<K, V> loadAll(Collection<? extends K> keys) throws Exception {
+		Map<K, V> result = new HashMap<K, V>(keys.size() * 4 / 3 + 1);
+		for (K key : keys) {
+			V value = load(key);
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
+}
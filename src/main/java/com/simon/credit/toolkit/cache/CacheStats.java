@@ -0,0 +1,121 @@
+package com.simon.credit.toolkit.cache;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 缓存统计快照(不可变)
+ * <pre>
+ * 由StatsCounter.snapshot()生成，各计数器分别读取，并发记录时各项之间不保证是同一时刻的值。
+ * hotKeys为采样估算的热点key及其估算访问次数，按访问次数降序排列。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public final class CacheStats {
+
+	/** 空统计(未开启统计时返回) */
+	public static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0, 0, 0, null);
+
+	private final long hitCount;
+	private final long missCount;
+	private final long evictionCount;
+	private final long expirationCount;
+	private final long loadSuccessCount;
+	private final long loadFailureCount;
+	private final long totalLoadTimeNanos;
+	private final Map<Object, Long> hotKeys;
+
+	public CacheStats(long hitCount, long missCount, long evictionCount, long expirationCount,
+					  long loadSuccessCount, long loadFailureCount, long totalLoadTimeNanos, Map<Object, Long> hotKeys) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+		this.expirationCount = expirationCount;
+		this.loadSuccessCount = loadSuccessCount;
+		this.loadFailureCount = loadFailureCount;
+		this.totalLoadTimeNanos = totalLoadTimeNanos;
+		this.hotKeys = hotKeys == null ? Collections.<Object, Long>emptyMap()
+			: Collections.unmodifiableMap(new LinkedHashMap<Object, Long>(hotKeys));
+	}
+
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	public long getMissCount() {
+		return missCount;
+	}
+
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	public long getExpirationCount() {
+		return expirationCount;
+	}
+
+	public long getLoadSuccessCount() {
+		return loadSuccessCount;
+	}
+
+	public long getLoadFailureCount() {
+		return loadFailureCount;
+	}
+
+	public long getTotalLoadTimeNanos() {
+		return totalLoadTimeNanos;
+	}
+
+	/**
+	 * 热点key估算(key -> 估算访问次数)，按访问次数降序
+	 */
+	public Map<Object, Long> getHotKeys() {
+		return hotKeys;
+	}
+
+	public long getRequestCount() {
+		return hitCount + missCount;
+	}
+
+	public long getLoadCount() {
+		return loadSuccessCount + loadFailureCount;
+	}
+
+	/**
+	 * 命中率，无请求时为1.0
+	 */
+	public double getHitRate() {
+		long requestCount = getRequestCount();
+		return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+	}
+
+	public double getMissRate() {
+		long requestCount = getRequestCount();
+		return requestCount == 0 ? 0.0 : (double) missCount / requestCount;
+	}
+
+	/**
+	 * 平均加载耗时(纳秒)，未加载过为0
+	 */
+	public double getAverageLoadPenaltyNanos() {
+		long loadCount = getLoadCount();
+		return loadCount == 0 ? 0.0 : (double) totalLoadTimeNanos / loadCount;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("CacheStats{")
+			.append("hitCount=").append(hitCount)
+			.append(", missCount=").append(missCount)
+			.append(", hitRate=").append(String.format("%.4f", getHitRate()))
+			.append(", evictionCount=").append(evictionCount)
+			.append(", expirationCount=").append(expirationCount)
+			.append(", loadSuccessCount=").append(loadSuccessCount)
+			.append(", loadFailureCount=").append(loadFailureCount)
+			.append(", averageLoadPenaltyMillis=").append(String.format("%.3f", getAverageLoadPenaltyNanos() / 1000000.0))
+			.append(", hotKeys=").append(hotKeys)
+			.append('}').toString();
+	}
+
+}
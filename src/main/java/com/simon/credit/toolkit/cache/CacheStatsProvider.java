@@ -0,0 +1,23 @@
+package com.simon.credit.toolkit.cache;
+
+/**
+ * 支持统计的缓存
+ * <pre>
+ * 默认不开启统计(StatsCounter.DISABLED)，调用setStatsCounter(new ConcurrentStatsCounter())后开始记录，
+ * 多个缓存可共用同一个StatsCounter做合并统计。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public interface CacheStatsProvider {
+
+	/**
+	 * 设置统计记录器，传入null表示关闭统计
+	 */
+	void setStatsCounter(StatsCounter statsCounter);
+
+	/**
+	 * 获取当前统计快照
+	 */
+	CacheStats stats();
+
+}
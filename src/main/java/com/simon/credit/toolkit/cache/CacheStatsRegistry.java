@@ -0,0 +1,117 @@
+package com.simon.credit.toolkit.cache;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.simon.credit.toolkit.concurrent.MyConcurrentHashMap;
+
+/**
+ * 缓存统计注册中心
+ * <pre>
+ * 1、缓存按名称注册后，可随时通过snapshot()/export()导出所有缓存的统计快照(例如由运维接口或定时日志调用)
+ * 2、首次注册时向平台MBeanServer注册一个MXBean(com.simon.credit.toolkit.cache:type=CacheStats)，
+ *    运行中的进程可直接用jconsole/jmc等JMX工具调用export查看，无需改代码或重启
+ * 3、注册中心只持有缓存引用，不做任何后台采集，未被调用时没有开销；不再使用的缓存需调用unregister，避免内存泄漏
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public final class CacheStatsRegistry {
+
+	private static final String OBJECT_NAME = "com.simon.credit.toolkit.cache:type=CacheStats";
+
+	private static final Map<String, CacheStatsProvider> PROVIDERS = new MyConcurrentHashMap<String, CacheStatsProvider>();
+
+	private static volatile boolean mbeanRegistered = false;
+
+	private CacheStatsRegistry() {}
+
+	/**
+	 * 注册缓存(同名覆盖)
+	 */
+	public static void register(String name, CacheStatsProvider provider) {
+		if (name == null || provider == null) {
+			throw new NullPointerException();
+		}
+		PROVIDERS.put(name, provider);
+		registerMBeanIfNecessary();
+	}
+
+	public static void unregister(String name) {
+		if (name != null) {
+			PROVIDERS.remove(name);
+		}
+	}
+
+	/**
+	 * 所有已注册缓存的统计快照(按名称排序)
+	 */
+	public static Map<String, CacheStats> snapshot() {
+		Map<String, CacheStats> snapshot = new LinkedHashMap<String, CacheStats>();
+		for (Map.Entry<String, CacheStatsProvider> entry : new TreeMap<String, CacheStatsProvider>(PROVIDERS).entrySet()) {
+			snapshot.put(entry.getKey(), entry.getValue().stats());
+		}
+		return snapshot;
+	}
+
+	/**
+	 * 以文本形式导出所有已注册缓存的统计快照，每个缓存一行
+	 */
+	public static String export() {
+		StringBuilder builder = new StringBuilder();
+		for (Map.Entry<String, CacheStats> entry : snapshot().entrySet()) {
+			builder.append(entry.getKey()).append(": ").append(entry.getValue()).append('\n');
+		}
+		return builder.toString();
+	}
+
+	private static void registerMBeanIfNecessary() {
+		if (mbeanRegistered) {
+			return;
+		}
+		synchronized (CacheStatsRegistry.class) {
+			if (mbeanRegistered) {
+				return;
+			}
+			mbeanRegistered = true;
+			try {
+				MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+				ObjectName objectName = new ObjectName(OBJECT_NAME);
+				if (!server.isRegistered(objectName)) {
+					server.registerMBean(new StatsExporter(), objectName);
+				}
+			} catch (Exception e) {
+				// JMX不可用时仍可通过snapshot()/export()导出
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * JMX导出接口
+	 */
+	public interface StatsExporterMXBean {
+
+		String[] getCacheNames();
+
+		String export();
+
+	}
+
+	private static final class StatsExporter implements StatsExporterMXBean {
+		@Override
+		public String[] getCacheNames() {
+			return new TreeMap<String, CacheStatsProvider>(PROVIDERS).keySet().toArray(new String[0]);
+		}
+
+		@Override
+		public String export() {
+			return CacheStatsRegistry.export();
+		}
+	}
+
+}
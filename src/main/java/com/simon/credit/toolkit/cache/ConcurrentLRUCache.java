@@ -0,0 +1,254 @@
+package com.simon.credit.toolkit.cache;
+
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+
+import com.simon.credit.toolkit.concurrent.MyReentrantLock;
+import com.simon.credit.toolkit.core.MyLinkedHashMap;
+
+/**
+ * 分段锁LRU(Least Recently Used:最近最少使用)缓存
+ * <pre>
+ * LRUCache所有读写操作共用一把锁，且每次命中都要调整访问顺序链表，多核读多写少场景下所有线程都会串行在这把锁上。
+ * 本实现按key的hash将数据分散到N个相互独立的段(Segment)，每段各自持有一把锁和一个按访问顺序排序的MyLinkedHashMap，
+ * 不同段上的读写互不阻塞，吞吐随段数(默认与CPU核数相当)近似线性提升。
+ *
+ * 注意：淘汰在段内进行，maxCapacity平均分到各段(余数分给前几段，各段容量之和等于maxCapacity)，因此淘汰的是"所在段内"最近最少使用的数据，
+ * 整体上是LRU的近似；段数越少越接近严格LRU，段数越多并发度越高。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class ConcurrentLRUCache<K, V> implements Cache<K, V>, CacheStatsProvider {
+
+	private static final float DEFAULT_LOAD_FACTOR  = 0.75f;
+	private static final int   DEFAULT_MAX_CAPACITY = 1000;
+	private static final int   MAX_SEGMENTS 		= 1 << 16;
+
+	/** 默认并发级别：CPU核数(段数取不小于它的2的幂) */
+	private static final int DEFAULT_CONCURRENCY_LEVEL = Runtime.getRuntime().availableProcessors();
+
+	private final Segment<K, V>[] segments;
+	private final int segmentMask;
+	private final int maxCapacity;
+
+	private volatile StatsCounter statsCounter = StatsCounter.DISABLED;
+
+	public ConcurrentLRUCache() {
+		this(DEFAULT_MAX_CAPACITY);
+	}
+
+	public ConcurrentLRUCache(int maxCapacity) {
+		this(maxCapacity, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	/**
+	 * @param maxCapacity 最大容量
+	 * @param concurrencyLevel 预估并发线程数(会向上取整为2的幂作为段数，段数不超过maxCapacity)
+	 */
+	public ConcurrentLRUCache(int maxCapacity, int concurrencyLevel) {
+		if (maxCapacity <= 0) {
+			throw new IllegalArgumentException("Illegal max capacity: " + maxCapacity);
+		}
+		if (concurrencyLevel <= 0) {
+			throw new IllegalArgumentException("Illegal concurrency level: " + concurrencyLevel);
+		}
+
+		int segmentCount = 1;
+		int limit = Math.min(concurrencyLevel, MAX_SEGMENTS);
+		while (segmentCount < limit) {
+			segmentCount <<= 1;
+		}
+		// 每段至少容纳1个元素，段数不超过maxCapacity，保证各段容量之和不超过maxCapacity
+		segmentCount = Math.min(segmentCount, Integer.highestOneBit(maxCapacity));
+
+		this.maxCapacity = maxCapacity;
+		this.segmentMask = segmentCount - 1;
+		@SuppressWarnings("unchecked")
+		Segment<K, V>[] segmentArray = (Segment<K, V>[]) new Segment<?, ?>[segmentCount];
+		this.segments = segmentArray;
+
+		int baseCapacity = maxCapacity / segmentCount;
+		int remainder = maxCapacity % segmentCount;
+		for (int i = 0; i < segmentCount; i++) {
+			segments[i] = new Segment<K, V>(this, i < remainder ? baseCapacity + 1 : baseCapacity);
+		}
+	}
+
+	/**
+	 * 移除年龄最大的键值对(扩展点)
+	 * <pre>
+	 * 与LRUCache.removeEldestEntry语义一致：每次新增键值对后，对新增所在段中最久未访问的键值对回调本方法，
+	 * 返回true则将其淘汰。段容量超限时无论返回值如何都会淘汰。
+	 * </pre>
+	 * @param eldest 所在段中最久未访问的键值对
+	 * @return 是否额外淘汰该键值对
+	 */
+	protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+		return false;
+	}
+
+	/**
+	 * 键值对被淘汰后的回调(扩展点)，在段锁内调用，实现中不要再访问本缓存
+	 * @param key 被淘汰的key
+	 * @param value 被淘汰的value
+	 */
+	protected void onEviction(K key, V value) {
+		// nothing to do
+	}
+
+	public boolean containsKey(Object key) {
+		Segment<K, V> segment = segmentFor(key);
+		segment.lock.lock();
+		try {
+			return segment.containsKey(key);
+		} finally {
+			segment.lock.unlock();
+		}
+	}
+
+	public V get(Object key) {
+		Segment<K, V> segment = segmentFor(key);
+		V value;
+		segment.lock.lock();
+		try {
+			value = segment.get(key);
+		} finally {
+			segment.lock.unlock();
+		}
+
+		if (value != null) {
+			statsCounter.recordHit(key);
+		} else {
+			statsCounter.recordMiss(key);
+		}
+		return value;
+	}
+
+	public V put(K key, V value) {
+		Segment<K, V> segment = segmentFor(key);
+		segment.lock.lock();
+		try {
+			return segment.put(key, value);
+		} finally {
+			segment.lock.unlock();
+		}
+	}
+
+	public V remove(Object key) {
+		Segment<K, V> segment = segmentFor(key);
+		segment.lock.lock();
+		try {
+			return segment.remove(key);
+		} finally {
+			segment.lock.unlock();
+		}
+	}
+
+	/**
+	 * 各段大小之和(逐段加锁统计，并发修改下为近似值)
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment<K, V> segment : segments) {
+			segment.lock.lock();
+			try {
+				size += segment.size();
+			} finally {
+				segment.lock.unlock();
+			}
+		}
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public void clear() {
+		for (Segment<K, V> segment : segments) {
+			segment.lock.lock();
+			try {
+				segment.clear();
+			} finally {
+				segment.lock.unlock();
+			}
+		}
+	}
+
+	@Override
+	public void setStatsCounter(StatsCounter statsCounter) {
+		this.statsCounter = statsCounter == null ? StatsCounter.DISABLED : statsCounter;
+	}
+
+	@Override
+	public CacheStats stats() {
+		return statsCounter.snapshot();
+	}
+
+	public int getMaxCapacity() {
+		return maxCapacity;
+	}
+
+	/**
+	 * 获取段数
+	 */
+	public int getSegmentCount() {
+		return segments.length;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("{");
+		for (Segment<K, V> segment : segments) {
+			segment.lock.lock();
+			try {
+				for (Map.Entry<K, V> entry : segment.entrySet()) {
+					if (builder.length() > 1) {
+						builder.append(", ");
+					}
+					builder.append(entry.getKey()).append('=').append(entry.getValue());
+				}
+			} finally {
+				segment.lock.unlock();
+			}
+		}
+		return builder.append('}').toString();
+	}
+
+	private Segment<K, V> segmentFor(Object key) {
+		int hashCode = (key == null) ? 0 : key.hashCode();
+		// 扰动函数：让高位参与段选择，避免低位相同的key集中到同一段
+		hashCode ^= (hashCode >>> 20) ^ (hashCode >>> 12);
+		hashCode ^= (hashCode >>> 7) ^ (hashCode >>> 4);
+		return segments[hashCode & segmentMask];
+	}
+
+	/**
+	 * 缓存段：按访问顺序排序的MyLinkedHashMap + 段锁
+	 */
+	private static final class Segment<K, V> extends MyLinkedHashMap<K, V> {
+		private static final long serialVersionUID = 4428930622497163386L;
+
+		private final transient ConcurrentLRUCache<K, V> owner;
+		private final Lock lock = new MyReentrantLock();
+		private final int capacity;
+
+		Segment(ConcurrentLRUCache<K, V> owner, int capacity) {
+			// 第3个参数设置为true，代表linkedlist按访问顺序排序
+			super(16, DEFAULT_LOAD_FACTOR, true);
+			this.owner = owner;
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+			boolean evict = size() > capacity || owner.removeEldestEntry(eldest);
+			if (evict) {
+				owner.statsCounter.recordEviction();
+				owner.onEviction(eldest.getKey(), eldest.getValue());
+			}
+			return evict;
+		}
+	}
+
+}
@@ -0,0 +1,99 @@
+package com.simon.credit.toolkit.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 并发统计记录器
+ * <pre>
+ * 1、计数器使用LongAdder(分段累加的Cell数组，竞争时各线程落到不同Cell)，记录不会成为新的竞争点
+ * 2、热点key按采样率抽样计数，只有被抽中的访问才会写入采样表，未被抽中的访问仅多一次随机数生成
+ * 3、snapshot()逐项汇总，开销与Cell数及采样表大小相关，适合按需导出而非在热路径上调用
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class ConcurrentStatsCounter implements StatsCounter {
+
+	/** 默认热点key采样率：1/16 */
+	private static final int DEFAULT_SAMPLE_RATE = 16;
+
+	/** 默认导出的热点key个数 */
+	private static final int DEFAULT_HOT_KEY_COUNT = 10;
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+	private final LongAdder expirationCount = new LongAdder();
+	private final LongAdder loadSuccessCount = new LongAdder();
+	private final LongAdder loadFailureCount = new LongAdder();
+	private final LongAdder totalLoadTimeNanos = new LongAdder();
+
+	private final HotKeySampler hotKeySampler;
+	private final int hotKeyCount;
+
+	public ConcurrentStatsCounter() {
+		this(DEFAULT_SAMPLE_RATE, DEFAULT_HOT_KEY_COUNT);
+	}
+
+	/**
+	 * @param sampleRate 热点key采样率，每sampleRate次访问抽样1次(向上取整为2的幂)
+	 * @param hotKeyCount 导出的热点key个数，0表示不估算热点key
+	 */
+	public ConcurrentStatsCounter(int sampleRate, int hotKeyCount) {
+		if (sampleRate <= 0) {
+			throw new IllegalArgumentException("Illegal sample rate: " + sampleRate);
+		}
+		if (hotKeyCount < 0) {
+			throw new IllegalArgumentException("Illegal hot key count: " + hotKeyCount);
+		}
+		this.hotKeyCount = hotKeyCount;
+		this.hotKeySampler = hotKeyCount == 0 ? null : new HotKeySampler(sampleRate, hotKeyCount * 8);
+	}
+
+	@Override
+	public void recordHit(Object key) {
+		hitCount.increment();
+		sample(key);
+	}
+
+	@Override
+	public void recordMiss(Object key) {
+		missCount.increment();
+		sample(key);
+	}
+
+	@Override
+	public void recordEviction() {
+		evictionCount.increment();
+	}
+
+	@Override
+	public void recordExpiration() {
+		expirationCount.increment();
+	}
+
+	@Override
+	public void recordLoadSuccess(long loadTimeNanos) {
+		loadSuccessCount.increment();
+		totalLoadTimeNanos.add(loadTimeNanos);
+	}
+
+	@Override
+	public void recordLoadFailure(long loadTimeNanos) {
+		loadFailureCount.increment();
+		totalLoadTimeNanos.add(loadTimeNanos);
+	}
+
+	@Override
+	public CacheStats snapshot() {
+		return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum(), expirationCount.sum(),
+			loadSuccessCount.sum(), loadFailureCount.sum(), totalLoadTimeNanos.sum(),
+			hotKeySampler == null ? null : hotKeySampler.top(hotKeyCount));
+	}
+
+	private void sample(Object key) {
+		if (hotKeySampler != null) {
+			hotKeySampler.record(key);
+		}
+	}
+
+}
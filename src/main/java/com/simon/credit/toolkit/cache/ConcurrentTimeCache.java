@@ -0,0 +1,256 @@
+package com.simon.credit.toolkit.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.simon.credit.toolkit.concurrent.MyConcurrentHashMap;
+import com.simon.credit.toolkit.concurrent.MyScheduledThreadPoolExecutor;
+
+/**
+ * 线程安全的超时缓存
+ * <pre>
+ * 与TimeCache语义一致(访问即续期)，区别：
+ * 1、数据存放在MyConcurrentHashMap中，读写无需外部加锁
+ * 2、每个数据自带到期时间，get时发现已过期直接丢弃(惰性过期)，不依赖后台清理的及时性
+ * 3、后台清理限速：每次最多扫描sweepBatchSize个数据，下次从上次停下的位置继续，避免一次性全表扫描
+ * 4、续期按ttl的1/64取粒度，热点key不会在每次读取时都写一次到期时间
+ *
+ * 注意：size()包含已过期但尚未被清理的数据。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class ConcurrentTimeCache<K, V> implements CacheStatsProvider {
+
+	/** 默认超时失效时间: 60秒 */
+	private static final long DEFAULT_EXPIRE_SECONDS = 60L;
+
+	/** 默认后台清理间隔: 1秒 */
+	private static final long DEFAULT_SWEEP_INTERVAL_MILLIS = 1000L;
+
+	/** 默认每次清理最多扫描的数据量 */
+	private static final int DEFAULT_SWEEP_BATCH_SIZE = 10000;
+
+	private static final int DEFAULT_INITIAL_CAPACITY = 1 << 4;
+
+	/** 所有实例共用一个清理线程 */
+	private static final ScheduledExecutorService SWEEPER = new MyScheduledThreadPoolExecutor(1, new ThreadFactory() {
+		private final ThreadFactory factory = Executors.defaultThreadFactory();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = factory.newThread(runnable);
+			thread.setName(ConcurrentTimeCache.class.getName() + "_sweeper");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	private final MyConcurrentHashMap<K, TimedValue<V>> dataMap;
+	private final int sweepBatchSize;
+	private final ScheduledFuture<?> sweeper;
+
+	private volatile StatsCounter statsCounter = StatsCounter.DISABLED;
+
+	/** 清理游标，只由清理线程访问 */
+	private Iterator<Map.Entry<K, TimedValue<V>>> sweepCursor;
+
+	public ConcurrentTimeCache() {
+		this(DEFAULT_INITIAL_CAPACITY);
+	}
+
+	public ConcurrentTimeCache(int initialCapacity) {
+		this(initialCapacity, DEFAULT_SWEEP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_SWEEP_BATCH_SIZE);
+	}
+
+	/**
+	 * @param initialCapacity 初始容量
+	 * @param sweepInterval 后台清理间隔
+	 * @param unit 时间单位
+	 * @param sweepBatchSize 每次清理最多扫描的数据量
+	 */
+	public ConcurrentTimeCache(int initialCapacity, long sweepInterval, TimeUnit unit, int sweepBatchSize) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+		}
+		if (sweepInterval <= 0 || sweepBatchSize <= 0) {
+			throw new IllegalArgumentException("Illegal sweep interval or batch size");
+		}
+		this.dataMap = new MyConcurrentHashMap<K, TimedValue<V>>(initialCapacity);
+		this.sweepBatchSize = sweepBatchSize;
+		this.sweeper = SWEEPER.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				sweep();
+			}
+		}, sweepInterval, sweepInterval, unit);
+	}
+
+	public void put(K key, V data) {
+		put(key, data, DEFAULT_EXPIRE_SECONDS, TimeUnit.SECONDS);
+	}
+
+	public void put(K key, V data, long duration, TimeUnit timeUnit) {
+		if (key == null) {
+			throw new NullPointerException("key can not be null.");
+		}
+		if (data == null) {
+			throw new NullPointerException("data can not be null.");
+		}
+
+		dataMap.put(key, new TimedValue<V>(data, timeUnit.toNanos(duration)));
+	}
+
+	/**
+	 * 获取数据并续期，已过期返回null
+	 */
+	public V get(K key) {
+		if (key == null) {
+			return null;
+		}
+
+		TimedValue<V> timedValue = dataMap.get(key);
+		if (timedValue == null) {
+			statsCounter.recordMiss(key);
+			return null;
+		}
+
+		long now = System.nanoTime();
+		if (timedValue.isExpired(now)) {
+			expire(key, timedValue);
+			statsCounter.recordMiss(key);
+			return null;
+		}
+
+		timedValue.refresh(now);
+		statsCounter.recordHit(key);
+		return timedValue.value;
+	}
+
+	/**
+	 * 是否包含未过期的key(不续期)
+	 */
+	public boolean containsKey(K key) {
+		if (key == null) {
+			return false;
+		}
+		TimedValue<V> timedValue = dataMap.get(key);
+		return timedValue != null && !timedValue.isExpired(System.nanoTime());
+	}
+
+	public V remove(K key) {
+		if (key == null) {
+			return null;
+		}
+		TimedValue<V> timedValue = dataMap.remove(key);
+		if (timedValue == null || timedValue.isExpired(System.nanoTime())) {
+			return null;
+		}
+		return timedValue.value;
+	}
+
+	/**
+	 * 数据量(包含已过期但尚未被清理的数据)
+	 */
+	public int size() {
+		return dataMap.size();
+	}
+
+	public void clear() {
+		dataMap.clear();
+	}
+
+	@Override
+	public void setStatsCounter(StatsCounter statsCounter) {
+		this.statsCounter = statsCounter == null ? StatsCounter.DISABLED : statsCounter;
+	}
+
+	@Override
+	public CacheStats stats() {
+		return statsCounter.snapshot();
+	}
+
+	/**
+	 * 销毁：停止后台清理
+	 */
+	public void destroy() {
+		sweeper.cancel(false);
+	}
+
+	private void expire(K key, TimedValue<V> timedValue) {
+		// 只有成功移除的线程负责善后，避免并发get重复处理
+		if (dataMap.remove(key, timedValue)) {
+			statsCounter.recordExpiration();
+			cancelIfFuture(key);
+			cancelIfFuture(timedValue.value);
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	private void cancelIfFuture(Object object) {
+		// 中断正在执行的任务
+		if (object instanceof Future) {
+			((Future) object).cancel(true);
+		}
+	}
+
+	/**
+	 * 限速清理：从上次停下的位置继续，最多扫描sweepBatchSize个数据，且不超过数据量(每次最多完整扫描一遍)
+	 */
+	private void sweep() {
+		try {
+			long now = System.nanoTime();
+			int limit = Math.min(sweepBatchSize, dataMap.size());
+			for (int scanned = 0; scanned < limit; scanned++) {
+				if (sweepCursor == null || !sweepCursor.hasNext()) {
+					sweepCursor = dataMap.entrySet().iterator();
+					if (!sweepCursor.hasNext()) {
+						return;
+					}
+				}
+				Map.Entry<K, TimedValue<V>> entry = sweepCursor.next();
+				if (entry.getValue().isExpired(now)) {
+					expire(entry.getKey(), entry.getValue());
+				}
+			}
+		} catch (Throwable e) {
+			// 吞掉异常，避免周期任务被终止
+			sweepCursor = null;
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * 带到期时间的数据
+	 */
+	static final class TimedValue<V> {
+		final V value;
+		final long ttlNanos;
+		final long refreshGranularity;
+		volatile long deadline;
+
+		TimedValue(V value, long ttlNanos) {
+			this.value = value;
+			this.ttlNanos = ttlNanos;
+			this.refreshGranularity = ttlNanos >>> 6;
+			this.deadline = System.nanoTime() + ttlNanos;
+		}
+
+		boolean isExpired(long now) {
+			return now - deadline >= 0;
+		}
+
+		void refresh(long now) {
+			long newDeadline = now + ttlNanos;
+			if (newDeadline - deadline > refreshGranularity) {
+				deadline = newDeadline;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,108 @@
+package com.simon.credit.toolkit.cache;
+
+/**
+ * 访问频次估算(4位Count-Min Sketch)
+ * <pre>
+ * 1、每个long分为16个4位计数器(最大15)，每个元素在4个不同的long中各占一个计数器，估算值取4个计数器的最小值
+ * 2、一个元素的4个计数器位于long内同一组(由hash低2位选组)，减少缓存行访问
+ * 3、周期重置：累计增加sampleSize(= 10 * 最大容量)次后，所有计数器减半，使频次反映近期热度，历史热点逐渐冷却
+ * 4、只估算、不存key，内存占用为 容量向上取整为2的幂 * 8字节，与缓存中数据量无关
+ *
+ * 非线程安全，由调用方加锁。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+final class FrequencySketch {
+
+	private static final long[] SEED = {// 4个哈希函数的种子
+		0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+	};
+	private static final long RESET_MASK = 0x7777777777777777L;
+	private static final long ONE_MASK   = 0x1111111111111111L;
+
+	private final long[] table;
+	private final int tableMask;
+	private final int sampleSize;
+	private int size;// 距上次重置以来的增加次数
+
+	/**
+	 * @param maximumSize 缓存最大容量
+	 */
+	FrequencySketch(int maximumSize) {
+		int capacity = 8;
+		int limit = Math.min(Math.max(maximumSize, 1), 1 << 30);
+		while (capacity < limit) {
+			capacity <<= 1;
+		}
+		this.table = new long[capacity];
+		this.tableMask = capacity - 1;
+		this.sampleSize = (maximumSize <= 0) ? 10 : (int) Math.min(10L * maximumSize, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * 估算元素的访问频次(0~15)
+	 */
+	int frequency(Object element) {
+		int hash = spread(element.hashCode());
+		int start = (hash & 3) << 2;
+		int frequency = Integer.MAX_VALUE;
+		for (int i = 0; i < 4; i++) {
+			int index = indexOf(hash, i);
+			int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+			frequency = Math.min(frequency, count);
+		}
+		return frequency;
+	}
+
+	/**
+	 * 元素访问频次加1(计数器已满则不变)
+	 */
+	void increment(Object element) {
+		int hash = spread(element.hashCode());
+		int start = (hash & 3) << 2;
+
+		boolean added = false;
+		for (int i = 0; i < 4; i++) {
+			added |= incrementAt(indexOf(hash, i), start + i);
+		}
+
+		if (added && ++size == sampleSize) {
+			reset();
+		}
+	}
+
+	private boolean incrementAt(int index, int counter) {
+		int offset = counter << 2;
+		long mask = 0xfL << offset;
+		if ((table[index] & mask) != mask) {
+			table[index] += 1L << offset;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * 所有计数器减半
+	 */
+	private void reset() {
+		int oddCount = 0;
+		for (int i = 0; i < table.length; i++) {
+			oddCount += Long.bitCount(table[i] & ONE_MASK);
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		}
+		size = (size - (oddCount >>> 2)) >>> 1;
+	}
+
+	private int indexOf(int hash, int i) {
+		long h = (hash + SEED[i]) * SEED[i];
+		h += h >>> 32;
+		return ((int) h) & tableMask;
+	}
+
+	private static int spread(int x) {
+		x = ((x >>> 16) ^ x) * 0x45d9f3b;
+		x = ((x >>> 16) ^ x) * 0x45d9f3b;
+		return (x >>> 16) ^ x;
+	}
+
+}
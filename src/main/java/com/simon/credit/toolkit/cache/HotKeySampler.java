@@ -0,0 +1,117 @@
+package com.simon.credit.toolkit.cache;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.simon.credit.toolkit.concurrent.MyConcurrentHashMap;
+
+/**
+ * 热点key采样估算
+ * <pre>
+ * 1、采样：每次访问以1/sampleRate的概率被抽中，抽中后对应key的计数加1，估算访问次数 = 采样计数 * sampleRate
+ * 2、有界：采样表超过2倍maxTracked时淘汰一次，只保留计数最高的约maxTracked个key，冷门key移出，
+ *    同一时刻只有一个线程执行淘汰，其余线程直接跳过
+ * 3、估算是近似的：新进入采样表的key从0开始计数，淘汰与计数并发进行时可能丢失少量计数
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+final class HotKeySampler {
+
+	private final int sampleMask;
+	private final int sampleRate;
+	private final int maxTracked;
+
+	private final MyConcurrentHashMap<Object, LongAdder> sampleCounts = new MyConcurrentHashMap<Object, LongAdder>();
+	private final AtomicBoolean decaying = new AtomicBoolean();
+
+	HotKeySampler(int sampleRate, int maxTracked) {
+		int rate = 1;
+		while (rate < sampleRate) {
+			rate <<= 1;
+		}
+		this.sampleRate = rate;
+		this.sampleMask = rate - 1;
+		this.maxTracked = maxTracked;
+	}
+
+	void record(Object key) {
+		if (key == null || (ThreadLocalRandom.current().nextInt() & sampleMask) != 0) {
+			return;
+		}
+
+		LongAdder counter = sampleCounts.get(key);
+		if (counter == null) {
+			if (sampleCounts.size() >= maxTracked << 1) {
+				decay();
+			}
+			LongAdder newCounter = new LongAdder();
+			counter = sampleCounts.putIfAbsent(key, newCounter);
+			if (counter == null) {
+				counter = newCounter;
+			}
+		}
+		counter.increment();
+	}
+
+	/**
+	 * 估算访问次数最多的前n个key
+	 */
+	Map<Object, Long> top(int n) {
+		List<Map.Entry<Object, Long>> entries = new ArrayList<Map.Entry<Object, Long>>(sampleCounts.size());
+		for (Map.Entry<Object, LongAdder> entry : sampleCounts.entrySet()) {
+			entries.add(new AbstractMap.SimpleImmutableEntry<Object, Long>(entry.getKey(), entry.getValue().sum() * sampleRate));
+		}
+		Collections.sort(entries, new Comparator<Map.Entry<Object, Long>>() {
+			@Override
+			public int compare(Map.Entry<Object, Long> o1, Map.Entry<Object, Long> o2) {
+				return o2.getValue().compareTo(o1.getValue());
+			}
+		});
+
+		Map<Object, Long> top = new LinkedHashMap<Object, Long>();
+		for (int i = 0; i < entries.size() && i < n; i++) {
+			top.put(entries.get(i).getKey(), entries.get(i).getValue());
+		}
+		return top;
+	}
+
+	private void decay() {
+		if (!decaying.compareAndSet(false, true)) {
+			return;// 其他线程正在淘汰
+		}
+		try {
+			int size = sampleCounts.size();
+			if (size <= maxTracked) {
+				return;
+			}
+			long[] counts = new long[size];
+			int n = 0;
+			for (LongAdder counter : sampleCounts.values()) {
+				if (n == counts.length) {
+					break;
+				}
+				counts[n++] = counter.sum();
+			}
+			Arrays.sort(counts, 0, n);
+			// 保留计数最高的maxTracked个，计数不高于阈值的冷门key全部移出
+			long threshold = counts[Math.max(0, n - maxTracked - 1)];
+			for (Map.Entry<Object, LongAdder> entry : sampleCounts.entrySet()) {
+				if (entry.getValue().sum() <= threshold) {
+					sampleCounts.remove(entry.getKey(), entry.getValue());
+				}
+			}
+		} finally {
+			decaying.set(false);
+		}
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.simon.credit.toolkit.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+import com.simon.credit.exception.ExceptionToolkits;
+
+/**
+ * JDK序列化器(通用但较慢、较大，对性能敏感的场景应实现专用Serializer)
+ * @author XUZIMING 2026-10-18
+ */
+public class JdkSerializer<V extends Serializable> implements Serializer<V> {
+
+	@Override
+	public byte[] serialize(V value) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		try {
+			ObjectOutputStream out = new ObjectOutputStream(bytes);
+			out.writeObject(value);
+			out.close();
+		} catch (IOException e) {
+			throw ExceptionToolkits.illegalStateException("serialize failed", e);
+		}
+		return bytes.toByteArray();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V deserialize(byte[] bytes) {
+		try {
+			ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes));
+			try {
+				return (V) in.readObject();
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			throw ExceptionToolkits.illegalStateException("deserialize failed", e);
+		} catch (ClassNotFoundException e) {
+			throw ExceptionToolkits.illegalStateException("deserialize failed", e);
+		}
+	}
+
+}
@@ -10,7 +10,7 @@ import java.util.Set;
  * <pre>在一段时间内，数据被使用次数最少的，优先被淘汰</pre>
  * @author XUZIMING 2020-01-04
  */
-public class LFUCache<K, V> {
+public class LFUCache<K, V> implements CacheStatsProvider {
 
 	private Map<K, V> mapOfKeyAndValue;
 	private Map<K, Integer> mapOfKeyAndVisitCount;
@@ -18,6 +18,7 @@ public class LFUCache<K, V> {
 
 	private int capacity;
 	private int leastFrequentlyUsed;// 最少使用次数(默认初始化为-1)
+	private StatsCounter statsCounter = StatsCounter.DISABLED;
 
 	public LFUCache(int capacity) {
 		this.capacity = capacity;
@@ -30,9 +31,17 @@ public class LFUCache<K, V> {
 
 	public V get(K key) {
 		if (!mapOfKeyAndValue.containsKey(key)) {
+			statsCounter.recordMiss(key);
 			return null;
 		}
+		statsCounter.recordHit(key);
+		return visit(key);
+	}
 
+	/**
+	 * 访问次数加1并返回数据
+	 */
+	private V visit(K key) {
 		int count = mapOfKeyAndVisitCount.get(key);
 		mapOfKeyAndVisitCount.put(key, count + 1);// 访问次数加1
 
@@ -56,7 +65,7 @@ public class LFUCache<K, V> {
 
 		if (mapOfKeyAndValue.containsKey(key)) {
 			mapOfKeyAndValue.put(key, value);
-			get(key);
+			visit(key);
 			return;
 		}
 
@@ -65,6 +74,7 @@ public class LFUCache<K, V> {
 			mapOfKeyAndValue.remove(lfu);
 			mapOfKeyAndVisitCount.remove(lfu);
 			mapOfVisitCountAndKeySet.get(leastFrequentlyUsed).remove(lfu);
+			statsCounter.recordEviction();
 		}
 
 		mapOfKeyAndValue.put(key, value);
@@ -73,4 +83,41 @@ public class LFUCache<K, V> {
 		leastFrequentlyUsed = 1;
 	}
 
+	/**
+	 * 删除缓存数据
+	 * @return 被删除的数据，不存在返回null
+	 */
+	public V remove(K key) {
+		if (!mapOfKeyAndValue.containsKey(key)) {
+			return null;
+		}
+		V value = mapOfKeyAndValue.remove(key);
+		int count = mapOfKeyAndVisitCount.remove(key);
+		Set<K> keySet = mapOfVisitCountAndKeySet.get(count);
+		keySet.remove(key);
+		if (count == leastFrequentlyUsed && keySet.isEmpty()) {// 最小使用次数桶已空，重新查找最小使用次数
+			leastFrequentlyUsed = -1;
+			for (Map.Entry<Integer, Set<K>> entry : mapOfVisitCountAndKeySet.entrySet()) {
+				if (!entry.getValue().isEmpty() && (leastFrequentlyUsed == -1 || entry.getKey() < leastFrequentlyUsed)) {
+					leastFrequentlyUsed = entry.getKey();
+				}
+			}
+		}
+		return value;
+	}
+
+	public int size() {
+		return mapOfKeyAndValue.size();
+	}
+
+	@Override
+	public void setStatsCounter(StatsCounter statsCounter) {
+		this.statsCounter = statsCounter == null ? StatsCounter.DISABLED : statsCounter;
+	}
+
+	@Override
+	public CacheStats stats() {
+		return statsCounter.snapshot();
+	}
+
 }
\ No newline at end of file
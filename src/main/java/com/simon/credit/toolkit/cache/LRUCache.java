@@ -10,7 +10,7 @@ import com.simon.credit.toolkit.core.MyLinkedHashMap;
  * LRU(Least Recently Used:最近最少使用)缓存
  * @author XUZIMING 2019-11-19
  */
-public class LRUCache<K, V> extends MyLinkedHashMap<K, V> {
+public class LRUCache<K, V> extends MyLinkedHashMap<K, V> implements Cache<K, V>, CacheStatsProvider {
 	private static final long serialVersionUID = -5167631809472116969L;
 
 	private static final float DEFAULT_LOAD_FACTOR = 0.75f;
@@ -18,6 +18,12 @@ public class LRUCache<K, V> extends MyLinkedHashMap<K, V> {
 
 	private final Lock lock = new MyReentrantLock();
 	private volatile int maxCapacity = DEFAULT_MAX_CAPACITY;
+	private transient volatile StatsCounter statsCounter = StatsCounter.DISABLED;
+
+	/** 权重限制(weigher为null时只按条数限制) */
+	private final Weigher<? super K, ? super V> weigher;
+	private final long maxWeight;
+	private long weightedSize;// 当前权重之和，由lock保护
 
 	public LRUCache() {
 		this(DEFAULT_MAX_CAPACITY);
@@ -28,6 +34,39 @@ public class LRUCache<K, V> extends MyLinkedHashMap<K, V> {
 		// 第3个参数设置为false，代表linkedlist按插入顺序排序，可作为FIFO缓存
 		super(16, DEFAULT_LOAD_FACTOR, true);
 		this.maxCapacity = maxCapacity;
+		this.weigher = null;
+		this.maxWeight = Long.MAX_VALUE;
+	}
+
+	/**
+	 * 按权重限制容量
+	 * @param maxWeight 最大权重之和
+	 * @param weigher 权重计算器
+	 */
+	public LRUCache(long maxWeight, Weigher<? super K, ? super V> weigher) {
+		this(Integer.MAX_VALUE, maxWeight, weigher);
+	}
+
+	/**
+	 * 同时按条数和权重限制容量，任一超限即淘汰最久未访问的数据
+	 * <pre>
+	 * 权重模式下不允许缓存null值；单条权重超过maxWeight的数据放入后会被立即淘汰。
+	 * </pre>
+	 * @param maxCapacity 最大条数
+	 * @param maxWeight 最大权重之和
+	 * @param weigher 权重计算器
+	 */
+	public LRUCache(int maxCapacity, long maxWeight, Weigher<? super K, ? super V> weigher) {
+		super(16, DEFAULT_LOAD_FACTOR, true);
+		if (weigher == null) {
+			throw new NullPointerException("weigher can not be null.");
+		}
+		if (maxWeight <= 0) {
+			throw new IllegalArgumentException("Illegal max weight: " + maxWeight);
+		}
+		this.maxCapacity = maxCapacity;
+		this.weigher = weigher;
+		this.maxWeight = maxWeight;
 	}
 
 	/**
@@ -35,7 +74,11 @@ public class LRUCache<K, V> extends MyLinkedHashMap<K, V> {
 	 */
 	@Override
 	protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
-		return size() > maxCapacity;// 判断当前容量是否大于最大容量
+		boolean evict = size() > maxCapacity;// 判断当前容量是否大于最大容量
+		if (evict) {
+			statsCounter.recordEviction();
+		}
+		return evict;
 	}
 
 	@Override
@@ -50,19 +93,39 @@ public class LRUCache<K, V> extends MyLinkedHashMap<K, V> {
 
 	@Override
 	public V get(Object key) {
+		V value;
 		try {
 			lock.lock();
-			return super.get(key);
+			value = super.get(key);
 		} finally {
 			lock.unlock();
 		}
+
+		// 统计放在锁外，不延长临界区
+		if (value != null) {
+			statsCounter.recordHit(key);
+		} else {
+			statsCounter.recordMiss(key);
+		}
+		return value;
 	}
 
 	@Override
 	public V put(K key, V value) {
+		if (weigher != null && value == null) {
+			throw new NullPointerException("value can not be null.");
+		}
 		try {
 			lock.lock();
-			return super.put(key, value);
+			V oldValue = super.put(key, value);
+			if (weigher != null) {
+				if (oldValue != null) {
+					weightedSize -= weigher.weigh(key, oldValue);
+				}
+				weightedSize += weigher.weigh(key, value);
+				evictByWeight();
+			}
+			return oldValue;
 		} finally {
 			lock.unlock();
 		}
@@ -78,6 +141,16 @@ public class LRUCache<K, V> extends MyLinkedHashMap<K, V> {
 		}
 	}
 
+	/**
+	 * 所有删除路径(remove、淘汰、视图和迭代器的删除)都经过这里，保证权重之和准确
+	 */
+	@Override
+	protected void afterEntryRemoval(K key, V value) {
+		if (weigher != null) {
+			weightedSize -= weigher.weigh(key, value);
+		}
+	}
+
 	@Override
 	public int size() {
 		try {
@@ -93,6 +166,7 @@ public class LRUCache<K, V> extends MyLinkedHashMap<K, V> {
 		try {
 			lock.lock();
 			super.clear();
+			weightedSize = 0;
 		} finally {
 			lock.unlock();
 		}
@@ -102,4 +176,41 @@ public class LRUCache<K, V> extends MyLinkedHashMap<K, V> {
 		return maxCapacity;
 	}
 
+	/**
+	 * 当前权重之和(未设置weigher时为0)
+	 */
+	public long getWeightedSize() {
+		try {
+			lock.lock();
+			return weightedSize;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public long getMaxWeight() {
+		return maxWeight;
+	}
+
+	/**
+	 * 权重超限时从链表头部(最久未访问)开始淘汰，直到权重之和不超过maxWeight
+	 */
+	private void evictByWeight() {
+		while (weightedSize > maxWeight && super.size() > 0) {
+			K eldestKey = entrySet().iterator().next().getKey();
+			super.remove(eldestKey);// 权重在afterEntryRemoval中扣减
+			statsCounter.recordEviction();
+		}
+	}
+
+	@Override
+	public void setStatsCounter(StatsCounter statsCounter) {
+		this.statsCounter = statsCounter == null ? StatsCounter.DISABLED : statsCounter;
+	}
+
+	@Override
+	public CacheStats stats() {
+		return statsCounter.snapshot();
+	}
+
 }
\ No newline at end of file
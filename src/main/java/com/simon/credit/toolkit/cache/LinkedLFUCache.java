@@ -0,0 +1,391 @@
+package com.simon.credit.toolkit.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+
+import com.simon.credit.toolkit.concurrent.MyReentrantLock;
+
+/**
+ * O(1) LFU(Least Frequently Used:最不经常使用)缓存
+ * <pre>
+ * 结构：key -> 数据节点 的哈希表 + 按访问频次升序排列的"频次节点"双向链表，每个频次节点下挂一条数据节点双向链表。
+ *
+ *   head <-> [freq=1: a <-> b] <-> [freq=3: c] <-> [freq=7: d <-> e] <-> head
+ *
+ * 1、命中：数据节点从当前频次节点摘下，挂到频次+1的相邻频次节点尾部(不存在则新建)，O(1)，命中路径无装箱
+ * 2、淘汰：取最低频次节点(head.next)的头部数据节点，即频次最低且最久未被访问的数据，O(1)
+ * 3、老化：每累计agingPeriod次访问，所有频次减半(最低为1)，避免历史热点长期占据缓存
+ * 4、线程安全：threadSafe为true时所有操作使用同一把MyReentrantLock保护，否则与LFUCache一样不做同步
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class LinkedLFUCache<K, V> implements Cache<K, V>, CacheStatsProvider {
+
+	/** 关闭老化 */
+	public static final int NO_AGING = 0;
+
+	private final Map<K, Node<K, V>> nodeMap;
+
+	/** 频次链表哨兵节点，head.next为最低频次，head.prev为最高频次 */
+	private final FrequencyNode<K, V> head;
+
+	private final int capacity;
+	private final int agingPeriod;
+	private final Lock lock;
+
+	private int accessCount;// 距上次老化以来的访问次数
+
+	private volatile StatsCounter statsCounter = StatsCounter.DISABLED;
+
+	public LinkedLFUCache(int capacity) {
+		this(capacity, false, NO_AGING);
+	}
+
+	public LinkedLFUCache(int capacity, boolean threadSafe) {
+		this(capacity, threadSafe, NO_AGING);
+	}
+
+	/**
+	 * @param capacity 最大容量
+	 * @param threadSafe 是否线程安全
+	 * @param agingPeriod 老化周期(访问次数)，每累计这么多次get/put后所有频次减半，NO_AGING表示不老化，建议取容量的若干倍
+	 */
+	public LinkedLFUCache(int capacity, boolean threadSafe, int agingPeriod) {
+		if (agingPeriod < 0) {
+			throw new IllegalArgumentException("Illegal aging period: " + agingPeriod);
+		}
+		this.capacity = capacity;
+		this.agingPeriod = agingPeriod;
+		this.lock = threadSafe ? new MyReentrantLock() : null;
+		this.nodeMap = new HashMap<K, Node<K, V>>(capacity > 0 ? capacity : 16);
+		this.head = new FrequencyNode<K, V>(0);
+		head.prev = head.next = head;
+	}
+
+	public V get(K key) {
+		V value = null;
+		lock();
+		try {
+			Node<K, V> node = nodeMap.get(key);
+			if (node != null) {
+				increment(node);
+				afterAccess();
+				value = node.value;
+			}
+		} finally {
+			unlock();
+		}
+
+		if (value != null) {
+			statsCounter.recordHit(key);
+		} else {
+			statsCounter.recordMiss(key);
+		}
+		return value;
+	}
+
+	public V put(K key, V value) {
+		if (capacity <= 0) {
+			return null;
+		}
+
+		lock();
+		try {
+			Node<K, V> node = nodeMap.get(key);
+			if (node != null) {
+				V oldValue = node.value;
+				node.value = value;
+				increment(node);
+				afterAccess();
+				return oldValue;
+			}
+
+			if (nodeMap.size() >= capacity) {// 超过最大容量，淘汰频次最低且最久未访问的数据
+				evict();
+			}
+
+			FrequencyNode<K, V> lowest = head.next;
+			if (lowest == head || lowest.frequency != 1) {
+				lowest = insertAfter(head, 1);
+			}
+
+			node = new Node<K, V>(key, value);
+			lowest.append(node);
+			nodeMap.put(key, node);
+			afterAccess();
+			return null;
+		} finally {
+			unlock();
+		}
+	}
+
+	public V remove(K key) {
+		lock();
+		try {
+			Node<K, V> node = nodeMap.remove(key);
+			if (node == null) {
+				return null;
+			}
+			detach(node);
+			return node.value;
+		} finally {
+			unlock();
+		}
+	}
+
+	public boolean containsKey(K key) {
+		lock();
+		try {
+			return nodeMap.containsKey(key);
+		} finally {
+			unlock();
+		}
+	}
+
+	/**
+	 * 获取key当前的访问频次(不计入访问)，不存在返回0
+	 */
+	public int frequencyOf(K key) {
+		lock();
+		try {
+			Node<K, V> node = nodeMap.get(key);
+			return node == null ? 0 : node.owner.frequency;
+		} finally {
+			unlock();
+		}
+	}
+
+	public int size() {
+		lock();
+		try {
+			return nodeMap.size();
+		} finally {
+			unlock();
+		}
+	}
+
+	public void clear() {
+		lock();
+		try {
+			nodeMap.clear();
+			head.prev = head.next = head;
+			accessCount = 0;
+		} finally {
+			unlock();
+		}
+	}
+
+	@Override
+	public void setStatsCounter(StatsCounter statsCounter) {
+		this.statsCounter = statsCounter == null ? StatsCounter.DISABLED : statsCounter;
+	}
+
+	@Override
+	public CacheStats stats() {
+		return statsCounter.snapshot();
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	@Override
+	public String toString() {
+		lock();
+		try {
+			StringBuilder builder = new StringBuilder("{");
+			for (FrequencyNode<K, V> bucket = head.next; bucket != head; bucket = bucket.next) {
+				if (builder.length() > 1) {
+					builder.append(", ");
+				}
+				builder.append(bucket.frequency).append("=[");
+				for (Node<K, V> node = bucket.first; node != null; node = node.next) {
+					builder.append(node.key).append(node.next != null ? ", " : "");
+				}
+				builder.append(']');
+			}
+			return builder.append('}').toString();
+		} finally {
+			unlock();
+		}
+	}
+
+	/**
+	 * 访问频次加1：移到相邻的高一级频次节点
+	 */
+	private void increment(Node<K, V> node) {
+		FrequencyNode<K, V> current = node.owner;
+		int newFrequency = current.frequency == Integer.MAX_VALUE ? current.frequency : current.frequency + 1;
+
+		if (newFrequency == current.frequency) {// 频次已封顶，只调整新旧顺序
+			current.unlink(node);
+			current.append(node);
+			return;
+		}
+
+		FrequencyNode<K, V> next = current.next;
+		if (next == head || next.frequency != newFrequency) {
+			next = insertAfter(current, newFrequency);
+		}
+
+		current.unlink(node);
+		next.append(node);
+		if (current.isEmpty()) {
+			removeBucket(current);
+		}
+	}
+
+	private void evict() {
+		FrequencyNode<K, V> lowest = head.next;
+		if (lowest == head) {
+			return;
+		}
+		Node<K, V> victim = lowest.first;
+		nodeMap.remove(victim.key);
+		detach(victim);
+		statsCounter.recordEviction();
+	}
+
+	private void detach(Node<K, V> node) {
+		FrequencyNode<K, V> bucket = node.owner;
+		bucket.unlink(node);
+		if (bucket.isEmpty()) {
+			removeBucket(bucket);
+		}
+	}
+
+	private FrequencyNode<K, V> insertAfter(FrequencyNode<K, V> prev, int frequency) {
+		FrequencyNode<K, V> bucket = new FrequencyNode<K, V>(frequency);
+		bucket.prev = prev;
+		bucket.next = prev.next;
+		prev.next.prev = bucket;
+		prev.next = bucket;
+		return bucket;
+	}
+
+	private void removeBucket(FrequencyNode<K, V> bucket) {
+		bucket.prev.next = bucket.next;
+		bucket.next.prev = bucket.prev;
+		bucket.prev = bucket.next = null;
+	}
+
+	private void afterAccess() {
+		if (agingPeriod != NO_AGING && ++accessCount >= agingPeriod) {
+			accessCount = 0;
+			age();
+		}
+	}
+
+	/**
+	 * 老化：所有频次减半(最低为1)，减半后频次相同的相邻频次节点合并，低频次节点的数据排在前面(更先被淘汰)
+	 */
+	private void age() {
+		FrequencyNode<K, V> kept = head;
+		FrequencyNode<K, V> bucket = head.next;
+		while (bucket != head) {
+			FrequencyNode<K, V> next = bucket.next;
+			int halved = Math.max(1, bucket.frequency >>> 1);
+			if (kept != head && kept.frequency == halved) {
+				kept.merge(bucket);
+				removeBucket(bucket);
+			} else {
+				bucket.frequency = halved;
+				kept = bucket;
+			}
+			bucket = next;
+		}
+	}
+
+	private void lock() {
+		if (lock != null) {
+			lock.lock();
+		}
+	}
+
+	private void unlock() {
+		if (lock != null) {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 数据节点
+	 */
+	private static final class Node<K, V> {
+		final K key;
+		V value;
+		FrequencyNode<K, V> owner;
+		Node<K, V> prev, next;
+
+		Node(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * 频次节点：同一访问频次的数据节点链表，first最久未访问，last最近访问
+	 */
+	private static final class FrequencyNode<K, V> {
+		int frequency;
+		Node<K, V> first, last;
+		FrequencyNode<K, V> prev, next;
+
+		FrequencyNode(int frequency) {
+			this.frequency = frequency;
+		}
+
+		boolean isEmpty() {
+			return first == null;
+		}
+
+		void append(Node<K, V> node) {
+			node.owner = this;
+			node.next = null;
+			node.prev = last;
+			if (last == null) {
+				first = node;
+			} else {
+				last.next = node;
+			}
+			last = node;
+		}
+
+		void unlink(Node<K, V> node) {
+			if (node.prev == null) {
+				first = node.next;
+			} else {
+				node.prev.next = node.next;
+			}
+			if (node.next == null) {
+				last = node.prev;
+			} else {
+				node.next.prev = node.prev;
+			}
+			node.prev = node.next = null;
+			node.owner = null;
+		}
+
+		/**
+		 * 将other的数据节点整体拼接到本节点尾部
+		 */
+		void merge(FrequencyNode<K, V> other) {
+			if (other.first == null) {
+				return;
+			}
+			for (Node<K, V> node = other.first; node != null; node = node.next) {
+				node.owner = this;
+			}
+			if (last == null) {
+				first = other.first;
+			} else {
+				last.next = other.first;
+				other.first.prev = last;
+			}
+			last = other.last;
+			other.first = other.last = null;
+		}
+	}
+
+}
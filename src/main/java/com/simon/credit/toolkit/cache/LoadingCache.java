@@ -0,0 +1,358 @@
+package com.simon.credit.toolkit.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.simon.credit.exception.ExceptionToolkits;
+import com.simon.credit.toolkit.concurrent.MyConcurrentHashMap;
+import com.simon.credit.toolkit.concurrent.MyThreadPoolExecutor;
+
+/**
+ * 自动加载缓存(门面)
+ * <pre>
+ * 在任意Cache实现(默认ConcurrentLRUCache)之上增加加载能力：
+ * 1、单飞(single-flight)：同一key的并发未命中共享同一个进行中的CompletableFuture，只有一个线程调用loader
+ * 2、过期：写入超过expireAfterWrite的数据视为未命中，同步重新加载
+ * 3、提前刷新(refresh-ahead)：写入超过refreshAfterWrite(小于expireAfterWrite)的数据继续返回旧值，
+ *    同时在刷新线程池中异步重新加载，调用方不会因为数据即将过期而阻塞
+ * 4、批量：getAll将所有未命中的key合并为一次loader.loadAll调用
+ *
+ * 统计(开启后)：命中/未命中按get/getAll的每个key记录，加载耗时按每次load/loadAll调用记录。
+ * 加载结果为null时不缓存，get返回null；loader抛出的异常原样(运行时异常)或包装为IllegalStateException抛给所有等待的调用方。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class LoadingCache<K, V> implements CacheStatsProvider {
+
+	/** 不过期/不刷新 */
+	public static final long NEVER = 0L;
+
+	/** 默认刷新线程数 */
+	private static final int REFRESH_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+	/**
+	 * 默认刷新线程池
+	 * <pre>
+	 * 1、守护线程：不阻止JVM退出，空闲时核心线程也会回收
+	 * 2、有界队列 + AbortPolicy：繁忙时立即拒绝(不阻塞、不在调用方线程执行)，由refreshAsync放弃本次刷新，继续返回旧值
+	 * </pre>
+	 */
+	private static final MyThreadPoolExecutor DEFAULT_REFRESH_EXECUTOR = new MyThreadPoolExecutor(
+		REFRESH_THREADS, REFRESH_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(1024), new ThreadFactory() {
+			private AtomicInteger index = new AtomicInteger(0);
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, LoadingCache.class.getName() + "_refresh_" + index.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		}, new MyThreadPoolExecutor.AbortPolicy());
+
+	static {
+		DEFAULT_REFRESH_EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
+	private final Cache<K, LoadedValue<V>> store;
+	private final CacheLoader<K, V> loader;
+	private final long expireAfterWriteNanos;
+	private final long refreshAfterWriteNanos;
+	private final ExecutorService refreshExecutor;
+
+	/** 进行中的加载(含异步刷新) */
+	private final MyConcurrentHashMap<K, CompletableFuture<V>> inFlight = new MyConcurrentHashMap<K, CompletableFuture<V>>();
+
+	private volatile StatsCounter statsCounter = StatsCounter.DISABLED;
+
+	public LoadingCache(int maxCapacity, CacheLoader<K, V> loader) {
+		this(maxCapacity, loader, NEVER, NEVER, TimeUnit.NANOSECONDS);
+	}
+
+	public LoadingCache(int maxCapacity, CacheLoader<K, V> loader, long expireAfterWrite, long refreshAfterWrite, TimeUnit unit) {
+		this(new ConcurrentLRUCache<K, LoadedValue<V>>(maxCapacity), loader,
+			expireAfterWrite, refreshAfterWrite, unit, DEFAULT_REFRESH_EXECUTOR);
+	}
+
+	/**
+	 * @param store 底层缓存(需线程安全)
+	 * @param loader 加载器
+	 * @param expireAfterWrite 写入多久后过期，NEVER表示不过期
+	 * @param refreshAfterWrite 写入多久后异步刷新，NEVER表示不刷新，需小于expireAfterWrite
+	 * @param unit 时间单位
+	 * @param refreshExecutor 异步刷新线程池，繁忙时应当抛出RejectedExecutionException而不是阻塞、丢弃或在调用方线程执行
+	 */
+	public LoadingCache(Cache<K, LoadedValue<V>> store, CacheLoader<K, V> loader, long expireAfterWrite,
+						long refreshAfterWrite, TimeUnit unit, ExecutorService refreshExecutor) {
+		if (store == null || loader == null || unit == null || refreshExecutor == null) {
+			throw new NullPointerException();
+		}
+		if (expireAfterWrite < 0 || refreshAfterWrite < 0) {
+			throw new IllegalArgumentException("expireAfterWrite and refreshAfterWrite can not be negative");
+		}
+		if (expireAfterWrite != NEVER && refreshAfterWrite != NEVER && refreshAfterWrite >= expireAfterWrite) {
+			throw new IllegalArgumentException("refreshAfterWrite must be less than expireAfterWrite");
+		}
+		this.store = store;
+		this.loader = loader;
+		this.expireAfterWriteNanos = unit.toNanos(expireAfterWrite);
+		this.refreshAfterWriteNanos = unit.toNanos(refreshAfterWrite);
+		this.refreshExecutor = refreshExecutor;
+	}
+
+	/**
+	 * 获取数据，未命中或已过期时加载(同一key并发加载只执行一次)
+	 */
+	public V get(K key) {
+		if (key == null) {
+			throw new NullPointerException("key can not be null.");
+		}
+
+		LoadedValue<V> loaded = store.get(key);
+		if (loaded != null) {
+			long now = System.nanoTime();
+			if (!isExpired(loaded, now)) {
+				if (shouldRefresh(loaded, now)) {
+					refreshAsync(key);
+				}
+				statsCounter.recordHit(key);
+				return loaded.value;
+			}
+		}
+		statsCounter.recordMiss(key);
+
+		CompletableFuture<V> future = new CompletableFuture<V>();
+		CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+		if (existing != null) {
+			return join(existing);
+		}
+
+		// 抢到加载权后复查：其他线程可能刚刚加载完并移除了它的future
+		loaded = store.get(key);
+		if (loaded != null && !isExpired(loaded, System.nanoTime())) {
+			inFlight.remove(key, future);
+			future.complete(loaded.value);
+			return loaded.value;
+		}
+
+		load(key, future);
+		return join(future);
+	}
+
+	/**
+	 * 批量获取，所有未命中的key合并为一次loader.loadAll调用
+	 * @return 有数据的key及其数据(按入参顺序)
+	 */
+	public Map<K, V> getAll(Collection<? extends K> keys) {
+		Map<K, V> result = new LinkedHashMap<K, V>(keys.size() * 4 / 3 + 1);
+		Map<K, CompletableFuture<V>> waiting = new LinkedHashMap<K, CompletableFuture<V>>();
+		Map<K, CompletableFuture<V>> owned = new LinkedHashMap<K, CompletableFuture<V>>();
+
+		long now = System.nanoTime();
+		for (K key : keys) {
+			if (key == null) {
+				throw new NullPointerException("key can not be null.");
+			}
+			LoadedValue<V> loaded = store.get(key);
+			if (loaded != null && !isExpired(loaded, now)) {
+				if (shouldRefresh(loaded, now)) {
+					refreshAsync(key);
+				}
+				statsCounter.recordHit(key);
+				result.put(key, loaded.value);
+				continue;
+			}
+			statsCounter.recordMiss(key);
+			if (waiting.containsKey(key)) {
+				continue;
+			}
+			CompletableFuture<V> future = new CompletableFuture<V>();
+			CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+			if (existing != null) {
+				waiting.put(key, existing);
+			} else {
+				waiting.put(key, future);
+				owned.put(key, future);
+			}
+		}
+
+		if (!owned.isEmpty()) {
+			loadAll(owned);
+		}
+
+		for (Map.Entry<K, CompletableFuture<V>> entry : waiting.entrySet()) {
+			V value = join(entry.getValue());
+			if (value != null) {
+				result.put(entry.getKey(), value);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 获取数据，不触发加载
+	 */
+	public V getIfPresent(K key) {
+		LoadedValue<V> loaded = store.get(key);
+		if (loaded == null || isExpired(loaded, System.nanoTime())) {
+			return null;
+		}
+		return loaded.value;
+	}
+
+	public void put(K key, V value) {
+		if (key == null || value == null) {
+			throw new NullPointerException();
+		}
+		store.put(key, new LoadedValue<V>(value, System.nanoTime()));
+	}
+
+	/**
+	 * 主动触发异步刷新(已有进行中的加载时忽略)
+	 */
+	public void refresh(K key) {
+		refreshAsync(key);
+	}
+
+	public void invalidate(K key) {
+		store.remove(key);
+	}
+
+	public void invalidateAll() {
+		store.clear();
+	}
+
+	public int size() {
+		return store.size();
+	}
+
+	@Override
+	public void setStatsCounter(StatsCounter statsCounter) {
+		this.statsCounter = statsCounter == null ? StatsCounter.DISABLED : statsCounter;
+	}
+
+	@Override
+	public CacheStats stats() {
+		return statsCounter.snapshot();
+	}
+
+	private boolean isExpired(LoadedValue<V> loaded, long now) {
+		return expireAfterWriteNanos != NEVER && now - loaded.loadTime >= expireAfterWriteNanos;
+	}
+
+	private boolean shouldRefresh(LoadedValue<V> loaded, long now) {
+		return refreshAfterWriteNanos != NEVER && now - loaded.loadTime >= refreshAfterWriteNanos;
+	}
+
+	private void refreshAsync(final K key) {
+		final CompletableFuture<V> future = new CompletableFuture<V>();
+		if (inFlight.putIfAbsent(key, future) != null) {
+			return;// 已在加载或刷新中
+		}
+
+		try {
+			refreshExecutor.execute(new Runnable() {
+				@Override
+				public void run() {
+					load(key, future);
+				}
+			});
+		} catch (RuntimeException e) {
+			// 提交失败(刷新线程池繁忙或已关闭)，放弃本次刷新，期间加入等待的调用方拿到当前值
+			inFlight.remove(key, future);
+			LoadedValue<V> current = store.get(key);
+			future.complete(current == null ? null : current.value);
+		}
+	}
+
+	private void load(K key, CompletableFuture<V> future) {
+		long start = System.nanoTime();
+		try {
+			V value = loader.load(key);
+			long now = System.nanoTime();
+			statsCounter.recordLoadSuccess(now - start);
+			if (value != null) {
+				store.put(key, new LoadedValue<V>(value, now));
+			}
+			future.complete(value);
+		} catch (Throwable e) {
+			statsCounter.recordLoadFailure(System.nanoTime() - start);
+			future.completeExceptionally(e);
+		} finally {
+			inFlight.remove(key, future);
+		}
+	}
+
+	private void loadAll(Map<K, CompletableFuture<V>> owned) {
+		List<K> keys = new ArrayList<K>(owned.keySet());
+		long start = System.nanoTime();
+		try {
+			Map<K, V> loadedMap = loader.loadAll(keys);
+			long now = System.nanoTime();
+			statsCounter.recordLoadSuccess(now - start);
+			for (Map.Entry<K, CompletableFuture<V>> entry : owned.entrySet()) {
+				V value = loadedMap == null ? null : loadedMap.get(entry.getKey());
+				if (value != null) {
+					store.put(entry.getKey(), new LoadedValue<V>(value, now));
+				}
+				entry.getValue().complete(value);
+			}
+		} catch (Throwable e) {
+			statsCounter.recordLoadFailure(System.nanoTime() - start);
+			for (CompletableFuture<V> future : owned.values()) {
+				future.completeExceptionally(e);
+			}
+		} finally {
+			for (Map.Entry<K, CompletableFuture<V>> entry : owned.entrySet()) {
+				inFlight.remove(entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+	private V join(CompletableFuture<V> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause() == null ? e : e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw ExceptionToolkits.illegalStateException("load cache failed", cause);
+		}
+	}
+
+	/**
+	 * 已加载的数据及加载时间
+	 */
+	public static final class LoadedValue<V> {
+		private final V value;
+		private final long loadTime;// System.nanoTime()
+
+		LoadedValue(V value, long loadTime) {
+			this.value = value;
+			this.loadTime = loadTime;
+		}
+
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public String toString() {
+			return String.valueOf(value);
+		}
+	}
+
+}
@@ -0,0 +1,242 @@
+package com.simon.credit.toolkit.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+
+import com.simon.credit.toolkit.concurrent.MyReentrantLock;
+import com.simon.credit.toolkit.core.MyLinkedHashMap;
+
+/**
+ * 堆外LRU缓存
+ * <pre>
+ * 数据序列化后存放在直接内存slab中(见SlabAllocator)，堆上只保留 key -> 槽位(句柄 + 长度) 的索引，
+ * GC扫描和复制的对象数量与数据大小无关，适合GB级缓存；代价是每次get都要拷贝并反序列化。
+ *
+ * 1、容量按字节限制：空间不足时按LRU淘汰，优先淘汰链表头部若干条中与新数据同规格的数据(直接腾出可用chunk)，
+ *    找不到再淘汰最久未访问的数据，直到分配成功
+ * 2、单条数据序列化后超过slabSize时不缓存(put返回前会删除该key的旧数据)
+ * 3、所有操作共用一把MyReentrantLock，反序列化在锁外进行
+ * 4、直接内存在缓存对象被GC回收时释放，不会主动归还操作系统，-XX:MaxDirectMemorySize需不小于capacityBytes
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class OffHeapCache<K, V> implements Cache<K, V>, CacheStatsProvider {
+
+	private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+	/** 默认slab大小：8MB(即单条数据的最大长度) */
+	public static final int DEFAULT_SLAB_SIZE = 8 << 20;
+
+	/** 默认最小chunk：64字节 */
+	private static final int DEFAULT_MIN_CHUNK_SIZE = 64;
+
+	/** 淘汰时在链表头部查找同规格数据的最大条数 */
+	private static final int SAME_CLASS_SCAN_LIMIT = 16;
+
+	private final MyLinkedHashMap<K, Slot> index;
+	private final SlabAllocator allocator;
+	private final Serializer<V> serializer;
+
+	private final Lock lock = new MyReentrantLock();
+	private volatile StatsCounter statsCounter = StatsCounter.DISABLED;
+
+	public OffHeapCache(long capacityBytes, Serializer<V> serializer) {
+		this(capacityBytes, DEFAULT_SLAB_SIZE, serializer);
+	}
+
+	/**
+	 * @param capacityBytes 直接内存容量(字节)
+	 * @param slabSize slab大小(字节)，即单条数据序列化后的最大长度
+	 * @param serializer 序列化器
+	 */
+	public OffHeapCache(long capacityBytes, int slabSize, Serializer<V> serializer) {
+		if (serializer == null) {
+			throw new NullPointerException("serializer can not be null.");
+		}
+		this.allocator = new SlabAllocator(capacityBytes, slabSize, DEFAULT_MIN_CHUNK_SIZE);
+		this.serializer = serializer;
+		// 第3个参数设置为true，代表linkedlist按访问顺序排序
+		this.index = new MyLinkedHashMap<K, Slot>(16, DEFAULT_LOAD_FACTOR, true);
+	}
+
+	/**
+	 * 数据被淘汰后的回调(扩展点)，在缓存锁内调用，实现中不要再访问本缓存
+	 * @param key 被淘汰的key
+	 */
+	protected void onEviction(K key) {
+		// nothing to do
+	}
+
+	public V get(Object key) {
+		byte[] bytes = null;
+		lock.lock();
+		try {
+			Slot slot = index.get(key);
+			if (slot != null) {
+				bytes = allocator.read(slot.handle, slot.length);
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		if (bytes == null) {
+			statsCounter.recordMiss(key);
+			return null;
+		}
+		statsCounter.recordHit(key);
+		return serializer.deserialize(bytes);
+	}
+
+	/**
+	 * 缓存数据
+	 * @return 始终返回null(旧数据已在堆外，不再反序列化)
+	 */
+	public V put(K key, V value) {
+		if (key == null || value == null) {
+			throw new NullPointerException();
+		}
+
+		byte[] bytes = serializer.serialize(value);// 序列化在锁外进行
+		lock.lock();
+		try {
+			Slot old = index.remove(key);
+			if (old != null) {
+				allocator.free(old.handle);
+			}
+			if (bytes.length > allocator.maxAllocation()) {
+				return null;// 超过单条最大长度，不缓存
+			}
+
+			long handle = allocator.allocate(bytes.length);
+			while (handle == SlabAllocator.NO_SPACE && evictFor(allocator.sizeClassOf(bytes.length))) {
+				handle = allocator.allocate(bytes.length);
+			}
+			if (handle == SlabAllocator.NO_SPACE) {
+				return null;
+			}
+
+			allocator.write(handle, bytes);
+			index.put(key, new Slot(handle, bytes.length));
+			return null;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 删除数据
+	 * @return 始终返回null(不反序列化被删除的数据)
+	 */
+	public V remove(Object key) {
+		lock.lock();
+		try {
+			Slot slot = index.remove(key);
+			if (slot != null) {
+				allocator.free(slot.handle);
+			}
+			return null;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public boolean containsKey(Object key) {
+		lock.lock();
+		try {
+			return index.containsKey(key);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int size() {
+		lock.lock();
+		try {
+			return index.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void clear() {
+		lock.lock();
+		try {
+			for (Slot slot : index.values()) {
+				allocator.free(slot.handle);
+			}
+			index.clear();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 已占用的直接内存字节数(按chunk大小计)
+	 */
+	public long getUsedBytes() {
+		lock.lock();
+		try {
+			return allocator.getUsedBytes();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public long getCapacityBytes() {
+		return allocator.getCapacityBytes();
+	}
+
+	@Override
+	public void setStatsCounter(StatsCounter statsCounter) {
+		this.statsCounter = statsCounter == null ? StatsCounter.DISABLED : statsCounter;
+	}
+
+	@Override
+	public CacheStats stats() {
+		return statsCounter.snapshot();
+	}
+
+	/**
+	 * 淘汰一条数据：优先淘汰链表头部若干条中同规格的数据，否则淘汰最久未访问的数据
+	 * @return 是否淘汰成功(缓存为空时返回false)
+	 */
+	private boolean evictFor(int sizeClass) {
+		Iterator<Map.Entry<K, Slot>> iterator = index.entrySet().iterator();
+		Map.Entry<K, Slot> victim = null;
+		for (int i = 0; i < SAME_CLASS_SCAN_LIMIT && iterator.hasNext(); i++) {
+			Map.Entry<K, Slot> entry = iterator.next();
+			if (victim == null) {
+				victim = entry;// 最久未访问
+			}
+			if (allocator.sizeClassOf(entry.getValue().handle) == sizeClass) {
+				victim = entry;
+				break;
+			}
+		}
+		if (victim == null) {
+			return false;
+		}
+
+		K victimKey = victim.getKey();
+		allocator.free(victim.getValue().handle);
+		index.remove(victimKey);
+		statsCounter.recordEviction();
+		onEviction(victimKey);
+		return true;
+	}
+
+	/**
+	 * 堆外槽位
+	 */
+	private static final class Slot {
+		final long handle;
+		final int length;
+
+		Slot(long handle, int length) {
+			this.handle = handle;
+			this.length = length;
+		}
+	}
+
+}
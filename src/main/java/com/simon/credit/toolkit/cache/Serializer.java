@@ -0,0 +1,13 @@
+package com.simon.credit.toolkit.cache;
+
+/**
+ * 序列化器(供堆外缓存将数据转为字节存入直接内存)
+ * @author XUZIMING 2026-10-18
+ */
+public interface Serializer<V> {
+
+	byte[] serialize(V value);
+
+	V deserialize(byte[] bytes);
+
+}
@@ -0,0 +1,270 @@
+package com.simon.credit.toolkit.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 直接内存slab分配器
+ * <pre>
+ * 1、总容量切分为若干个固定大小的slab(直接内存ByteBuffer，首次使用时才分配)
+ * 2、分配规格按2的幂划分(minChunkSize, 2*minChunkSize, ..., slabSize)，slab被某个规格领用后切分为等大的chunk，
+ *    分配时优先复用空闲链表中的chunk，否则顺序切出新chunk，分配和释放都是O(1)
+ * 3、空闲链表是侵入式的：空闲chunk的前4个字节存放下一个空闲chunk的下标，不占用堆内存
+ * 4、slab内chunk全部释放后归还公共池，可被其他规格重新领用，缓解数据大小分布变化后的"slab钙化"
+ *    每个规格有空闲chunk的slab组成侵入式双向链表(prev/next存在Slab上)，领用、写满、归还时摘链和挂链都是O(1)
+ * 5、句柄(handle)为 slab下标 << 32 | chunk下标，堆上只需保存一个long
+ *
+ * 非线程安全，由调用方加锁。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+final class SlabAllocator {
+
+	/** 空间不足 */
+	static final long NO_SPACE = -1L;
+
+	private final int slabSize;
+	private final int minChunkShift;
+	private final Slab[] slabs;
+
+	/** 每个规格有空闲chunk的slab链表头(链表中的slab都未满) */
+	private final Slab[] partialHeads;
+
+	/** 未被领用的slab */
+	private final Deque<Slab> freeSlabs = new ArrayDeque<Slab>();
+
+	private long usedBytes;
+
+	/**
+	 * @param capacityBytes 总容量(字节)
+	 * @param slabSize 单个slab大小(字节)，也是单条数据的最大长度，向上取整为2的幂
+	 * @param minChunkSize 最小chunk大小(字节)，向上取整为2的幂
+	 */
+	SlabAllocator(long capacityBytes, int slabSize, int minChunkSize) {
+		if (slabSize <= 0 || minChunkSize < 8 || minChunkSize > slabSize) {
+			throw new IllegalArgumentException("Illegal slab size: " + slabSize + " or min chunk size: " + minChunkSize);
+		}
+		this.slabSize = ceilingPowerOfTwo(slabSize);
+		this.minChunkShift = Integer.numberOfTrailingZeros(ceilingPowerOfTwo(minChunkSize));
+
+		long slabCount = capacityBytes / this.slabSize;
+		if (slabCount <= 0 || slabCount > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Illegal capacity: " + capacityBytes);
+		}
+		this.slabs = new Slab[(int) slabCount];
+		for (int i = 0; i < slabs.length; i++) {
+			slabs[i] = new Slab(i);
+			freeSlabs.add(slabs[i]);
+		}
+
+		int classCount = Integer.numberOfTrailingZeros(this.slabSize) - minChunkShift + 1;
+		this.partialHeads = new Slab[classCount];
+	}
+
+	/**
+	 * 单条数据的最大长度
+	 */
+	int maxAllocation() {
+		return slabSize;
+	}
+
+	/**
+	 * 长度对应的规格
+	 */
+	int sizeClassOf(int length) {
+		if (length <= (1 << minChunkShift)) {
+			return 0;
+		}
+		return 32 - Integer.numberOfLeadingZeros(length - 1) - minChunkShift;
+	}
+
+	/**
+	 * 句柄所在chunk的规格
+	 */
+	int sizeClassOf(long handle) {
+		return slabs[slabIndex(handle)].sizeClass;
+	}
+
+	/**
+	 * 分配一个能容纳length字节的chunk
+	 * @return 句柄，空间不足返回NO_SPACE
+	 */
+	long allocate(int length) {
+		if (length > slabSize) {
+			throw new IllegalArgumentException("Allocation too large: " + length + " > " + slabSize);
+		}
+
+		int sizeClass = sizeClassOf(length);
+		Slab slab = partialHeads[sizeClass];
+		if (slab == null) {
+			slab = freeSlabs.pollFirst();
+			if (slab == null) {
+				return NO_SPACE;
+			}
+			slab.assign(sizeClass, 1 << (sizeClass + minChunkShift));
+			linkPartial(slab);
+		}
+
+		int chunk = slab.allocate();
+		if (slab.isFull()) {// 写满的slab移出链表，释放chunk时再挂回
+			unlinkPartial(slab);
+		}
+		usedBytes += slab.chunkSize;
+		return ((long) slab.index << 32) | chunk;
+	}
+
+	/**
+	 * 释放chunk
+	 */
+	void free(long handle) {
+		Slab slab = slabs[slabIndex(handle)];
+		slab.free(chunkIndex(handle));
+		usedBytes -= slab.chunkSize;
+
+		if (slab.usedCount == 0) {// 整个slab空闲，归还公共池
+			if (slab.partial) {
+				unlinkPartial(slab);
+			}
+			slab.sizeClass = -1;
+			freeSlabs.addLast(slab);
+		} else if (!slab.partial) {
+			linkPartial(slab);
+		}
+	}
+
+	/**
+	 * 挂到所属规格链表头部
+	 */
+	private void linkPartial(Slab slab) {
+		Slab head = partialHeads[slab.sizeClass];
+		slab.prev = null;
+		slab.next = head;
+		if (head != null) {
+			head.prev = slab;
+		}
+		partialHeads[slab.sizeClass] = slab;
+		slab.partial = true;
+	}
+
+	private void unlinkPartial(Slab slab) {
+		if (slab.prev != null) {
+			slab.prev.next = slab.next;
+		} else {
+			partialHeads[slab.sizeClass] = slab.next;
+		}
+		if (slab.next != null) {
+			slab.next.prev = slab.prev;
+		}
+		slab.prev = null;
+		slab.next = null;
+		slab.partial = false;
+	}
+
+	void write(long handle, byte[] bytes) {
+		ByteBuffer buffer = bufferOf(handle);
+		buffer.put(bytes, 0, bytes.length);
+	}
+
+	byte[] read(long handle, int length) {
+		byte[] bytes = new byte[length];
+		bufferOf(handle).get(bytes, 0, length);
+		return bytes;
+	}
+
+	/**
+	 * 已分配的chunk字节数(按chunk大小计，含内部碎片)
+	 */
+	long getUsedBytes() {
+		return usedBytes;
+	}
+
+	long getCapacityBytes() {
+		return (long) slabs.length * slabSize;
+	}
+
+	/**
+	 * 定位到chunk起始位置的缓冲区视图
+	 */
+	private ByteBuffer bufferOf(long handle) {
+		Slab slab = slabs[slabIndex(handle)];
+		ByteBuffer buffer = slab.buffer.duplicate();
+		int offset = chunkIndex(handle) * slab.chunkSize;
+		buffer.limit(offset + slab.chunkSize).position(offset);
+		return buffer;
+	}
+
+	private static int slabIndex(long handle) {
+		return (int) (handle >>> 32);
+	}
+
+	private static int chunkIndex(long handle) {
+		return (int) handle;
+	}
+
+	private static int ceilingPowerOfTwo(int value) {
+		int n = 1;
+		while (n < value) {
+			n <<= 1;
+		}
+		return n;
+	}
+
+	private final class Slab {
+		private static final int NONE = -1;
+
+		final int index;
+		ByteBuffer buffer;
+		int sizeClass = -1;
+		int chunkSize;
+		int chunkCount;
+		int usedCount;
+		int nextUnused;// 尚未切出过的第一个chunk下标
+		int freeHead = NONE;// 空闲链表头
+		boolean partial;// 是否在所属规格的链表中
+		Slab prev;
+		Slab next;
+
+		Slab(int index) {
+			this.index = index;
+		}
+
+		/**
+		 * 被某个规格领用：按chunk大小切分
+		 */
+		void assign(int sizeClass, int chunkSize) {
+			if (buffer == null) {
+				buffer = ByteBuffer.allocateDirect(slabSize);
+			}
+			this.sizeClass = sizeClass;
+			this.chunkSize = chunkSize;
+			this.chunkCount = slabSize / chunkSize;
+			this.usedCount = 0;
+			this.nextUnused = 0;
+			this.freeHead = NONE;
+		}
+
+		boolean isFull() {
+			return freeHead == NONE && nextUnused == chunkCount;
+		}
+
+		int allocate() {
+			int chunk;
+			if (freeHead != NONE) {
+				chunk = freeHead;
+				freeHead = buffer.getInt(chunk * chunkSize);
+			} else {
+				chunk = nextUnused++;
+			}
+			usedCount++;
+			return chunk;
+		}
+
+		void free(int chunk) {
+			buffer.putInt(chunk * chunkSize, freeHead);
+			freeHead = chunk;
+			usedCount--;
+		}
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.simon.credit.toolkit.cache;
+
+/**
+ * 缓存统计记录器
+ * <pre>
+ * 记录方法位于缓存读写的热路径上，实现必须线程安全且开销足够小(不能引入新的竞争点)，
+ * 默认实现见ConcurrentStatsCounter；未开启统计的缓存使用DISABLED，所有记录均为空操作。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public interface StatsCounter {
+
+	/** 空实现：不记录任何数据 */
+	StatsCounter DISABLED = new StatsCounter() {
+		@Override
+		public void recordHit(Object key) {}
+
+		@Override
+		public void recordMiss(Object key) {}
+
+		@Override
+		public void recordEviction() {}
+
+		@Override
+		public void recordExpiration() {}
+
+		@Override
+		public void recordLoadSuccess(long loadTimeNanos) {}
+
+		@Override
+		public void recordLoadFailure(long loadTimeNanos) {}
+
+		@Override
+		public CacheStats snapshot() {
+			return CacheStats.EMPTY;
+		}
+	};
+
+	/**
+	 * 记录一次命中
+	 * @param key 命中的key(用于热点key估算)
+	 */
+	void recordHit(Object key);
+
+	/**
+	 * 记录一次未命中
+	 * @param key 未命中的key(用于热点key估算)
+	 */
+	void recordMiss(Object key);
+
+	/**
+	 * 记录一次容量淘汰
+	 */
+	void recordEviction();
+
+	/**
+	 * 记录一次超时过期
+	 */
+	void recordExpiration();
+
+	/**
+	 * 记录一次成功加载
+	 * @param loadTimeNanos 加载耗时(纳秒)
+	 */
+	void recordLoadSuccess(long loadTimeNanos);
+
+	/**
+	 * 记录一次失败加载(抛出异常)
+	 * @param loadTimeNanos 加载耗时(纳秒)
+	 */
+	void recordLoadFailure(long loadTimeNanos);
+
+	/**
+	 * 生成统计快照
+	 */
+	CacheStats snapshot();
+
+}
@@ -1,36 +1,95 @@
 package com.simon.credit.toolkit.cache;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
 import com.simon.credit.toolkit.concurrent.MyScheduledThreadPoolExecutor;
 
 /**
  * 超时缓存
+ * <pre>
+ * 两种过期模式：
+ * 1、SCHEDULED_TASK(默认)：每个key一个定时清理任务，访问时取消并重新提交，适合key数量较少的场景
+ * 2、TIMING_WHEEL：分层时间轮，续期只是O(1)换槽，由单个tick线程批量清理到期key，适合大量key的场景，过期精度为一个tick
+ * </pre>
  * @author XUZIMING 2019-12-14
  */
-public class TimeCache<K, V> {
+public class TimeCache<K, V> implements CacheStatsProvider {
 
 	/** 默认超时失效时间: 60秒 */
 	private static final long DEFAULT_EXPIRE_SECONDS = 60L;
 
+	/** 时间轮默认tick: 100毫秒 */
+	private static final long DEFAULT_TICK_MILLIS = 100L;
+
+	/** 时间轮模式每批清理的最大key数(每批持有一次缓存锁) */
+	private static final int EXPIRE_BATCH_SIZE = 1024;
+
 	private Map<K, V> dataMap;
 	private Map<K, CleanTaskInfo> cleanTaskInfoMap;
 
+	/** 时间轮模式专用 */
+	private Map<K, TimingWheel.Timeout<K>> timeoutMap;
+	private TimingWheel<K> timingWheel;
+	private ScheduledFuture<?> ticker;
+
+	private volatile StatsCounter statsCounter = StatsCounter.DISABLED;
+
 	private static final int CPU_NUM = Runtime.getRuntime().availableProcessors();
 	private static final ScheduledExecutorService CLEANER = new MyScheduledThreadPoolExecutor(CPU_NUM);
 	private static final int MAXIMUM_CAPACITY = 1 << 30;
 	private static final int DEFAULT_INITIAL_CAPACITY = 1 << 4;
 
+	/** 所有时间轮模式的缓存共用一个tick线程 */
+	private static final ScheduledExecutorService WHEEL_TICKER = new MyScheduledThreadPoolExecutor(1, new ThreadFactory() {
+		private final ThreadFactory factory = Executors.defaultThreadFactory();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = factory.newThread(runnable);
+			thread.setName(TimeCache.class.getName() + "_ticker");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	/**
+	 * 过期模式
+	 */
+	public enum ExpireMode {
+		/** 每个key一个定时清理任务 */
+		SCHEDULED_TASK,
+		/** 分层时间轮 */
+		TIMING_WHEEL
+	}
+
 	public TimeCache() {
 		this(DEFAULT_INITIAL_CAPACITY);
 	}
 
 	public TimeCache(int initialCapacity) {
+		this(initialCapacity, ExpireMode.SCHEDULED_TASK);
+	}
+
+	public TimeCache(int initialCapacity, ExpireMode expireMode) {
+		this(initialCapacity, expireMode, DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @param initialCapacity 初始容量
+	 * @param expireMode 过期模式
+	 * @param tickDuration 时间轮tick时长(仅TIMING_WHEEL模式有效)，即过期精度
+	 * @param tickUnit tick时间单位
+	 */
+	public TimeCache(int initialCapacity, ExpireMode expireMode, long tickDuration, TimeUnit tickUnit) {
 		if (initialCapacity < 0) {
             throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
 		}
@@ -38,7 +97,19 @@ public class TimeCache<K, V> {
             initialCapacity = MAXIMUM_CAPACITY;
         }
         dataMap = new HashMap<K, V>(initialCapacity);
-        cleanTaskInfoMap = new HashMap<K, CleanTaskInfo>(initialCapacity);
+
+        if (expireMode == ExpireMode.TIMING_WHEEL) {
+        	timeoutMap  = new HashMap<K, TimingWheel.Timeout<K>>(initialCapacity);
+        	timingWheel = new TimingWheel<K>(tickDuration, tickUnit);
+        	ticker = WHEEL_TICKER.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					expireTimeouts();
+				}
+			}, timingWheel.getTickNanos(), timingWheel.getTickNanos(), TimeUnit.NANOSECONDS);
+        } else {
+        	cleanTaskInfoMap = new HashMap<K, CleanTaskInfo>(initialCapacity);
+        }
 	}
 
 	public void put(K key, V data) {
@@ -50,6 +121,18 @@ public class TimeCache<K, V> {
 			throw new NullPointerException("key can not be null.");
 		}
 
+		if (timingWheel != null) {
+			synchronized (this) {
+				TimingWheel.Timeout<K> oldTimeout = timeoutMap.remove(key);
+				if (oldTimeout != null) {
+					timingWheel.cancel(oldTimeout);
+				}
+				dataMap.put(key, data);
+				timeoutMap.put(key, timingWheel.schedule(key, timeUnit.toNanos(duration)));
+			}
+			return;
+		}
+
 		if (dataMap.containsKey(key)) {
 			remove(key);
 		}
@@ -66,7 +149,29 @@ public class TimeCache<K, V> {
 	}
 
 	public Object get(K key) {
+		if (timingWheel != null) {
+			synchronized (this) {
+				TimingWheel.Timeout<K> timeout = timeoutMap.get(key);
+				if (timeout == null) {
+					statsCounter.recordMiss(key);
+					return null;
+				}
+				if (!timingWheel.refresh(timeout)) {// 已到期、等待tick线程清理
+					timeoutMap.remove(key);
+					expire(key);
+					statsCounter.recordMiss(key);
+					return null;
+				}
+				statsCounter.recordHit(key);
+				return dataMap.get(key);
+			}
+		}
+
 		CleanTaskInfo cleanTask = cleanTaskInfoMap.get(key);
+		if (cleanTask == null) {
+			return recordAccess(key, dataMap.get(key));
+		}
+
 		Future<?> future = cleanTask.getFuture();
 		if (future != null) {
 			future.cancel(true);
@@ -77,13 +182,45 @@ public class TimeCache<K, V> {
 			cleanTaskInfoMap.put(key, new CleanTaskInfo(future, cleanTask.getDuration(), cleanTask.getTimeUnit()));
 		}
 
-		return dataMap.get(key);
+		return recordAccess(key, dataMap.get(key));
+	}
+
+	private V recordAccess(K key, V value) {
+		if (value != null) {
+			statsCounter.recordHit(key);
+		} else {
+			statsCounter.recordMiss(key);
+		}
+		return value;
+	}
+
+	/**
+	 * 是否包含key(不续期)
+	 */
+	public boolean containsKey(K key) {
+		if (timingWheel != null) {
+			synchronized (this) {
+				return dataMap.containsKey(key);
+			}
+		}
+		return dataMap.containsKey(key);
 	}
 
 	public Object remove(K key) {
 		if (key == null) {
 			return null;
 		}
+
+		if (timingWheel != null) {
+			synchronized (this) {
+				TimingWheel.Timeout<K> timeout = timeoutMap.remove(key);
+				if (timeout != null) {
+					timingWheel.cancel(timeout);
+				}
+				return dataMap.remove(key);
+			}
+		}
+
 		if (!dataMap.containsKey(key)) {
 			return null;
 		}
@@ -98,20 +235,72 @@ public class TimeCache<K, V> {
 		return dataMap.remove(key);
 	}
 
+	/**
+	 * 销毁：时间轮模式下停止tick，之后不再自动清理
+	 */
+	public void destroy() {
+		if (ticker != null) {
+			ticker.cancel(false);
+		}
+	}
+
+	@Override
+	public void setStatsCounter(StatsCounter statsCounter) {
+		this.statsCounter = statsCounter == null ? StatsCounter.DISABLED : statsCounter;
+	}
+
+	@Override
+	public CacheStats stats() {
+		return statsCounter.snapshot();
+	}
+
 	protected Runnable newCleanTask(final K key) {
 		return new Runnable() {
 			@Override
-			@SuppressWarnings("rawtypes")
 			public void run() {
 				// System.out.println("key: " + key + " 已超时!");
-				V value = dataMap.remove(key);
-				// 中断正在执行的任务
-				if (key   instanceof Future) ((Future) key  ).cancel(true);
-				if (value instanceof Future) ((Future) value).cancel(true);
+				expire(key);
 			}
 		};
 	}
 
+	@SuppressWarnings("rawtypes")
+	private void expire(K key) {
+		V value = dataMap.remove(key);
+		if (value != null) {
+			statsCounter.recordExpiration();
+		}
+		// 中断正在执行的任务
+		if (key   instanceof Future) ((Future) key  ).cancel(true);
+		if (value instanceof Future) ((Future) value).cancel(true);
+	}
+
+	/**
+	 * 时间轮tick：推进时间轮并分批清理到期key
+	 */
+	private void expireTimeouts() {
+		List<TimingWheel.Timeout<K>> expired = new ArrayList<TimingWheel.Timeout<K>>();
+		try {
+			timingWheel.advance(expired);
+			for (int from = 0; from < expired.size(); from += EXPIRE_BATCH_SIZE) {
+				int to = Math.min(from + EXPIRE_BATCH_SIZE, expired.size());
+				synchronized (this) {
+					for (int i = from; i < to; i++) {
+						TimingWheel.Timeout<K> timeout = expired.get(i);
+						// 期间可能已被删除或重新put，只清理仍对应本定时项的key
+						if (timeoutMap.get(timeout.item) == timeout) {
+							timeoutMap.remove(timeout.item);
+							expire(timeout.item);
+						}
+					}
+				}
+			}
+		} catch (Throwable e) {
+			// 吞掉异常，避免周期任务被终止
+			e.printStackTrace();
+		}
+	}
+
 	static class CleanTaskInfo {
 		private Future<?> future;
 		private long duration;
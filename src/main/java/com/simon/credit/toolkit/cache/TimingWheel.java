@@ -0,0 +1,247 @@
+package com.simon.credit.toolkit.cache;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import com.simon.credit.toolkit.concurrent.MyReentrantLock;
+
+/**
+ * 分层时间轮(用于缓存过期)
+ * <pre>
+ * 共LEVELS层，每层WHEEL_SIZE个槽，第L层一个槽跨度为 WHEEL_SIZE^L 个tick：
+ *   第0层：距到期不足64个tick的数据，按到期tick直接落槽，到点即过期
+ *   第L层：距到期[64^L, 64^(L+1))个tick的数据，当低L层转满一圈时，整槽降级(cascade)到更低层
+ *   超出最高层范围的数据先落在最高层，降级时按真实到期时间重新落槽
+ *
+ * 1、调度/续期/取消：只需在槽的双向链表上摘除、挂入，O(1)
+ * 2、推进：由外部的单个tick线程调用advance()，一次推进若干tick，批量收集过期数据
+ * 3、过期精度为一个tick，到期时间向上取整
+ *
+ * 非线程安全的数据结构通过一把锁保护，持锁区间只有链表指针操作，不执行任何回调。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+final class TimingWheel<T> {
+
+	private static final int WHEEL_BITS = 6;
+	private static final int WHEEL_SIZE = 1 << WHEEL_BITS;// 64
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+	private static final int LEVELS 	= 4;// 可表达 64^4 = 16777216 个tick
+	private static final long MAX_SPAN  = 1L << (WHEEL_BITS * LEVELS);
+
+	private final long tickNanos;
+	private final long startNanos;
+	private final Bucket<T>[][] wheels;
+	private final Lock lock = new MyReentrantLock();
+
+	/** 当前已推进到的tick */
+	private long currentTick;
+
+	TimingWheel(long tickDuration, TimeUnit unit) {
+		if (tickDuration <= 0) {
+			throw new IllegalArgumentException("Illegal tick duration: " + tickDuration);
+		}
+		this.tickNanos = unit.toNanos(tickDuration);
+		this.startNanos = System.nanoTime();
+		@SuppressWarnings("unchecked")
+		Bucket<T>[][] buckets = (Bucket<T>[][]) new Bucket<?>[LEVELS][WHEEL_SIZE];
+		this.wheels = buckets;
+		for (int level = 0; level < LEVELS; level++) {
+			for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+				wheels[level][slot] = new Bucket<T>();
+			}
+		}
+	}
+
+	long getTickNanos() {
+		return tickNanos;
+	}
+
+	/**
+	 * 调度：delayNanos后过期
+	 */
+	Timeout<T> schedule(T item, long delayNanos) {
+		Timeout<T> timeout = new Timeout<T>(item, delayNanos);
+		lock.lock();
+		try {
+			arm(timeout);
+		} finally {
+			lock.unlock();
+		}
+		return timeout;
+	}
+
+	/**
+	 * 续期：按调度时的延迟重新计算到期时间(O(1)换槽)
+	 * @return false表示已过期或已取消，无法续期
+	 */
+	boolean refresh(Timeout<T> timeout) {
+		lock.lock();
+		try {
+			if (timeout.bucket == null) {
+				return false;
+			}
+			timeout.bucket.unlink(timeout);
+			arm(timeout);
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 取消
+	 * @return false表示已过期或已取消
+	 */
+	boolean cancel(Timeout<T> timeout) {
+		lock.lock();
+		try {
+			if (timeout.bucket == null) {
+				return false;
+			}
+			timeout.bucket.unlink(timeout);
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 推进到当前时间，过期数据追加到expired
+	 */
+	void advance(List<Timeout<T>> expired) {
+		long targetTick = (System.nanoTime() - startNanos) / tickNanos;
+		lock.lock();
+		try {
+			while (currentTick < targetTick) {
+				long tick = ++currentTick;
+
+				// 从高层到低层依次降级：高层降下来的数据可能正好落在本次要降级的低层槽中
+				for (int level = LEVELS - 1; level > 0; level--) {
+					long levelMask = (1L << (WHEEL_BITS * level)) - 1;
+					if ((tick & levelMask) == 0) {
+						cascade(wheels[level][(int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK)], expired);
+					}
+				}
+
+				wheels[0][(int) (tick & WHEEL_MASK)].drainTo(expired);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void cascade(Bucket<T> bucket, List<Timeout<T>> expired) {
+		Timeout<T> timeout = bucket.detachAll();
+		while (timeout != null) {
+			Timeout<T> next = timeout.next;
+			timeout.prev = timeout.next = null;
+			if (timeout.deadlineTick <= currentTick) {
+				expired.add(timeout);
+			} else {
+				place(timeout);
+			}
+			timeout = next;
+		}
+	}
+
+	private void arm(Timeout<T> timeout) {
+		long ticks = (timeout.delayNanos + tickNanos - 1) / tickNanos;// 向上取整
+		timeout.deadlineTick = currentTick + Math.max(1L, ticks);
+		place(timeout);
+	}
+
+	/**
+	 * 按剩余tick数选层落槽(调用方保证deadlineTick > currentTick)
+	 */
+	private void place(Timeout<T> timeout) {
+		long deadline = timeout.deadlineTick;
+		long delta = deadline - currentTick;
+		if (delta >= MAX_SPAN) {// 超出最高层范围，暂按最高层末尾落槽
+			deadline = currentTick + MAX_SPAN - 1;
+			delta = MAX_SPAN - 1;
+		}
+
+		int level = 0;
+		while (delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+			level++;
+		}
+
+		int slot = (int) ((deadline >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+		wheels[level][slot].append(timeout);
+	}
+
+	/**
+	 * 时间轮中的定时项
+	 */
+	static final class Timeout<T> {
+		final T item;
+		final long delayNanos;
+		long deadlineTick;
+		Bucket<T> bucket;
+		Timeout<T> prev, next;
+
+		Timeout(T item, long delayNanos) {
+			this.item = item;
+			this.delayNanos = delayNanos;
+		}
+	}
+
+	/**
+	 * 时间轮槽：定时项双向链表
+	 */
+	private static final class Bucket<T> {
+		Timeout<T> head, tail;
+
+		void append(Timeout<T> timeout) {
+			timeout.bucket = this;
+			timeout.next = null;
+			timeout.prev = tail;
+			if (tail == null) {
+				head = timeout;
+			} else {
+				tail.next = timeout;
+			}
+			tail = timeout;
+		}
+
+		void unlink(Timeout<T> timeout) {
+			if (timeout.prev == null) {
+				head = timeout.next;
+			} else {
+				timeout.prev.next = timeout.next;
+			}
+			if (timeout.next == null) {
+				tail = timeout.prev;
+			} else {
+				timeout.next.prev = timeout.prev;
+			}
+			timeout.prev = timeout.next = null;
+			timeout.bucket = null;
+		}
+
+		/**
+		 * 摘下整条链表(链表内各项的bucket置空，prev/next保留供调用方遍历)
+		 */
+		Timeout<T> detachAll() {
+			Timeout<T> first = head;
+			for (Timeout<T> timeout = first; timeout != null; timeout = timeout.next) {
+				timeout.bucket = null;
+			}
+			head = tail = null;
+			return first;
+		}
+
+		void drainTo(List<Timeout<T>> expired) {
+			Timeout<T> timeout = detachAll();
+			while (timeout != null) {
+				Timeout<T> next = timeout.next;
+				timeout.prev = timeout.next = null;
+				expired.add(timeout);
+				timeout = next;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,274 @@
+package com.simon.credit.toolkit.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+
+import com.simon.credit.toolkit.concurrent.MyReentrantLock;
+import com.simon.credit.toolkit.core.MyLinkedHashMap;
+
+/**
+ * W-TinyLFU缓存
+ * <pre>
+ * LRUCache对一次性扫描(批处理遍历大量只访问一次的key)没有抵抗力：扫描的key会把热点数据全部挤出缓存。
+ * 本实现在分段LRU之前增加一个基于访问频次的准入过滤：
+ *
+ *   put -> [窗口区 window LRU, 约1%] --淘汰的候选者--> 准入过滤(FrequencySketch) --> [主区 SLRU, 约99%]
+ *                                                                                  试用区 probation(约20%)
+ *                                                                                  保护区 protected(约80%)
+ *
+ * 1、新数据先进入窗口区，窗口区满时其最久未访问的数据成为候选者
+ * 2、主区未满则候选者直接进入试用区；否则与试用区最久未访问的数据(受害者)比较估算频次，
+ *    候选者频次更高才能进入主区(受害者被淘汰)，否则候选者被淘汰，一次性扫描的key因此无法挤出热点
+ * 3、试用区的数据再次被访问时晋升到保护区，保护区满时最久未访问的数据降级回试用区
+ * 4、每次get/put都会记录到FrequencySketch，频次周期性减半，热点变化后新热点可以逐渐进入
+ *
+ * 各区均为按访问顺序排序的MyLinkedHashMap，所有操作共用一把MyReentrantLock(与LRUCache一致)。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class TinyLFUCache<K, V> implements Cache<K, V>, CacheStatsProvider {
+
+	private static final float DEFAULT_LOAD_FACTOR  = 0.75f;
+	private static final int   DEFAULT_MAX_CAPACITY = 1000;
+
+	/** 窗口区占比：1% */
+	private static final double WINDOW_RATIO = 0.01;
+
+	/** 保护区占主区的比例：80% */
+	private static final double PROTECTED_RATIO = 0.8;
+
+	private final MyLinkedHashMap<K, V> window;
+	private final MyLinkedHashMap<K, V> probation;
+	private final MyLinkedHashMap<K, V> protectedRegion;
+	private final FrequencySketch sketch;
+
+	private final int maxCapacity;
+	private final int maxWindow;
+	private final int maxMain;
+	private final int maxProtected;
+
+	private final Lock lock = new MyReentrantLock();
+	private volatile StatsCounter statsCounter = StatsCounter.DISABLED;
+
+	public TinyLFUCache() {
+		this(DEFAULT_MAX_CAPACITY);
+	}
+
+	public TinyLFUCache(int maxCapacity) {
+		if (maxCapacity <= 0) {
+			throw new IllegalArgumentException("Illegal max capacity: " + maxCapacity);
+		}
+		this.maxCapacity = maxCapacity;
+		this.maxWindow = Math.max(1, (int) (maxCapacity * WINDOW_RATIO));
+		this.maxMain = maxCapacity - maxWindow;
+		this.maxProtected = (int) (maxMain * PROTECTED_RATIO);
+
+		// 第3个参数设置为true，代表linkedlist按访问顺序排序
+		this.window = new MyLinkedHashMap<K, V>(16, DEFAULT_LOAD_FACTOR, true);
+		this.probation = new MyLinkedHashMap<K, V>(16, DEFAULT_LOAD_FACTOR, true);
+		this.protectedRegion = new MyLinkedHashMap<K, V>(16, DEFAULT_LOAD_FACTOR, true);
+		this.sketch = new FrequencySketch(maxCapacity);
+	}
+
+	/**
+	 * 数据被淘汰后的回调(扩展点)，在缓存锁内调用，实现中不要再访问本缓存
+	 * @param key 被淘汰的key
+	 * @param value 被淘汰的value
+	 */
+	protected void onEviction(K key, V value) {
+		// nothing to do
+	}
+
+	public V get(Object key) {
+		if (key == null) {
+			return null;
+		}
+
+		V value;
+		lock.lock();
+		try {
+			sketch.increment(key);
+			value = access(key);
+		} finally {
+			lock.unlock();
+		}
+
+		if (value != null) {
+			statsCounter.recordHit(key);
+		} else {
+			statsCounter.recordMiss(key);
+		}
+		return value;
+	}
+
+	public V put(K key, V value) {
+		if (key == null) {
+			throw new NullPointerException("key can not be null.");
+		}
+
+		lock.lock();
+		try {
+			sketch.increment(key);
+			if (window.containsKey(key)) {
+				return window.put(key, value);
+			}
+			if (protectedRegion.containsKey(key)) {
+				return protectedRegion.put(key, value);
+			}
+			if (probation.containsKey(key)) {
+				V oldValue = probation.remove(key);
+				promote(key, value);
+				return oldValue;
+			}
+
+			window.put(key, value);
+			if (window.size() > maxWindow) {
+				admit(eldest(window));
+			}
+			return null;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public V remove(Object key) {
+		lock.lock();
+		try {
+			if (window.containsKey(key)) {
+				return window.remove(key);
+			}
+			if (probation.containsKey(key)) {
+				return probation.remove(key);
+			}
+			return protectedRegion.remove(key);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public boolean containsKey(Object key) {
+		lock.lock();
+		try {
+			return window.containsKey(key) || probation.containsKey(key) || protectedRegion.containsKey(key);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int size() {
+		lock.lock();
+		try {
+			return window.size() + probation.size() + protectedRegion.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void clear() {
+		lock.lock();
+		try {
+			window.clear();
+			probation.clear();
+			protectedRegion.clear();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int getMaxCapacity() {
+		return maxCapacity;
+	}
+
+	@Override
+	public void setStatsCounter(StatsCounter statsCounter) {
+		this.statsCounter = statsCounter == null ? StatsCounter.DISABLED : statsCounter;
+	}
+
+	@Override
+	public CacheStats stats() {
+		return statsCounter.snapshot();
+	}
+
+	@Override
+	public String toString() {
+		lock.lock();
+		try {
+			return "{window=" + window + ", probation=" + probation + ", protected=" + protectedRegion + "}";
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 命中时按所在区调整：窗口区和保护区调整访问顺序，试用区晋升到保护区
+	 */
+	private V access(Object key) {
+		V value = window.get(key);
+		if (value != null || window.containsKey(key)) {
+			return value;
+		}
+		value = protectedRegion.get(key);
+		if (value != null || protectedRegion.containsKey(key)) {
+			return value;
+		}
+		if (probation.containsKey(key)) {
+			@SuppressWarnings("unchecked")
+			K k = (K) key;
+			value = probation.remove(key);
+			promote(k, value);
+		}
+		return value;
+	}
+
+	/**
+	 * 试用区数据晋升到保护区，保护区超限时最久未访问的数据降级到试用区
+	 */
+	private void promote(K key, V value) {
+		protectedRegion.put(key, value);
+		if (protectedRegion.size() > maxProtected) {
+			Map.Entry<K, V> demoted = eldest(protectedRegion);
+			protectedRegion.remove(demoted.getKey());
+			probation.put(demoted.getKey(), demoted.getValue());
+		}
+	}
+
+	/**
+	 * 窗口区淘汰的候选者尝试进入主区
+	 */
+	private void admit(Map.Entry<K, V> candidate) {
+		K candidateKey = candidate.getKey();
+		V candidateValue = candidate.getValue();
+		window.remove(candidateKey);
+
+		if (probation.size() + protectedRegion.size() < maxMain) {
+			probation.put(candidateKey, candidateValue);
+			return;
+		}
+
+		Map.Entry<K, V> victim = eldest(probation.isEmpty() ? protectedRegion : probation);
+		if (victim != null && sketch.frequency(candidateKey) > sketch.frequency(victim.getKey())) {
+			K victimKey = victim.getKey();
+			V victimValue = victim.getValue();
+			(probation.containsKey(victimKey) ? probation : protectedRegion).remove(victimKey);
+			probation.put(candidateKey, candidateValue);
+			evicted(victimKey, victimValue);
+		} else {
+			evicted(candidateKey, candidateValue);
+		}
+	}
+
+	private void evicted(K key, V value) {
+		statsCounter.recordEviction();
+		onEviction(key, value);
+	}
+
+	/**
+	 * 最久未访问的数据(链表头部)，为空返回null
+	 */
+	private static <K, V> Map.Entry<K, V> eldest(MyLinkedHashMap<K, V> map) {
+		Iterator<Map.Entry<K, V>> iterator = map.entrySet().iterator();
+		return iterator.hasNext() ? iterator.next() : null;
+	}
+
+}
@@ -0,0 +1,20 @@
+package com.simon.credit.toolkit.cache;
+
+/**
+ * 缓存数据权重计算器
+ * <pre>
+ * 按条数限制容量时，100字节和5MB的数据占用同样的名额，条数上限无法约束堆内存；
+ * 设置Weigher后缓存按权重之和(例如估算的字节数)限制容量。
+ *
+ * 注意：同一key/value多次计算的权重必须相同(缓存在删除时会重新计算权重用于扣减)，且不能为负数。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public interface Weigher<K, V> {
+
+	/**
+	 * 计算数据的权重
+	 */
+	int weigh(K key, V value);
+
+}
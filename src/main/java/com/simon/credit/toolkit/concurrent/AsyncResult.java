@@ -0,0 +1,322 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 可组合的异步结果
+ * <pre>
+ * AsyncTaskHandler.handle返回的Future只能阻塞get，串联两个异步步骤需要一个线程专门等待。
+ * AsyncResult在任务完成时由执行任务的线程直接回调后续步骤，中间不占用任何等待线程：
+ * 1、thenApply：结果转换；thenCompose：串联下一个异步任务
+ * 2、allOf：全部完成后按顺序汇总结果；anyOf：取最先完成的结果
+ * 3、timeout：超时后以TimeoutException完成，并取消(中断)仍在执行的任务(thenApply等派生结果沿用上游任务，
+ *    thenCompose在下一步提交后改为下一步的任务)，定时由共享的单线程调度器完成
+ * 4、fallback：异常(含超时)时返回降级值
+ * 5、异常在链路中透传，回调收到的是原始异常(不是CompletionException包装)
+ *
+ * 底层基于CompletableFuture，可通过toCompletableFuture与其他组件对接。
+ * 注意：同步回调在完成任务的线程中执行，回调中不能有耗时的阻塞操作，耗时步骤应通过thenCompose提交新任务。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public final class AsyncResult<T> {
+
+	/** 超时调度器：单个守护线程，只负责触发超时，不执行业务逻辑 */
+	private static final MyScheduledThreadPoolExecutor TIMER = new MyScheduledThreadPoolExecutor(1, new ThreadFactory() {
+		private AtomicInteger index = new AtomicInteger(0);
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, AsyncResult.class.getName() + "_timer_" + index.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	static {
+		TIMER.setRemoveOnCancelPolicy(true);// 任务按时完成后取消的定时器立即出队
+	}
+
+	private final CompletableFuture<T> future;
+
+	/** 产生该结果的任务，超时或取消时用于中断执行线程，可为null */
+	private volatile Future<?> source;
+
+	private AsyncResult(CompletableFuture<T> future) {
+		this.future = future;
+	}
+
+	/**
+	 * 在线程池中执行任务
+	 */
+	public static <T> AsyncResult<T> supply(final IAsyncTask<T> task, ExecutorService executor) {
+		if (task == null) {
+			throw new NullPointerException("task can not be null.");
+		}
+		final CompletableFuture<T> future = new CompletableFuture<T>();
+		AsyncResult<T> result = new AsyncResult<T>(future);
+		FutureTask<Void> source = new FutureTask<Void>(new Runnable() {
+			@Override
+			public void run() {
+				if (future.isDone()) {// 执行前已超时或被取消
+					return;
+				}
+				try {
+					future.complete(task.call());
+				} catch (Throwable e) {
+					future.completeExceptionally(e);
+				}
+			}
+		}, null) {
+			@Override
+			protected void done() {
+				if (isCancelled()) {// 经派生结果取消时，本结果同样以CancellationException完成
+					future.cancel(false);
+				}
+			}
+		};
+		result.source = source;
+		try {
+			executor.execute(source);
+		} catch (RuntimeException e) {// 线程池拒绝
+			future.completeExceptionally(e);
+		}
+		return result;
+	}
+
+	public static <T> AsyncResult<T> completed(T value) {
+		return new AsyncResult<T>(CompletableFuture.completedFuture(value));
+	}
+
+	public static <T> AsyncResult<T> failed(Throwable error) {
+		CompletableFuture<T> future = new CompletableFuture<T>();
+		future.completeExceptionally(error);
+		return new AsyncResult<T>(future);
+	}
+
+	/**
+	 * 包装已有的CompletableFuture
+	 */
+	public static <T> AsyncResult<T> of(CompletableFuture<T> future) {
+		return new AsyncResult<T>(future);
+	}
+
+	/**
+	 * 全部完成后按输入顺序汇总结果，任一失败则以该异常完成
+	 */
+	public static <T> AsyncResult<List<T>> allOf(final List<AsyncResult<T>> results) {
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[results.size()];
+		for (int i = 0; i < futures.length; i++) {
+			futures[i] = results.get(i).future;
+		}
+		return new AsyncResult<Void>(CompletableFuture.allOf(futures)).thenApply(new Function<Void, List<T>>() {
+			@Override
+			public List<T> apply(Void ignored) {
+				List<T> values = new ArrayList<T>(results.size());
+				for (AsyncResult<T> result : results) {
+					values.add(result.future.join());
+				}
+				return values;
+			}
+		});
+	}
+
+	/**
+	 * 取最先完成的结果(最先完成的是异常则以该异常完成)
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> AsyncResult<T> anyOf(List<AsyncResult<T>> results) {
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[results.size()];
+		for (int i = 0; i < futures.length; i++) {
+			futures[i] = results.get(i).future;
+		}
+		return new AsyncResult<T>((CompletableFuture<T>) (CompletableFuture<?>) CompletableFuture.anyOf(futures));
+	}
+
+	/**
+	 * 结果转换
+	 */
+	public <R> AsyncResult<R> thenApply(Function<? super T, ? extends R> function) {
+		return derive(future.thenApply(function));
+	}
+
+	/**
+	 * 串联下一个异步步骤：下一步的任务提交后，超时或取消改为中断下一步的任务
+	 */
+	public <R> AsyncResult<R> thenCompose(final Function<? super T, AsyncResult<R>> function) {
+		final CompletableFuture<R> composed = new CompletableFuture<R>();
+		final AsyncResult<R> result = derive(composed);
+		future.whenComplete(new BiConsumer<T, Throwable>() {
+			@Override
+			public void accept(T value, Throwable error) {
+				if (error != null) {
+					composed.completeExceptionally(unwrap(error));
+					return;
+				}
+				AsyncResult<R> next;
+				try {
+					next = function.apply(value);
+				} catch (Throwable e) {
+					composed.completeExceptionally(e);
+					return;
+				}
+				result.source = next.source;
+				if (composed.isDone()) {// 下一步提交前已超时或被取消
+					next.cancel(true);
+					return;
+				}
+				next.future.whenComplete(new BiConsumer<R, Throwable>() {
+					@Override
+					public void accept(R nextValue, Throwable nextError) {
+						if (nextError == null) {
+							composed.complete(nextValue);
+						} else {
+							composed.completeExceptionally(unwrap(nextError));
+						}
+					}
+				});
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * 完成时回调(value和error有且只有一个不为null，成功且结果为null时两者都为null)
+	 */
+	public AsyncResult<T> whenComplete(final BiConsumer<? super T, ? super Throwable> action) {
+		return derive(future.whenComplete(new BiConsumer<T, Throwable>() {
+			@Override
+			public void accept(T value, Throwable error) {
+				action.accept(value, unwrap(error));
+			}
+		}));
+	}
+
+	/**
+	 * 异常时根据异常计算降级值
+	 */
+	public AsyncResult<T> fallback(final Function<Throwable, ? extends T> function) {
+		return derive(future.exceptionally(new Function<Throwable, T>() {
+			@Override
+			public T apply(Throwable error) {
+				return function.apply(unwrap(error));
+			}
+		}));
+	}
+
+	/**
+	 * 异常时返回固定的降级值
+	 */
+	public AsyncResult<T> fallback(final T value) {
+		return fallback(new Function<Throwable, T>() {
+			@Override
+			public T apply(Throwable error) {
+				return value;
+			}
+		});
+	}
+
+	/**
+	 * 超时：到期仍未完成时以TimeoutException完成，并取消产生该结果的任务
+	 */
+	public AsyncResult<T> timeout(final long timeout, final TimeUnit unit) {
+		final CompletableFuture<T> timed = new CompletableFuture<T>();
+		final AsyncResult<T> result = derive(timed);
+
+		final ScheduledFuture<?> timer = TIMER.schedule(new Runnable() {
+			@Override
+			public void run() {
+				if (timed.completeExceptionally(new TimeoutException("Timeout after " + timeout + " " + unit))) {
+					cancel(true);
+				}
+			}
+		}, timeout, unit);
+
+		future.whenComplete(new BiConsumer<T, Throwable>() {
+			@Override
+			public void accept(T value, Throwable error) {
+				timer.cancel(false);
+				if (error == null) {
+					timed.complete(value);
+				} else {
+					timed.completeExceptionally(unwrap(error));
+				}
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * 派生结果沿用产生本结果的任务，派生结果超时或取消时同样中断该任务
+	 */
+	private <R> AsyncResult<R> derive(CompletableFuture<R> derived) {
+		AsyncResult<R> result = new AsyncResult<R>(derived);
+		result.source = source;
+		return result;
+	}
+
+	/**
+	 * 取消：以CancellationException完成，mayInterruptIfRunning为true时中断执行中的任务
+	 */
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		boolean cancelled = future.cancel(mayInterruptIfRunning);
+		Future<?> task = source;
+		if (task != null) {
+			task.cancel(mayInterruptIfRunning);
+		}
+		return cancelled;
+	}
+
+	public boolean isDone() {
+		return future.isDone();
+	}
+
+	public boolean isCompletedExceptionally() {
+		return future.isCompletedExceptionally();
+	}
+
+	/**
+	 * 阻塞等待结果(仅用于链路末端，例如最外层的请求处理线程)
+	 */
+	public T get() throws InterruptedException, ExecutionException {
+		return future.get();
+	}
+
+	public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+		return future.get(timeout, unit);
+	}
+
+	public CompletableFuture<T> toCompletableFuture() {
+		return future;
+	}
+
+	/**
+	 * 去掉CompletableFuture链路中的CompletionException包装
+	 */
+	private static Throwable unwrap(Throwable error) {
+		while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+			error = error.getCause();
+		}
+		return error;
+	}
+
+	@Override
+	public String toString() {
+		return "AsyncResult{done=" + future.isDone() + ", completedExceptionally=" + future.isCompletedExceptionally() + "}";
+	}
+
+}
@@ -1,5 +1,7 @@
 package com.simon.credit.toolkit.concurrent;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * 异步任务
  * @author XUZIMING 2020-03-29
@@ -18,4 +20,13 @@ public abstract class AsyncTask<T> implements IAsyncTask<T> {
 	 */
 	protected abstract T execute();
 
+	/**
+	 * 提交到线程池异步执行
+	 * @param executor 线程池
+	 * @return 可组合的异步结果
+	 */
+	public AsyncResult<T> executeAsync(ExecutorService executor) {
+		return AsyncResult.supply(this, executor);
+	}
+
 }
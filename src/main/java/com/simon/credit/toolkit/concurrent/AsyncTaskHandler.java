@@ -1,9 +1,19 @@
 package com.simon.credit.toolkit.concurrent;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.simon.credit.toolkit.concurrent.GatherResult.TaskOutcome;
+import com.simon.credit.toolkit.concurrent.GatherResult.TaskState;
 
 /**
  * 异步任务处理器
@@ -15,65 +25,169 @@ public class AsyncTaskHandler<T> {
 	// private static final ForkJoinPool EXECUTOR = new ForkJoinPool(20);
 
 	/**
-	 * 线程池里有很多线程需要同时执行，旧的可用线程将被新的任务触发重新执行，如果线程超过60秒内没执行，那么将被终止并从池中删除
+	 * JDK21+：每个任务一个虚拟线程，I/O突发时不会创建成千上万个OS线程；
+	 * JDK21以下：缓存线程池，旧的可用线程将被新的任务触发重新执行，如果线程超过60秒内没执行，那么将被终止并从池中删除
 	 */
-	private static final ExecutorService EXECUTOR = OptimizedThreadPool.jdkCachedThreadPool();
+	private static final ExecutorService EXECUTOR = OptimizedThreadPool.virtualThreadPerTaskExecutor();
 	// private static final ExecutorService EXECUTOR = OptimizedThreadPool.newCachedThreadPool(16, 1024);
 	// private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool();
 
+	private final ExecutorService executor;
+
+	public AsyncTaskHandler() {
+		this(EXECUTOR);
+	}
+
+	/**
+	 * @param executor 执行任务的线程池
+	 */
+	public AsyncTaskHandler(ExecutorService executor) {
+		if (executor == null) {
+			throw new NullPointerException("executor can not be null.");
+		}
+		this.executor = executor;
+	}
+
 	public Future<T> handle(IAsyncTask<T> task) {
-		return EXECUTOR.submit(task);
+		return executor.submit(task);
+	}
+
+	/**
+	 * 异步处理任务，返回可组合的异步结果(不需要线程阻塞等待)
+	 */
+	public AsyncResult<T> handleAsync(IAsyncTask<T> task) {
+		return AsyncResult.supply(task, executor);
+	}
+
+	/**
+	 * 异步处理任务列表(例如AsyncTaskBuilder.buildAsList的结果)，全部完成后按任务顺序汇总结果
+	 */
+	public AsyncResult<List<T>> handleAllAsync(List<? extends IAsyncTask<T>> tasks) {
+		List<AsyncResult<T>> results = new ArrayList<AsyncResult<T>>(tasks.size());
+		for (IAsyncTask<T> task : tasks) {
+			results.add(handleAsync(task));
+		}
+		return AsyncResult.allOf(results);
 	}
 
 	/**
 	 * 同步处理任务列表
 	 * @param tasks
-	 * @return
+	 * @return 按任务顺序排列的结果，失败的任务结果为null
 	 */
 	public List<T> syncHandle(List<IAsyncTask<T>> tasks) {
-		long start = System.currentTimeMillis();
-		FastFailCountDownLatch latch = new FastFailCountDownLatch(tasks.size());
-		List<Future<T>> futures = new ArrayList<Future<T>>(10);
+		GatherResult<T> gathered = scatterGather(tasks, Long.MAX_VALUE, TimeUnit.NANOSECONDS, false);
+
+		List<T> results = new ArrayList<T>(tasks.size());
+		for (TaskOutcome<T> outcome : gathered.getOutcomes()) {
+			results.add(outcome.getResult());
+		}
+		return results;
+	}
+
+	/**
+	 * 分发-汇总：并发执行所有任务，在截止时间内按完成顺序收集结果，任一任务失败时取消其余任务
+	 * @param tasks 任务列表
+	 * @param timeout 总超时时间(所有任务共用一个截止时间)
+	 * @param unit 时间单位
+	 * @return 每个任务的最终状态
+	 */
+	public GatherResult<T> scatterGather(List<? extends IAsyncTask<T>> tasks, long timeout, TimeUnit unit) {
+		return scatterGather(tasks, timeout, unit, true);
+	}
+
+	/**
+	 * 分发-汇总
+	 * <pre>
+	 * 1、所有任务提交到线程池后，通过CompletionService按完成顺序收集结果，而不是按列表顺序逐个阻塞get
+	 * 2、截止时间到达时仍未完成的任务被取消(中断执行线程)，状态为TIMED_OUT，不再占用线程池线程
+	 * 3、failFast为true时，第一个任务失败后立即取消其余未完成的任务，状态为CANCELLED
+	 * 4、等待线程被中断时取消所有未完成的任务并恢复中断标志
+	 * </pre>
+	 * @param tasks 任务列表
+	 * @param timeout 总超时时间(所有任务共用一个截止时间)
+	 * @param unit 时间单位
+	 * @param failFast 任一任务失败时是否取消其余任务
+	 * @return 每个任务的最终状态
+	 */
+	@SuppressWarnings("unchecked")
+	public GatherResult<T> scatterGather(List<? extends IAsyncTask<T>> tasks, long timeout, TimeUnit unit, boolean failFast) {
+		final long start = System.nanoTime();
+		final long timeoutNanos = unit.toNanos(timeout);
+
+		int taskCount = tasks.size();
+		TaskOutcome<T>[] outcomes = (TaskOutcome<T>[]) new TaskOutcome<?>[taskCount];
+		List<TaskOutcome<T>> completionOrder = new ArrayList<TaskOutcome<T>>(taskCount);
 
-		for (IAsyncTask task : tasks) {
+		CompletionService<T> completionService = new ExecutorCompletionService<T>(executor);
+		Map<Future<T>, Integer> running = new HashMap<Future<T>, Integer>(taskCount * 4 / 3 + 1);
+		boolean aborted = false;
+
+		int submitted = 0;
+		for (; submitted < taskCount && !aborted; submitted++) {
 			try {
-				Future<T> future = handle(task);
-				futures.add(future);
-			} catch (Exception e) {
-				e.printStackTrace();
-				latch.occurException(e);
-			} finally {
-				latch.countDown();
+				running.put(completionService.submit(tasks.get(submitted)), submitted);
+			} catch (RuntimeException e) {// 线程池拒绝
+				record(outcomes, completionOrder, new TaskOutcome<T>(submitted, TaskState.FAILED, null, e, System.nanoTime() - start));
+				aborted = failFast;
 			}
 		}
 
+		boolean interrupted = false;
 		try {
-			latch.await();
+			while (!running.isEmpty() && !aborted) {
+				long remaining = timeoutNanos - (System.nanoTime() - start);
+				if (remaining <= 0) {
+					break;
+				}
+				Future<T> future = completionService.poll(remaining, TimeUnit.NANOSECONDS);
+				if (future == null) {
+					break;// 截止时间到达
+				}
+
+				int index = running.remove(future);
+				TaskOutcome<T> outcome;
+				try {
+					outcome = new TaskOutcome<T>(index, TaskState.SUCCEEDED, future.get(), null, System.nanoTime() - start);
+				} catch (ExecutionException e) {
+					outcome = new TaskOutcome<T>(index, TaskState.FAILED, null, e.getCause(), System.nanoTime() - start);
+					aborted = failFast;
+				} catch (CancellationException e) {// 任务被外部取消
+					outcome = new TaskOutcome<T>(index, TaskState.CANCELLED, null, null, System.nanoTime() - start);
+				}
+				record(outcomes, completionOrder, outcome);
+			}
 		} catch (InterruptedException e) {
-			e.printStackTrace();
+			interrupted = true;
 		}
 
-		List<T> results = new ArrayList<T>(10);
-		for (Future<T> future : futures) {
-			try {
-				T result = future.get();
-				results.add(result);
-			} catch (Exception e) {
-				e.printStackTrace();
-				results.add(null);
-			}
+		// 取消未完成的任务，释放线程池线程
+		TaskState unfinishedState = (aborted || interrupted) ? TaskState.CANCELLED : TaskState.TIMED_OUT;
+		for (Map.Entry<Future<T>, Integer> entry : running.entrySet()) {
+			entry.getKey().cancel(true);
+			record(outcomes, completionOrder, new TaskOutcome<T>(entry.getValue(), unfinishedState, null, null, System.nanoTime() - start));
+		}
+		// 快速失败时未提交的任务
+		for (int index = submitted; index < taskCount; index++) {
+			record(outcomes, completionOrder, new TaskOutcome<T>(index, TaskState.CANCELLED, null, null, System.nanoTime() - start));
 		}
 
-		long end = System.currentTimeMillis();
-		System.out.println("sync handle tasks waste time: " + (end - start));
-		return results;
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		return new GatherResult<T>(outcomes, completionOrder, System.nanoTime() - start);
+	}
+
+	private void record(TaskOutcome<T>[] outcomes, List<TaskOutcome<T>> completionOrder, TaskOutcome<T> outcome) {
+		outcomes[outcome.getIndex()] = outcome;
+		completionOrder.add(outcome);
 	}
 
 	/**
 	 * 销毁
 	 */
 	public void destroy() {
-		EXECUTOR.shutdown();
+		executor.shutdown();
 	}
 
-}
\ No newline at end of file
+}
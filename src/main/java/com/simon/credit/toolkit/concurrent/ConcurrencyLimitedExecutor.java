@@ -0,0 +1,149 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限制并发数的线程池包装
+ * <pre>
+ * 任务提交后立即交给底层线程池，在执行线程内先获取信号量许可，执行完释放：
+ * 1、提交线程从不阻塞，超出并发数的任务在各自的线程内排队等待许可(公平信号量，先提交先执行)
+ * 2、适用于每个任务一个虚拟线程的线程池：等待许可的虚拟线程不占用载体线程；
+ *    不适用于平台线程池，等待许可的任务会占住平台线程
+ * 3、已提交未开始执行(含等待许可)的任务记录在waiting中：shutdownNow先认领这些任务并返回原始任务，再中断底层线程池，
+ *    被认领的任务不再执行，由调用方处理
+ * 4、等待许可时被其他原因中断的任务：Future(submit/invokeAll创建)直接取消，保证get()不会永远阻塞；
+ *    普通Runnable不可中断地等待许可后执行，中断标记保留给任务自己处理
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+final class ConcurrencyLimitedExecutor extends MyAbstractExecutorService {
+
+	private final ExecutorService delegate;
+	private final MySemaphore permits;
+	private final int maxConcurrency;
+
+	/** 已提交、还未开始执行的任务 */
+	private final Set<LimitedTask> waiting = ConcurrentHashMap.newKeySet();
+
+	ConcurrencyLimitedExecutor(ExecutorService delegate, int maxConcurrency) {
+		this.delegate = delegate;
+		this.permits = new MySemaphore(maxConcurrency, true);
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	@Override
+	public void execute(final Runnable task) {
+		if (task == null) {
+			throw new NullPointerException("task can not be null.");
+		}
+		LimitedTask limitedTask = new LimitedTask(task);
+		waiting.add(limitedTask);
+		try {
+			delegate.execute(limitedTask);
+		} catch (RejectedExecutionException e) {
+			waiting.remove(limitedTask);
+			throw e;
+		}
+	}
+
+	/**
+	 * 在执行线程内获取许可后执行原始任务
+	 */
+	private final class LimitedTask implements Runnable {
+		private final Runnable task;
+
+		LimitedTask(Runnable task) {
+			this.task = task;
+		}
+
+		@Override
+		public void run() {
+			boolean interrupted = false;
+			try {
+				permits.acquire();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+
+			if (interrupted) {
+				if (!waiting.remove(this)) {// 已被shutdownNow认领
+					Thread.currentThread().interrupt();
+					return;
+				}
+				if (task instanceof Future<?>) {
+					((Future<?>) task).cancel(false);
+					Thread.currentThread().interrupt();
+					return;
+				}
+				permits.acquireUninterruptibly();
+				Thread.currentThread().interrupt();
+			} else if (!waiting.remove(this)) {// 等待许可期间被shutdownNow认领
+				permits.release();
+				return;
+			}
+
+			try {
+				task.run();
+			} finally {
+				permits.release();
+			}
+		}
+	}
+
+	/**
+	 * 同时执行的最大任务数
+	 */
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	@Override
+	public void shutdown() {
+		delegate.shutdown();
+	}
+
+	/**
+	 * 先认领所有未开始执行的任务，再中断底层线程池
+	 * @return 未开始执行的原始任务
+	 */
+	@Override
+	public List<Runnable> shutdownNow() {
+		delegate.shutdown();// 先停止接收新任务，之后waiting只减不增
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		for (LimitedTask limitedTask : waiting) {
+			if (waiting.remove(limitedTask)) {
+				tasks.add(limitedTask.task);
+			}
+		}
+		delegate.shutdownNow();// 返回的包装任务已在上面认领
+		return tasks;
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return delegate.isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return delegate.isTerminated();
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return delegate.awaitTermination(timeout, unit);
+	}
+
+	@Override
+	public String toString() {
+		return "ConcurrencyLimitedExecutor{maxConcurrency=" + maxConcurrency + ", delegate=" + delegate + "}";
+	}
+
+}
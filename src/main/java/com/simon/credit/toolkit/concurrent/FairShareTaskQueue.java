@@ -0,0 +1,538 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+
+import com.simon.credit.toolkit.core.MyBlockingQueue;
+
+/**
+ * 多租户公平调度队列(加权差额轮询, Deficit Round Robin)
+ * <pre>
+ * 线程池只有一个FIFO队列时，一个租户瞬间提交大量任务就会排在其他租户前面，其他租户的延迟敏感任务被饿死。
+ * 本队列按key(租户或优先级)拆分为多个子队列，作为MyThreadPoolExecutor的工作队列使用：
+ * 1、每个key有自己的权重(weight)和容量(capacity)，子队列满时只拒绝该key的任务，不影响其他key
+ * 2、出队按差额轮询：有任务的key组成轮询环，轮到某个key时额度(deficit)增加weight，每取出一个任务额度减一，
+ *    额度用完或子队列为空时轮到下一个key。积压时各key按weight比例分享线程，空闲key的份额自动分给其他key
+ * 3、每个key可以设置自己的拒绝策略，未设置时使用线程池的拒绝策略
+ * 4、通过MyThreadPoolExecutor.executeKeyed(key, task)/submitKeyed(key, task)提交，普通execute提交的任务归入DEFAULT_KEY
+ * 未配置的key在第一次提交时按默认权重和容量自动创建，key应当是有限的集合(租户、优先级)，不要用请求ID之类的值。
+ * 所有操作在一把锁内完成，出队入队都是O(1)。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class FairShareTaskQueue extends AbstractQueue<Runnable> implements MyBlockingQueue<Runnable> {
+
+	/** 没有指定key的任务归入该key */
+	public static final String DEFAULT_KEY = "default";
+
+	private static final int DEFAULT_WEIGHT = 1;
+	private static final int DEFAULT_CAPACITY = 1024;
+
+	private final int defaultWeight;
+	private final int defaultCapacity;
+
+	private final MyReentrantLock lock = new MyReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
+	private final Condition notFull = lock.newCondition();
+
+	/** 所有key(按创建顺序) */
+	private final Map<Object, Tenant> tenants = new LinkedHashMap<Object, Tenant>();
+	/** 有任务的key组成的轮询环，队首是当前轮到的key */
+	private final ArrayDeque<Tenant> active = new ArrayDeque<Tenant>();
+	private int count;
+
+	/**
+	 * 带key的任务
+	 */
+	static final class KeyedTask implements Runnable {
+		final Object key;
+		final Runnable task;
+
+		KeyedTask(Object key, Runnable task) {
+			this.key = key;
+			this.task = task;
+		}
+
+		@Override
+		public void run() {
+			task.run();
+		}
+
+		@Override
+		public String toString() {
+			return task.toString();
+		}
+	}
+
+	/**
+	 * 一个key的子队列，所有字段在锁内读写
+	 */
+	private static final class Tenant {
+		private final Object key;
+		private int weight;
+		private int capacity;
+		private MyRejectedExecutionHandler handler;
+		private final ArrayDeque<Runnable> queue = new ArrayDeque<Runnable>();
+
+		/** 本轮剩余额度 */
+		private int deficit;
+		/** 本轮是否已经发放过额度 */
+		private boolean inTurn;
+
+		private long dispatched;
+		private long rejected;
+
+		Tenant(Object key, int weight, int capacity, MyRejectedExecutionHandler handler) {
+			this.key = key;
+			this.weight = weight;
+			this.capacity = capacity;
+			this.handler = handler;
+		}
+
+		@Override
+		public String toString() {
+			return key + "{weight=" + weight + ", capacity=" + capacity + ", queued=" + queue.size() + ", dispatched="
+				+ dispatched + ", rejected=" + rejected + "}";
+		}
+	}
+
+	public FairShareTaskQueue() {
+		this(DEFAULT_WEIGHT, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param defaultWeight 未配置的key的权重
+	 * @param defaultCapacity 未配置的key的子队列容量
+	 */
+	public FairShareTaskQueue(int defaultWeight, int defaultCapacity) {
+		checkWeightAndCapacity(defaultWeight, defaultCapacity);
+		this.defaultWeight = defaultWeight;
+		this.defaultCapacity = defaultCapacity;
+	}
+
+	private static void checkWeightAndCapacity(int weight, int capacity) {
+		if (weight <= 0 || capacity <= 0) {
+			throw new IllegalArgumentException("weight and capacity must be positive: weight=" + weight + ", capacity=" + capacity);
+		}
+	}
+
+	/**
+	 * 配置key的权重和容量(可以在运行中调整，已排队的任务不受影响)
+	 */
+	public FairShareTaskQueue setTenant(Object key, int weight, int capacity) {
+		return setTenant(key, weight, capacity, null);
+	}
+
+	/**
+	 * 配置key的权重、容量和拒绝策略
+	 * @param handler 子队列已满时的拒绝策略，为null时使用线程池的拒绝策略
+	 */
+	public FairShareTaskQueue setTenant(Object key, int weight, int capacity, MyRejectedExecutionHandler handler) {
+		if (key == null) {
+			throw new NullPointerException("key can not be null.");
+		}
+		checkWeightAndCapacity(weight, capacity);
+		lock.lock();
+		try {
+			Tenant tenant = tenants.get(key);
+			if (tenant == null) {
+				tenants.put(key, new Tenant(key, weight, capacity, handler));
+			} else {
+				tenant.weight = weight;
+				tenant.capacity = capacity;
+				tenant.handler = handler;
+				notFull.signalAll();
+			}
+			return this;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// ===================== 任务的key =====================
+
+	static Object keyOf(Object task) {
+		if (task instanceof MyThreadPoolExecutor.TimedTask) {
+			task = ((MyThreadPoolExecutor.TimedTask) task).task;
+		}
+		return task instanceof KeyedTask ? ((KeyedTask) task).key : DEFAULT_KEY;
+	}
+
+	private Tenant tenantOf(Object task) {
+		Object key = keyOf(task);
+		Tenant tenant = tenants.get(key);
+		if (tenant == null) {
+			tenant = new Tenant(key, defaultWeight, defaultCapacity, null);
+			tenants.put(key, tenant);
+		}
+		return tenant;
+	}
+
+	/**
+	 * 任务被线程池拒绝时调用：记录该key的拒绝次数，返回该key的拒绝策略(未设置时为null)
+	 */
+	MyRejectedExecutionHandler onRejected(Runnable task) {
+		lock.lock();
+		try {
+			Tenant tenant = tenantOf(task);
+			tenant.rejected++;
+			return tenant.handler;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// ===================== 入队/出队(在锁内调用) =====================
+
+	private boolean enqueue(Tenant tenant, Runnable task) {
+		if (tenant.queue.size() >= tenant.capacity) {
+			return false;
+		}
+		if (tenant.queue.isEmpty()) {
+			active.addLast(tenant);
+		}
+		tenant.queue.addLast(task);
+		count++;
+		notEmpty.signal();
+		return true;
+	}
+
+	/**
+	 * 差额轮询取出下一个任务
+	 * @param dispatch 是否交给工作线程执行(drainTo移出的任务不计入出队数)
+	 */
+	private Runnable dequeue(boolean dispatch) {
+		Tenant tenant = active.peekFirst();
+		if (tenant == null) {
+			return null;
+		}
+		if (!tenant.inTurn) {
+			tenant.deficit += tenant.weight;
+			tenant.inTurn = true;
+		}
+		boolean wasFull = tenant.queue.size() >= tenant.capacity;
+		Runnable task = tenant.queue.pollFirst();
+		tenant.deficit--;
+		if (dispatch) {
+			tenant.dispatched++;
+		}
+		count--;
+
+		if (tenant.queue.isEmpty()) {// 没有任务的key不保留额度
+			active.pollFirst();
+			tenant.deficit = 0;
+			tenant.inTurn = false;
+		} else if (tenant.deficit <= 0) {// 额度用完，轮到下一个key
+			active.pollFirst();
+			active.addLast(tenant);
+			tenant.inTurn = false;
+		}
+		if (wasFull) {
+			notFull.signalAll();
+		}
+		return task;
+	}
+
+	private Runnable first() {
+		Tenant tenant = active.peekFirst();
+		return tenant == null ? null : tenant.queue.peekFirst();
+	}
+
+	// ===================== BlockingQueue =====================
+
+	@Override
+	public boolean offer(Runnable task) {
+		if (task == null) {
+			throw new NullPointerException();
+		}
+		lock.lock();
+		try {
+			return enqueue(tenantOf(task), task);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean offer(Runnable task, long timeout, TimeUnit unit) throws InterruptedException {
+		if (task == null) {
+			throw new NullPointerException();
+		}
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			Tenant tenant = tenantOf(task);
+			while (!enqueue(tenant, task)) {
+				if (nanos <= 0) {
+					return false;
+				}
+				nanos = notFull.awaitNanos(nanos);
+			}
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void put(Runnable task) throws InterruptedException {
+		if (task == null) {
+			throw new NullPointerException();
+		}
+		lock.lockInterruptibly();
+		try {
+			Tenant tenant = tenantOf(task);
+			while (!enqueue(tenant, task)) {
+				notFull.await();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public Runnable poll() {
+		lock.lock();
+		try {
+			return dequeue(true);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			while (count == 0) {
+				if (nanos <= 0) {
+					return null;
+				}
+				nanos = notEmpty.awaitNanos(nanos);
+			}
+			return dequeue(true);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public Runnable take() throws InterruptedException {
+		lock.lockInterruptibly();
+		try {
+			while (count == 0) {
+				notEmpty.await();
+			}
+			return dequeue(true);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public Runnable peek() {
+		lock.lock();
+		try {
+			return first();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public int size() {
+		lock.lock();
+		try {
+			return count;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 各key剩余容量之和(未创建的key不计入)
+	 */
+	@Override
+	public int remainingCapacity() {
+		lock.lock();
+		try {
+			long remaining = 0;
+			for (Tenant tenant : tenants.values()) {
+				remaining += tenant.capacity - tenant.queue.size();
+			}
+			return (int) Math.min(Integer.MAX_VALUE, Math.max(0, remaining));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 移除任务，o可以是队列中的元素，也可以是被TimedTask/KeyedTask包装的原始任务
+	 */
+	@Override
+	public boolean remove(Object o) {
+		if (o == null) {
+			return false;
+		}
+		lock.lock();
+		try {
+			for (Tenant tenant : tenants.values()) {
+				for (Iterator<Runnable> iterator = tenant.queue.iterator(); iterator.hasNext();) {
+					Runnable queued = iterator.next();
+					if (queued == o || MyThreadPoolExecutor.unwrap(queued) == o) {
+						iterator.remove();
+						count--;
+						if (tenant.queue.isEmpty()) {
+							active.remove(tenant);
+							tenant.deficit = 0;
+							tenant.inTurn = false;
+						}
+						notFull.signalAll();
+						return true;
+					}
+				}
+			}
+			return false;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public int drainTo(Collection<? super Runnable> c) {
+		return drainTo(c, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public int drainTo(Collection<? super Runnable> c, int maxElements) {
+		if (c == null) {
+			throw new NullPointerException();
+		}
+		if (c == this) {
+			throw new IllegalArgumentException();
+		}
+		lock.lock();
+		try {
+			int n = 0;
+			Runnable task;
+			while (n < maxElements && (task = dequeue(false)) != null) {
+				c.add(task);
+				n++;
+			}
+			return n;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 快照迭代器，remove通过remove(Object)完成
+	 */
+	@Override
+	public Iterator<Runnable> iterator() {
+		final List<Runnable> snapshot = new ArrayList<Runnable>();
+		lock.lock();
+		try {
+			for (Tenant tenant : tenants.values()) {
+				snapshot.addAll(tenant.queue);
+			}
+		} finally {
+			lock.unlock();
+		}
+		return new Iterator<Runnable>() {
+			private int cursor;
+			private Runnable last;
+
+			@Override
+			public boolean hasNext() {
+				return cursor < snapshot.size();
+			}
+
+			@Override
+			public Runnable next() {
+				if (cursor >= snapshot.size()) {
+					throw new NoSuchElementException();
+				}
+				last = snapshot.get(cursor++);
+				return last;
+			}
+
+			@Override
+			public void remove() {
+				if (last == null) {
+					throw new IllegalStateException();
+				}
+				FairShareTaskQueue.this.remove(last);
+				last = null;
+			}
+		};
+	}
+
+	// ===================== 统计 =====================
+
+	/**
+	 * 所有key(按创建顺序)
+	 */
+	public List<Object> getKeys() {
+		lock.lock();
+		try {
+			return new ArrayList<Object>(tenants.keySet());
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/** key当前排队的任务数 */
+	public int getQueuedCount(Object key) {
+		lock.lock();
+		try {
+			Tenant tenant = tenants.get(key);
+			return tenant == null ? 0 : tenant.queue.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/** key已出队(交给工作线程)的任务数 */
+	public long getDispatchedCount(Object key) {
+		lock.lock();
+		try {
+			Tenant tenant = tenants.get(key);
+			return tenant == null ? 0 : tenant.dispatched;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/** key被线程池拒绝的任务数 */
+	public long getRejectedCount(Object key) {
+		lock.lock();
+		try {
+			Tenant tenant = tenants.get(key);
+			return tenant == null ? 0 : tenant.rejected;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public String toString() {
+		lock.lock();
+		try {
+			return "FairShareTaskQueue" + tenants.values();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+}
@@ -0,0 +1,163 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分发-汇总(scatter-gather)结果
+ * <pre>
+ * 区分每个任务的最终状态：
+ * 1、SUCCEEDED：在截止时间前执行成功
+ * 2、FAILED：执行时抛出异常(或提交被线程池拒绝)
+ * 3、TIMED_OUT：截止时间到达时仍未完成，已被取消(中断)
+ * 4、CANCELLED：快速失败模式下因其他任务失败而被取消，或等待线程被中断
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public final class GatherResult<T> {
+
+	/** 任务最终状态 */
+	public enum TaskState {
+		SUCCEEDED, FAILED, TIMED_OUT, CANCELLED
+	}
+
+	/**
+	 * 单个任务的结果
+	 */
+	public static final class TaskOutcome<T> {
+		private final int index;
+		private final TaskState state;
+		private final T result;
+		private final Throwable error;
+		private final long completedNanos;
+
+		TaskOutcome(int index, TaskState state, T result, Throwable error, long completedNanos) {
+			this.index = index;
+			this.state = state;
+			this.result = result;
+			this.error = error;
+			this.completedNanos = completedNanos;
+		}
+
+		/** 任务在提交列表中的序号 */
+		public int getIndex() {
+			return index;
+		}
+
+		public TaskState getState() {
+			return state;
+		}
+
+		public boolean isSuccess() {
+			return state == TaskState.SUCCEEDED;
+		}
+
+		/** 执行结果，非SUCCEEDED时为null */
+		public T getResult() {
+			return result;
+		}
+
+		/** 任务抛出的异常，仅FAILED时不为null */
+		public Throwable getError() {
+			return error;
+		}
+
+		/** 从开始分发到该任务得出结果(或被取消)的耗时 */
+		public long getCompletedNanos() {
+			return completedNanos;
+		}
+
+		@Override
+		public String toString() {
+			return "TaskOutcome{index=" + index + ", state=" + state + ", result=" + result
+				+ (error == null ? "" : ", error=" + error) + ", completedMillis=" + completedNanos / 1000000 + "}";
+		}
+	}
+
+	private final List<TaskOutcome<T>> outcomes;
+	private final List<TaskOutcome<T>> completionOrder;
+	private final long elapsedNanos;
+
+	GatherResult(TaskOutcome<T>[] outcomes, List<TaskOutcome<T>> completionOrder, long elapsedNanos) {
+		this.outcomes = Collections.unmodifiableList(Arrays.asList(outcomes));
+		this.completionOrder = Collections.unmodifiableList(completionOrder);
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * 所有任务的结果，按提交顺序排列
+	 */
+	public List<TaskOutcome<T>> getOutcomes() {
+		return outcomes;
+	}
+
+	/**
+	 * 所有任务的结果，按得出结果的先后顺序排列(超时和取消的任务排在最后)
+	 */
+	public List<TaskOutcome<T>> getCompletionOrder() {
+		return completionOrder;
+	}
+
+	/**
+	 * 成功任务的结果值，按完成顺序排列
+	 */
+	public List<T> getResults() {
+		List<T> results = new ArrayList<T>(completionOrder.size());
+		for (TaskOutcome<T> outcome : completionOrder) {
+			if (outcome.isSuccess()) {
+				results.add(outcome.getResult());
+			}
+		}
+		return results;
+	}
+
+	public List<TaskOutcome<T>> getSucceeded() {
+		return filter(TaskState.SUCCEEDED);
+	}
+
+	public List<TaskOutcome<T>> getFailed() {
+		return filter(TaskState.FAILED);
+	}
+
+	public List<TaskOutcome<T>> getTimedOut() {
+		return filter(TaskState.TIMED_OUT);
+	}
+
+	public List<TaskOutcome<T>> getCancelled() {
+		return filter(TaskState.CANCELLED);
+	}
+
+	public boolean isAllSucceeded() {
+		for (TaskOutcome<T> outcome : outcomes) {
+			if (!outcome.isSuccess()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public long getElapsed(TimeUnit unit) {
+		return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+	}
+
+	private List<TaskOutcome<T>> filter(TaskState state) {
+		List<TaskOutcome<T>> filtered = new ArrayList<TaskOutcome<T>>();
+		for (TaskOutcome<T> outcome : completionOrder) {
+			if (outcome.getState() == state) {
+				filtered.add(outcome);
+			}
+		}
+		return filtered;
+	}
+
+	@Override
+	public String toString() {
+		return "GatherResult{tasks=" + outcomes.size() + ", succeeded=" + getSucceeded().size() + ", failed=" + getFailed().size()
+			+ ", timedOut=" + getTimedOut().size() + ", cancelled=" + getCancelled().size()
+			+ ", elapsedMillis=" + getElapsed(TimeUnit.MILLISECONDS) + "}";
+	}
+
+}
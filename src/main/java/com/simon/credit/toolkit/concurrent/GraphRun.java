@@ -0,0 +1,193 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务图的一次执行结果
+ * <pre>
+ * 关键路径：从最后结束的节点出发，每次回溯到其依赖中最晚结束的节点，直到没有依赖的节点。
+ * 关键路径上节点的执行耗时决定了整个图的最短执行时间，优化其他节点不会缩短总耗时；
+ * 总耗时与关键路径耗时之差是线程池排队等调度开销。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public final class GraphRun {
+
+	/** 节点最终状态 */
+	public enum NodeState {
+		/** 执行成功 */
+		SUCCEEDED,
+		/** 执行时抛出异常(或提交被线程池拒绝) */
+		FAILED,
+		/** 依赖节点失败，未执行 */
+		SKIPPED
+	}
+
+	/**
+	 * 单个节点的执行情况
+	 */
+	public static final class NodeRun {
+		private final String name;
+		private final NodeState state;
+		private final Object result;
+		private final Throwable error;
+		private final long startNanos;
+		private final long endNanos;
+		private final String[] dependsOn;
+
+		NodeRun(String name, NodeState state, Object result, Throwable error, long startNanos, long endNanos, String[] dependsOn) {
+			this.name = name;
+			this.state = state;
+			this.result = result;
+			this.error = error;
+			this.startNanos = startNanos;
+			this.endNanos = endNanos;
+			this.dependsOn = dependsOn;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public NodeState getState() {
+			return state;
+		}
+
+		public Object getResult() {
+			return result;
+		}
+
+		/** 失败时为节点抛出的异常，跳过时为上游节点的异常 */
+		public Throwable getError() {
+			return error;
+		}
+
+		/** 相对图开始执行的开始时间，未执行时为-1 */
+		public long getStartNanos() {
+			return startNanos;
+		}
+
+		/** 相对图开始执行的结束时间，未执行时为-1 */
+		public long getEndNanos() {
+			return endNanos;
+		}
+
+		/** 节点执行耗时，未执行时为0 */
+		public long getDurationNanos() {
+			return startNanos < 0 ? 0 : endNanos - startNanos;
+		}
+
+		@Override
+		public String toString() {
+			return name + "{state=" + state + (startNanos < 0 ? "" : ", start=" + startNanos / 1000000 + "ms, end="
+				+ endNanos / 1000000 + "ms") + (error == null ? "" : ", error=" + error) + "}";
+		}
+	}
+
+	private final Map<String, NodeRun> nodes;
+	private final long elapsedNanos;
+	private final List<String> criticalPath;
+
+	GraphRun(Map<String, NodeRun> nodes, long elapsedNanos) {
+		this.nodes = Collections.unmodifiableMap(nodes);
+		this.elapsedNanos = elapsedNanos;
+		this.criticalPath = Collections.unmodifiableList(computeCriticalPath());
+	}
+
+	/**
+	 * 节点结果
+	 * @throws IllegalStateException 节点失败或被跳过
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> V get(String name) {
+		NodeRun node = getNode(name);
+		if (node.state != NodeState.SUCCEEDED) {
+			throw new IllegalStateException("Task '" + name + "' " + node.state, node.error);
+		}
+		return (V) node.result;
+	}
+
+	public NodeRun getNode(String name) {
+		NodeRun node = nodes.get(name);
+		if (node == null) {
+			throw new IllegalArgumentException("Unknown task: " + name);
+		}
+		return node;
+	}
+
+	/**
+	 * 所有节点(拓扑序)
+	 */
+	public Map<String, NodeRun> getNodes() {
+		return nodes;
+	}
+
+	public boolean isAllSucceeded() {
+		for (NodeRun node : nodes.values()) {
+			if (node.state != NodeState.SUCCEEDED) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 关键路径上的节点(从起点到终点)
+	 */
+	public List<String> getCriticalPath() {
+		return criticalPath;
+	}
+
+	/**
+	 * 关键路径上节点执行耗时之和
+	 */
+	public long getCriticalPath(TimeUnit unit) {
+		long nanos = 0;
+		for (String name : criticalPath) {
+			nanos += nodes.get(name).getDurationNanos();
+		}
+		return unit.convert(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * 整个图的执行耗时
+	 */
+	public long getElapsed(TimeUnit unit) {
+		return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+	}
+
+	private List<String> computeCriticalPath() {
+		NodeRun last = null;
+		for (NodeRun node : nodes.values()) {
+			if (node.startNanos >= 0 && (last == null || node.endNanos > last.endNanos)) {
+				last = node;
+			}
+		}
+
+		List<String> path = new ArrayList<String>();
+		while (last != null) {
+			path.add(last.name);
+			NodeRun latestDependency = null;
+			for (String dependency : last.dependsOn) {
+				NodeRun node = nodes.get(dependency);
+				if (latestDependency == null || node.endNanos > latestDependency.endNanos) {
+					latestDependency = node;
+				}
+			}
+			last = latestDependency;
+		}
+		Collections.reverse(path);
+		return path;
+	}
+
+	@Override
+	public String toString() {
+		return "GraphRun{elapsedMillis=" + getElapsed(TimeUnit.MILLISECONDS) + ", criticalPath=" + criticalPath
+			+ ", criticalPathMillis=" + getCriticalPath(TimeUnit.MILLISECONDS) + ", nodes=" + nodes.values() + "}";
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.simon.credit.toolkit.concurrent;
+
+/**
+ * 任务图节点任务
+ * @param <T> 节点结果类型
+ * @author XUZIMING 2026-10-18
+ */
+public interface GraphTask<T> {
+
+	/**
+	 * 执行节点任务(所有依赖节点都成功后才会调用)
+	 * @param inputs 依赖节点的结果
+	 * @return 节点结果，传给下游节点
+	 */
+	T call(TaskInputs inputs) throws Exception;
+
+}
@@ -0,0 +1,142 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * 耗时直方图
+ * <pre>
+ * 对数-线性分桶：每个2的幂区间再等分为4个子桶，相对误差不超过25%，覆盖0纳秒到数百年，共248个桶。
+ * 每个桶是一个LongAdder(按线程分散计数)，记录时只有一次无竞争的累加，没有全局锁，可以在每个任务的执行路径上调用。
+ * snapshot()随时获取当前统计(不清零)，各计数之间不是严格的同一时刻，适合监控轮询。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class LatencyHistogram {
+
+	/** 每个2的幂区间的子桶数(2^SUB_BITS) */
+	private static final int SUB_BITS = 2;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+	private static final int BUCKET_COUNT = (63 - SUB_BITS) * SUB_COUNT + SUB_COUNT;
+
+	private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+	private final LongAdder totalNanos = new LongAdder();
+	private final LongAccumulator maxNanos = new LongAccumulator(new LongBinaryOperator() {
+		@Override
+		public long applyAsLong(long left, long right) {
+			return Math.max(left, right);
+		}
+	}, 0);
+
+	public LatencyHistogram() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			buckets[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * 记录一次耗时(负数按0记录)
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		buckets[bucketIndex(nanos)].increment();
+		totalNanos.add(nanos);
+		maxNanos.accumulate(nanos);
+	}
+
+	public Snapshot snapshot() {
+		long[] counts = new long[BUCKET_COUNT];
+		long count = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts[i] = buckets[i].sum();
+			count += counts[i];
+		}
+		return new Snapshot(counts, count, totalNanos.sum(), maxNanos.get());
+	}
+
+	static int bucketIndex(long nanos) {
+		if (nanos < SUB_COUNT) {
+			return (int) nanos;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(nanos);// nanos所在的2的幂区间
+		int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+		return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+	}
+
+	/**
+	 * 桶的上界(包含)
+	 */
+	static long bucketUpperBound(int index) {
+		if (index < SUB_COUNT) {
+			return index;
+		}
+		int exponent = index / SUB_COUNT + SUB_BITS - 1;
+		int sub = index % SUB_COUNT;
+		long width = 1L << (exponent - SUB_BITS);
+		return ((SUB_COUNT + sub) * width) + width - 1;
+	}
+
+	/**
+	 * 直方图快照
+	 */
+	public static final class Snapshot {
+		private final long[] counts;
+		private final long count;
+		private final long totalNanos;
+		private final long maxNanos;
+
+		Snapshot(long[] counts, long count, long totalNanos, long maxNanos) {
+			this.counts = counts;
+			this.count = count;
+			this.totalNanos = totalNanos;
+			this.maxNanos = maxNanos;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getMean(TimeUnit unit) {
+			return count == 0 ? 0 : unit.convert(totalNanos / count, TimeUnit.NANOSECONDS);
+		}
+
+		public long getMax(TimeUnit unit) {
+			return unit.convert(maxNanos, TimeUnit.NANOSECONDS);
+		}
+
+		/**
+		 * 百分位耗时(所在桶的上界，不超过最大值)
+		 * @param percentile 0~100，例如99表示P99
+		 */
+		public long getPercentile(double percentile, TimeUnit unit) {
+			if (percentile < 0 || percentile > 100) {
+				throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+			}
+			if (count == 0) {
+				return 0;
+			}
+
+			long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank) {
+					return unit.convert(Math.min(bucketUpperBound(i), maxNanos), TimeUnit.NANOSECONDS);
+				}
+			}
+			return unit.convert(maxNanos, TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public String toString() {
+			TimeUnit unit = TimeUnit.MICROSECONDS;
+			return "{count=" + count + ", meanMicros=" + getMean(unit) + ", p50=" + getPercentile(50, unit) + ", p90="
+				+ getPercentile(90, unit) + ", p99=" + getPercentile(99, unit) + ", max=" + getMax(unit) + "}";
+		}
+	}
+
+}
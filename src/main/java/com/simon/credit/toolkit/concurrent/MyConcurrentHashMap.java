@@ -2237,7 +2237,7 @@ public class MyConcurrentHashMap<K, V> extends MyAbstractMap<K, V> implements Co
 		private static final long LOCKSTATE;
 		static {
 			try {
-				U = sun.misc.Unsafe.getUnsafe();
+				U = UnsafeToolkits.getUnsafe();
 				Class<?> k = TreeBin.class;
 				LOCKSTATE = U.objectFieldOffset(k.getDeclaredField("lockState"));
 			} catch (Exception e) {
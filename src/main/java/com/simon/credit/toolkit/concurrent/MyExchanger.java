@@ -2,6 +2,7 @@ package com.simon.credit.toolkit.concurrent;
 
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
 
 @SuppressWarnings("restriction")
 public class MyExchanger<V> {
@@ -58,7 +59,7 @@ public class MyExchanger<V> {
 				q.match = item;
 				Thread w = q.parked;
 				if (w != null) {
-					unsafe.unpark(w);
+					LockSupport.unpark(w);
 				}
 				return v;
 			} else if (i <= (m = (b = bound) & MMASK) && q == null) {
@@ -85,13 +86,11 @@ public class MyExchanger<V> {
 						} else if (unsafe.getObjectVolatile(a, j) != p) {
 							spins = SPINS; // releaser hasn't set match yet
 						} else if (!t.isInterrupted() && m == 0 && (!timed || (ns = end - System.nanoTime()) > 0L)) {
-							unsafe.putObject(t, BLOCKER, this); // emulate LockSupport
 							p.parked = t; // minimize window
 							if (unsafe.getObjectVolatile(a, j) == p) {
-								unsafe.park(false, ns);
+								park(timed, ns);
 							}
 							p.parked = null;
-							unsafe.putObject(t, BLOCKER, null);
 						} else if (unsafe.getObjectVolatile(a, j) == p && unsafe.compareAndSwapObject(a, j, p, null)) {
 							if (m != 0) {// try to shrink
 								unsafe.compareAndSwapInt(this, BOUND, b, b + SEQ - 1);
@@ -141,7 +140,7 @@ public class MyExchanger<V> {
 					q.match = item;
 					Thread w = q.parked;
 					if (w != null) {
-						unsafe.unpark(w);
+						LockSupport.unpark(w);
 					}
 					return v;
 				}
@@ -178,13 +177,11 @@ public class MyExchanger<V> {
 			} else if (slot != p) {
 				spins = SPINS;
 			} else if (!t.isInterrupted() && arena == null && (!timed || (ns = end - System.nanoTime()) > 0L)) {
-				unsafe.putObject(t, BLOCKER, this);
 				p.parked = t;
 				if (slot == p) {
-					unsafe.park(false, ns);
+					park(timed, ns);
 				}
 				p.parked = null;
-				unsafe.putObject(t, BLOCKER, null);
 			} else if (unsafe.compareAndSwapObject(this, SLOT, p, null)) {
 				v = timed && ns <= 0L && !t.isInterrupted() ? TIMED_OUT : null;
 				break;
@@ -196,6 +193,17 @@ public class MyExchanger<V> {
 		return v;
 	}
 
+	/**
+	 * 阻塞当前线程，使用LockSupport而不是Unsafe.park，虚拟线程阻塞时不会占住载体线程
+	 */
+	private void park(boolean timed, long ns) {
+		if (timed) {
+			LockSupport.parkNanos(this, ns);
+		} else {
+			LockSupport.park(this);
+		}
+	}
+
 	public MyExchanger() {
 		participant = new Participant();
 	}
@@ -231,7 +239,6 @@ public class MyExchanger<V> {
 	private static final long BOUND;
 	private static final long SLOT;
 	private static final long MATCH;
-	private static final long BLOCKER;
 	private static final int ABASE;
 
 	static {
@@ -241,12 +248,10 @@ public class MyExchanger<V> {
 			Class<?> ek = MyExchanger.class;
 			Class<?> nk = Node.class;
 			Class<?> ak = Node[].class;
-			Class<?> tk = Thread.class;
 
 			BOUND 	= unsafe.objectFieldOffset(ek.getDeclaredField("bound"));
 			SLOT 	= unsafe.objectFieldOffset(ek.getDeclaredField("slot"));
 			MATCH 	= unsafe.objectFieldOffset(nk.getDeclaredField("match"));
-			BLOCKER = unsafe.objectFieldOffset(tk.getDeclaredField("parkBlocker"));
 			s = unsafe.arrayIndexScale(ak);
 			// ABASE absorbs padding in front of element 0
 			ABASE = unsafe.arrayBaseOffset(ak) + (1 << ASHIFT);
@@ -0,0 +1,673 @@
+package com.simon.credit.toolkit.concurrent;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 哈希时间轮定时器
+ * <pre>
+ * MyScheduledThreadPoolExecutor用二叉堆保存定时任务，schedule和cancel都要在锁内做O(log n)的堆调整，
+ * 大量"设置超时-请求返回后取消"的场景(RPC超时)下堆调整和锁竞争成为瓶颈。
+ * 时间轮把时间切成固定长度的tick，wheelSize个槽位组成环，任务按到期tick放入对应槽位的双向链表：
+ * 1、schedule：任务放入无锁的待加入队列，O(1)，由tick线程在下一个tick挂到槽位上
+ * 2、cancel：CAS任务状态后放入无锁的取消队列，O(1)，由tick线程从槽位链表中摘除(不会堆积已取消的任务)
+ * 3、到期：tick线程每个tick只处理一个槽位，超过一圈的任务记录剩余圈数(remainingRounds)，每转一圈减一
+ * 4、执行：同一tick到期的任务按批(dispatchBatchSize)提交到工作线程池，减少提交次数；延迟为0的任务直接提交
+ * 精度：任务不会提前执行，最多晚一个tick(加上工作线程池的排队时间)，适合超时检测等不要求精确定时的场景。
+ * 槽位链表只由tick线程读写，不需要加锁。
+ *
+ * 关闭语义与ScheduledThreadPoolExecutor默认策略一致：shutdown后已设置的一次性任务仍按时执行，周期任务被取消；
+ * shutdownNow立即停止，返回未执行的任务。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class MyHashedWheelTimer extends MyAbstractExecutorService implements ScheduledExecutorService {
+
+	private static final int RUNNING = 0;
+	private static final int SHUTDOWN = 1;
+	private static final int STOP = 2;
+
+	/** 延迟和周期的上限(约146年)，保证到期时间与startTime之差不溢出，与ScheduledThreadPoolExecutor.triggerTime一致 */
+	private static final long MAX_DELAY_NANOS = Long.MAX_VALUE >> 1;
+
+	/** 默认每批提交给工作线程池的任务数 */
+	private static final int DEFAULT_DISPATCH_BATCH_SIZE = 64;
+
+	private final long tickNanos;
+	private final Bucket[] wheel;
+	private final int mask;
+	private final ExecutorService workerPool;
+	private final boolean ownsWorkerPool;
+	private final int dispatchBatchSize;
+
+	/** 新加入(含周期任务的下一次)的任务，等待tick线程挂到槽位上 */
+	private final ConcurrentLinkedQueue<WheelTask<?>> pendingTasks = new ConcurrentLinkedQueue<WheelTask<?>>();
+	/** 已取消、等待tick线程从槽位上摘除的任务 */
+	private final ConcurrentLinkedQueue<WheelTask<?>> cancelledTasks = new ConcurrentLinkedQueue<WheelTask<?>>();
+
+	private final AtomicInteger state = new AtomicInteger(RUNNING);
+	/** 已设置、尚未到期或摘除的任务数 */
+	private final LongAdder pendingCount = new LongAdder();
+	private final CountDownLatch tickThreadExited = new CountDownLatch(1);
+
+	private final LongAdder scheduledCount = new LongAdder();
+	private final LongAdder cancelledCount = new LongAdder();
+	private final LongAdder expiredCount = new LongAdder();
+
+	private final Thread tickThread;
+	private final long startTime;
+	/** tick线程当前处理到的tick，只由tick线程读写 */
+	private long tick;
+	/** 关闭后是否已清理过槽位上的周期任务，只由tick线程读写 */
+	private boolean periodicTasksCancelled;
+	/** shutdownNow时tick线程收集的未执行任务 */
+	private volatile List<Runnable> unexecutedTasks;
+
+	/**
+	 * 每1毫秒一个tick，512个槽位，工作线程数为CPU核数
+	 */
+	public MyHashedWheelTimer() {
+		this(1, TimeUnit.MILLISECONDS, 512, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param tickDuration 每个tick的时长(定时精度)
+	 * @param unit 时间单位
+	 * @param wheelSize 槽位数，向上取整为2的幂
+	 * @param workerThreads 执行到期任务的工作线程数(线程池由时间轮创建，随时间轮关闭)
+	 */
+	public MyHashedWheelTimer(long tickDuration, TimeUnit unit, int wheelSize, int workerThreads) {
+		this(tickDuration, unit, wheelSize, new MyThreadPoolExecutor(workerThreads, workerThreads, 60, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<Runnable>(), namedThreadFactory("worker")), true, DEFAULT_DISPATCH_BATCH_SIZE);
+	}
+
+	/**
+	 * @param tickDuration 每个tick的时长(定时精度)
+	 * @param unit 时间单位
+	 * @param wheelSize 槽位数，向上取整为2的幂
+	 * @param workerPool 执行到期任务的线程池(由调用方管理，时间轮关闭时不关闭)
+	 * @param dispatchBatchSize 每批提交给工作线程池的任务数，同一批的任务在一个工作线程中依次执行
+	 */
+	public MyHashedWheelTimer(long tickDuration, TimeUnit unit, int wheelSize, ExecutorService workerPool, int dispatchBatchSize) {
+		this(tickDuration, unit, wheelSize, workerPool, false, dispatchBatchSize);
+	}
+
+	private MyHashedWheelTimer(long tickDuration, TimeUnit unit, int wheelSize, ExecutorService workerPool,
+							   boolean ownsWorkerPool, int dispatchBatchSize) {
+		if (tickDuration <= 0 || wheelSize <= 0 || wheelSize > (1 << 30) || dispatchBatchSize <= 0) {
+			throw new IllegalArgumentException("Illegal tick duration, wheel size or dispatch batch size.");
+		}
+		if (unit == null || workerPool == null) {
+			throw new NullPointerException("unit and workerPool can not be null.");
+		}
+		this.tickNanos = unit.toNanos(tickDuration);
+		int size = Integer.highestOneBit(wheelSize);
+		size = size < wheelSize ? size << 1 : size;
+		this.wheel = new Bucket[size];
+		for (int i = 0; i < size; i++) {
+			wheel[i] = new Bucket();
+		}
+		this.mask = size - 1;
+		this.workerPool = workerPool;
+		this.ownsWorkerPool = ownsWorkerPool;
+		this.dispatchBatchSize = dispatchBatchSize;
+
+		this.startTime = System.nanoTime();
+		this.tickThread = namedThreadFactory("tick").newThread(new Runnable() {
+			@Override
+			public void run() {
+				runTicks();
+			}
+		});
+		tickThread.start();
+	}
+
+	private static ThreadFactory namedThreadFactory(final String role) {
+		return new ThreadFactory() {
+			private final ThreadFactory factory = Executors.defaultThreadFactory();
+			private final AtomicInteger index = new AtomicInteger(0);
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = factory.newThread(runnable);
+				thread.setName(MyHashedWheelTimer.class.getName() + "_" + role + "_" + index.incrementAndGet());
+				return thread;
+			}
+		};
+	}
+
+	// ===================== 时间轮任务 =====================
+
+	private class WheelTask<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+		/** 到期时间(System.nanoTime) */
+		private volatile long deadline;
+		/** 周期：正数为固定频率，负数为固定延迟，0为一次性任务 */
+		private final long period;
+
+		// 以下字段只由tick线程读写
+		private long remainingRounds;
+		private Bucket bucket;
+		private WheelTask<?> prev;
+		private WheelTask<?> next;
+
+		WheelTask(Runnable task, V result, long deadline, long period) {
+			super(task, result);
+			this.deadline = deadline;
+			this.period = period;
+		}
+
+		WheelTask(Callable<V> callable, long deadline) {
+			super(callable);
+			this.deadline = deadline;
+			this.period = 0;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(deadline - System.nanoTime(), NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			if (other == this) {
+				return 0;
+			}
+			long diff = getDelay(NANOSECONDS) - other.getDelay(NANOSECONDS);
+			return diff < 0 ? -1 : diff > 0 ? 1 : 0;
+		}
+
+		@Override
+		public boolean isPeriodic() {
+			return period != 0;
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				cancelledCount.increment();
+				cancelledTasks.offer(this);// 由tick线程从槽位摘除
+			}
+			return cancelled;
+		}
+
+		@Override
+		public void run() {
+			if (!isPeriodic()) {
+				super.run();
+			} else if (super.runAndReset()) {
+				deadline = period > 0 ? deadline + period : System.nanoTime() - period;
+				if (!enqueue(this)) {// 关闭后周期任务不再继续
+					super.cancel(false);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 槽位：双向链表，只由tick线程读写
+	 */
+	private static final class Bucket {
+		private WheelTask<?> head;
+		private WheelTask<?> tail;
+
+		void add(WheelTask<?> task) {
+			task.bucket = this;
+			if (head == null) {
+				head = tail = task;
+			} else {
+				tail.next = task;
+				task.prev = tail;
+				tail = task;
+			}
+		}
+
+		void remove(WheelTask<?> task) {
+			WheelTask<?> next = task.next;
+			if (task.prev != null) {
+				task.prev.next = next;
+			}
+			if (task.next != null) {
+				task.next.prev = task.prev;
+			}
+			if (task == head) {
+				head = next;
+			}
+			if (task == tail) {
+				tail = task.prev;
+			}
+			task.prev = null;
+			task.next = null;
+			task.bucket = null;
+		}
+	}
+
+	// ===================== 提交 =====================
+
+	private <V> WheelTask<V> schedule(WheelTask<V> task) {
+		if (task.deadline - System.nanoTime() <= 0 && !task.isPeriodic()) {// 已到期，直接执行
+			// 先计数再检查状态：计数期间tick线程不会退出，不会关闭自己创建的工作线程池
+			pendingCount.increment();
+			try {
+				if (state.get() != RUNNING) {
+					throw rejected(task);
+				}
+				scheduledCount.increment();
+				dispatch(task);
+			} finally {
+				pendingCount.decrement();
+			}
+		} else {
+			if (!enqueue(task)) {
+				throw rejected(task);
+			}
+			scheduledCount.increment();
+		}
+		return task;
+	}
+
+	private RejectedExecutionException rejected(WheelTask<?> task) {
+		return new RejectedExecutionException("Task " + task + " rejected from " + this + ": timer has been shut down.");
+	}
+
+	/**
+	 * 加入待加入队列，与ScheduledThreadPoolExecutor.delayedExecute相同的"先加入、再检查状态"：
+	 * <pre>
+	 * 1、先增加pendingCount再检查状态：SHUTDOWN后tick线程要等pendingCount归零才退出，
+	 *    检查通过的任务一定会被tick线程挂到槽位上(周期任务被取消)，不会滞留在队列中
+	 * 2、加入后再检查一次STOP：tick线程可能已经收集完未执行的任务，此时自己从队列中移除
+	 * </pre>
+	 * @return false：已关闭，任务未加入
+	 */
+	private boolean enqueue(WheelTask<?> task) {
+		pendingCount.increment();
+		if (state.get() != RUNNING) {
+			pendingCount.decrement();
+			return false;
+		}
+		pendingTasks.offer(task);
+		if (state.get() == STOP && pendingTasks.remove(task)) {// pendingCount由collectUnexecutedTasks清零
+			return false;
+		}
+		return true;
+	}
+
+	private long deadlineOf(long delay, TimeUnit unit) {
+		return System.nanoTime() + nanosOf(delay < 0 ? 0 : delay, unit);
+	}
+
+	private static long nanosOf(long duration, TimeUnit unit) {
+		return Math.min(unit.toNanos(duration), MAX_DELAY_NANOS);
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+		if (command == null || unit == null) {
+			throw new NullPointerException();
+		}
+		return schedule(new WheelTask<Void>(command, null, deadlineOf(delay, unit), 0));
+	}
+
+	@Override
+	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+		if (callable == null || unit == null) {
+			throw new NullPointerException();
+		}
+		return schedule(new WheelTask<V>(callable, deadlineOf(delay, unit)));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+		if (command == null || unit == null) {
+			throw new NullPointerException();
+		}
+		if (period <= 0) {
+			throw new IllegalArgumentException();
+		}
+		return schedule(new WheelTask<Void>(command, null, deadlineOf(initialDelay, unit), nanosOf(period, unit)));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+		if (command == null || unit == null) {
+			throw new NullPointerException();
+		}
+		if (delay <= 0) {
+			throw new IllegalArgumentException();
+		}
+		return schedule(new WheelTask<Void>(command, null, deadlineOf(initialDelay, unit), -nanosOf(delay, unit)));
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		schedule(command, 0, NANOSECONDS);
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		return schedule(task, 0, NANOSECONDS);
+	}
+
+	@Override
+	public <T> Future<T> submit(Runnable task, T result) {
+		return schedule(Executors.callable(task, result), 0, NANOSECONDS);
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		return schedule(task, 0, NANOSECONDS);
+	}
+
+	// ===================== tick线程 =====================
+
+	private void runTicks() {
+		try {
+			while (true) {
+				int currentState = state.get();
+				if (currentState == STOP) {
+					break;
+				}
+				if (currentState == SHUTDOWN && pendingCount.sum() == 0) {
+					break;
+				}
+
+				waitForNextTick();
+				removeCancelledTasks();
+				transferPendingTasks();
+				if (state.get() != RUNNING && !periodicTasksCancelled) {
+					cancelPeriodicTasks();
+					periodicTasksCancelled = true;
+				}
+				expireBucket(wheel[(int) (tick & mask)]);
+				tick++;
+			}
+		} finally {
+			try {
+				if (state.get() == STOP) {
+					unexecutedTasks = collectUnexecutedTasks();
+				} else if (ownsWorkerPool) {
+					workerPool.shutdown();
+				}
+			} finally {
+				tickThreadExited.countDown();
+			}
+		}
+	}
+
+	/**
+	 * 等待当前tick结束：第tick个tick在startTime + (tick + 1) * tickNanos时处理
+	 */
+	private void waitForNextTick() {
+		long deadline = startTime + (tick + 1) * tickNanos;
+		for (;;) {
+			long sleepNanos = deadline - System.nanoTime();
+			if (sleepNanos <= 0 || state.get() == STOP) {
+				return;
+			}
+			LockSupport.parkNanos(this, sleepNanos);
+			Thread.interrupted();// shutdownNow通过中断唤醒
+		}
+	}
+
+	private void removeCancelledTasks() {
+		WheelTask<?> task;
+		while ((task = cancelledTasks.poll()) != null) {
+			if (task.bucket != null) {
+				task.bucket.remove(task);
+				pendingCount.decrement();
+			}
+		}
+	}
+
+	/**
+	 * 把待加入的任务挂到到期tick对应的槽位上(已经过期的放到当前槽位，本tick执行)
+	 */
+	private void transferPendingTasks() {
+		WheelTask<?> task;
+		while ((task = pendingTasks.poll()) != null) {
+			if (task.isPeriodic() && state.get() != RUNNING) {// 关闭前刚执行完、重新加入的周期任务
+				task.cancel(false);
+			}
+			if (task.isCancelled()) {
+				pendingCount.decrement();
+				continue;
+			}
+			long expireTick = expireTickOf(task);
+			task.remainingRounds = (expireTick - tick) / wheel.length;
+			wheel[(int) (expireTick & mask)].add(task);
+		}
+	}
+
+	/**
+	 * 到期tick：两个nanoTime相减，延迟和周期不超过MAX_DELAY_NANOS时差值不会溢出(已过期的取当前tick)
+	 */
+	private long expireTickOf(WheelTask<?> task) {
+		long elapsed = task.deadline - startTime;
+		return elapsed <= 0 ? tick : Math.max(elapsed / tickNanos, tick);
+	}
+
+	/**
+	 * 关闭后取消槽位上的周期任务
+	 */
+	private void cancelPeriodicTasks() {
+		for (Bucket bucket : wheel) {
+			WheelTask<?> task = bucket.head;
+			while (task != null) {
+				WheelTask<?> next = task.next;
+				if (task.isPeriodic()) {
+					bucket.remove(task);
+					pendingCount.decrement();
+					task.cancel(false);
+				}
+				task = next;
+			}
+		}
+		removeCancelledTasks();
+	}
+
+	private void expireBucket(Bucket bucket) {
+		List<WheelTask<?>> expired = null;
+		WheelTask<?> task = bucket.head;
+		while (task != null) {
+			WheelTask<?> next = task.next;
+			if (task.remainingRounds <= 0) {
+				bucket.remove(task);
+				pendingCount.decrement();
+				if (expired == null) {
+					expired = new ArrayList<WheelTask<?>>();
+				}
+				expired.add(task);
+			} else {
+				task.remainingRounds--;
+			}
+			task = next;
+		}
+		if (expired == null) {
+			return;
+		}
+
+		expiredCount.add(expired.size());
+		for (int from = 0; from < expired.size(); from += dispatchBatchSize) {
+			List<WheelTask<?>> batch = expired.subList(from, Math.min(from + dispatchBatchSize, expired.size()));
+			if (batch.size() == 1) {
+				dispatch(batch.get(0));
+				continue;
+			}
+			try {
+				workerPool.execute(new DispatchBatch(batch));
+			} catch (RejectedExecutionException e) {// 工作线程池已关闭
+				for (WheelTask<?> each : batch) {
+					each.cancel(false);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 同一tick到期的一批任务，在一个工作线程中依次执行
+	 */
+	private static final class DispatchBatch implements Runnable {
+		private final List<WheelTask<?>> tasks;
+
+		DispatchBatch(List<WheelTask<?>> tasks) {
+			this.tasks = tasks;
+		}
+
+		@Override
+		public void run() {
+			for (WheelTask<?> task : tasks) {
+				task.run();// FutureTask自己捕获异常，不影响同批的其他任务
+			}
+		}
+	}
+
+	private void dispatch(WheelTask<?> task) {
+		try {
+			workerPool.execute(task);
+		} catch (RejectedExecutionException e) {
+			task.cancel(false);
+		}
+	}
+
+	private List<Runnable> collectUnexecutedTasks() {
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		WheelTask<?> task;
+		while ((task = pendingTasks.poll()) != null) {
+			if (!task.isCancelled()) {
+				tasks.add(task);
+			}
+		}
+		for (Bucket bucket : wheel) {
+			while ((task = bucket.head) != null) {
+				bucket.remove(task);
+				if (!task.isCancelled()) {
+					tasks.add(task);
+				}
+			}
+		}
+		cancelledTasks.clear();
+		pendingCount.reset();
+
+		drainWorkerPool(tasks);
+		return tasks;
+	}
+
+	/**
+	 * 立即关闭自己创建的工作线程池，收集已到期、还在排队的任务
+	 */
+	private void drainWorkerPool(List<Runnable> tasks) {
+		if (!ownsWorkerPool) {
+			return;
+		}
+		for (Runnable queued : workerPool.shutdownNow()) {
+			if (queued instanceof DispatchBatch) {
+				for (WheelTask<?> each : ((DispatchBatch) queued).tasks) {
+					if (!each.isDone()) {
+						tasks.add(each);
+					}
+				}
+			} else {
+				tasks.add(queued);
+			}
+		}
+	}
+
+	// ===================== 生命周期 =====================
+
+	@Override
+	public void shutdown() {
+		state.compareAndSet(RUNNING, SHUTDOWN);
+		LockSupport.unpark(tickThread);
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		state.set(STOP);
+		tickThread.interrupt();
+		try {
+			tickThreadExited.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		List<Runnable> tasks = unexecutedTasks;
+		if (tasks == null) {// shutdown后tick线程已退出(只关闭了工作线程池)，工作线程池中可能仍有排队的批次
+			tasks = new ArrayList<Runnable>();
+			drainWorkerPool(tasks);
+		}
+		return tasks;
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return state.get() != RUNNING;
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return tickThreadExited.getCount() == 0 && (!ownsWorkerPool || workerPool.isTerminated());
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		if (!tickThreadExited.await(timeout, unit)) {
+			return false;
+		}
+		return !ownsWorkerPool || workerPool.awaitTermination(deadline - System.nanoTime(), NANOSECONDS);
+	}
+
+	// ===================== 统计 =====================
+
+	/** 已设置、尚未到期的任务数(含已取消但还未从槽位摘除的) */
+	public int getPendingCount() {
+		return pendingCount.intValue();
+	}
+
+	public long getScheduledCount() {
+		return scheduledCount.sum();
+	}
+
+	public long getCancelledCount() {
+		return cancelledCount.sum();
+	}
+
+	public long getExpiredCount() {
+		return expiredCount.sum();
+	}
+
+	public long getTickDuration(TimeUnit unit) {
+		return unit.convert(tickNanos, NANOSECONDS);
+	}
+
+	public int getWheelSize() {
+		return wheel.length;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + "[tickMicros=" + NANOSECONDS.toMicros(tickNanos) + ", wheelSize=" + wheel.length
+			+ ", pending=" + getPendingCount() + ", scheduled=" + getScheduledCount() + ", cancelled=" + getCancelledCount()
+			+ ", expired=" + getExpiredCount() + ", state=" + (state.get() == RUNNING ? "Running" : isTerminated() ? "Terminated" : "Shutting down") + "]";
+	}
+
+}
@@ -1,6 +1,7 @@
 package com.simon.credit.toolkit.concurrent;
 
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * LockSupport类使用了一种名为Permit（许可）的概念来做到阻塞和唤醒线程的功能，
@@ -12,7 +13,6 @@ import java.util.concurrent.ThreadLocalRandom;
 public class MyLockSupport {
 
 	private static final sun.misc.Unsafe UNSAFE;
-	private static final long parkBlockerOffset;
 	@SuppressWarnings("unused")
 	private static final long SEED;
 	@SuppressWarnings("unused")
@@ -23,8 +23,6 @@ public class MyLockSupport {
 		try {
 			UNSAFE = UnsafeToolkits.getUnsafe();
 			Class<?> threadClass = Thread.class;
-			parkBlockerOffset = UNSAFE.objectFieldOffset(threadClass.getDeclaredField("parkBlocker"));
-
 			SEED      = UNSAFE.objectFieldOffset(threadClass.getDeclaredField("threadLocalRandomSeed"));
 			PROBE     = UNSAFE.objectFieldOffset(threadClass.getDeclaredField("threadLocalRandomProbe"));
 			SECONDARY = UNSAFE.objectFieldOffset(threadClass.getDeclaredField("threadLocalRandomSecondarySeed"));
@@ -35,61 +33,44 @@ public class MyLockSupport {
 
 	private MyLockSupport() {} // Cannot be instantiated.
 
-	private static void setBlocker(Thread thread, Object blocker) {
-		// Even though volatile, hotspot doesn't need a write barrier here.
-		UNSAFE.putObject(thread, parkBlockerOffset, blocker);
-	}
+	/*
+	 * 阻塞与唤醒委托给JDK的LockSupport，不直接调用Unsafe.park/unpark：
+	 * JDK21+的LockSupport能识别虚拟线程，park时卸载虚拟线程、释放载体线程(carrier)，
+	 * 而Unsafe.park会把载体线程一起阻塞，虚拟线程上的MyReentrantLock等同步器会因此钉住(pinning)载体线程。
+	 */
 
 	/** 唤醒指定线程 */
 	public static void unpark(Thread thread) {
-		if (thread != null) {
-			UNSAFE.unpark(thread);
-		}
+		LockSupport.unpark(thread);
 	}
 
 	/** 阻塞当前调用线程 */
 	public static void park(Object blocker) {
-		Thread currentThread = Thread.currentThread();
-		setBlocker(currentThread, blocker);
-		UNSAFE.park(false, 0L);
-		setBlocker(currentThread, null);
+		LockSupport.park(blocker);
 	}
 
 	public static void parkNanos(Object blocker, long nanos) {
-		if (nanos > 0) {
-			Thread currentThread = Thread.currentThread();
-			setBlocker(currentThread, blocker);
-			UNSAFE.park(false, nanos);
-			setBlocker(currentThread, null);
-		}
+		LockSupport.parkNanos(blocker, nanos);
 	}
 
 	public static void parkUntil(Object blocker, long deadline) {
-		Thread currentThread = Thread.currentThread();
-		setBlocker(currentThread, blocker);
-		UNSAFE.park(true, deadline);
-		setBlocker(currentThread, null);
+		LockSupport.parkUntil(blocker, deadline);
 	}
 
 	public static Object getBlocker(Thread thread) {
-		if (thread == null) {
-			throw new NullPointerException();
-		}
-		return UNSAFE.getObjectVolatile(thread, parkBlockerOffset);
+		return LockSupport.getBlocker(thread);
 	}
 
 	public static void park() {
-		UNSAFE.park(false, 0L);
+		LockSupport.park();
 	}
 
 	public static void parkNanos(long nanos) {
-		if (nanos > 0) {
-			UNSAFE.park(false, nanos);
-		}
+		LockSupport.parkNanos(nanos);
 	}
 
 	public static void parkUntil(long deadline) {
-		UNSAFE.park(true, deadline);
+		LockSupport.parkUntil(deadline);
 	}
 
 	static final int nextSecondarySeed() {
@@ -498,11 +498,12 @@ public class MyRandom implements Serializable {
 	}
 
 	// Support for resetting seed while deserializing
-	private static final Unsafe unsafe = Unsafe.getUnsafe();
+	private static final Unsafe unsafe;
 	private static final long seedOffset;
 
 	static {
 		try {
+			unsafe = UnsafeToolkits.getUnsafe();
 			seedOffset = unsafe.objectFieldOffset(MyRandom.class.getDeclaredField("seed"));
 		} catch (Exception ex) {
 			throw new Error(ex);
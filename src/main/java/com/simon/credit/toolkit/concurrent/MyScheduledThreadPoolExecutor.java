@@ -383,6 +383,31 @@ public class MyScheduledThreadPoolExecutor extends MyThreadPoolExecutor implemen
 		return removeOnCancel;
 	}
 
+	/** 调度延迟：实际开始执行时间 - 计划执行时间 */
+	private final LatencyHistogram latenessHistogram = new LatencyHistogram();
+
+	/**
+	 * 定时任务不经过execute入队，计划执行时间即为可执行的起点，调度延迟同时计入排队等待时间
+	 */
+	@Override
+	void onTaskStart(Runnable task, long startNanos) {
+		long lateness;
+		if (task instanceof ScheduledFutureTask) {
+			lateness = startNanos - ((ScheduledFutureTask<?>) task).time;
+		} else if (task instanceof RunnableScheduledFuture) {// decorateTask返回的自定义任务
+			lateness = -((RunnableScheduledFuture<?>) task).getDelay(NANOSECONDS);
+		} else {
+			return;
+		}
+		latenessHistogram.record(lateness);
+		queueWaitHistogram().record(lateness);
+	}
+
+	@Override
+	LatencyHistogram.Snapshot schedulingLatenessSnapshot() {
+		return latenessHistogram.snapshot();
+	}
+
 	@Override
 	public void shutdown() {
 		super.shutdown();
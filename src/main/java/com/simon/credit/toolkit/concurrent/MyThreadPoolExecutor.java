@@ -1,19 +1,27 @@
 package com.simon.credit.toolkit.concurrent;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 
 public class MyThreadPoolExecutor extends MyAbstractExecutorService {
@@ -161,6 +169,85 @@ public class MyThreadPoolExecutor extends MyAbstractExecutorService {
 
 	private static final MyRejectedExecutionHandler defaultHandler = new AbortPolicy();
 
+	/*
+	 * 工作窃取模式(newWorkStealingPool创建)：
+	 * 1、每个工作线程有自己的WorkStealingDeque，工作线程内提交的任务放入自己的队列底部，执行时后进先出
+	 * 2、外部线程提交的任务轮询放入多个无锁提交队列，分散竞争
+	 * 3、工作线程取任务顺序：自己的队列 -> 提交队列 -> 从其他工作线程的队列顶部窃取 -> workQueue(异常退出的工作线程遗留的任务)
+	 * 4、找不到任务时登记到空闲队列并park，提交任务后唤醒一个空闲工作线程
+	 * 队列无界，线程数固定为corePoolSize(不会因队列满而增加非核心线程)，只在线程池关闭后拒绝任务。
+	 */
+
+	/** 是否工作窃取模式 */
+	private final boolean workStealing;
+
+	/** 外部提交队列(工作窃取模式) */
+	private final ConcurrentLinkedQueue<Runnable>[] submissionQueues;
+
+	/** 外部提交轮询下标 */
+	private final AtomicInteger submissionIndex = new AtomicInteger();
+
+	/** 当前线程对应的工作线程(工作窃取模式) */
+	private final ThreadLocal<Worker> currentWorker = new ThreadLocal<Worker>();
+
+	/** 工作线程快照，窃取时遍历，增删工作线程时在mainLock内重建 */
+	private volatile Worker[] stealingWorkers = new Worker[0];
+
+	/** 空闲(park)的工作线程 */
+	private final ConcurrentLinkedQueue<Worker> idleWorkers = new ConcurrentLinkedQueue<Worker>();
+
+	/** 工作线程编号，决定扫描提交队列和窃取的起点 */
+	private final AtomicInteger workerIndex = new AtomicInteger();
+
+	/*
+	 * 运行指标：
+	 * 1、开启后execute把任务包装为TimedTask记录入队时间，工作线程开始执行时记录排队等待时间，执行完记录执行时间
+	 * 2、直方图和计数都基于LongAdder，记录时没有全局锁；getMetrics()随时获取快照
+	 * 3、开启后getQueue()中的元素是TimedTask，remove/purge/shutdownNow会自动解包
+	 */
+
+	/** 是否记录耗时直方图 */
+	private volatile boolean metricsEnabled;
+
+	private final LatencyHistogram queueWaitHistogram = new LatencyHistogram();
+
+	private final LatencyHistogram runTimeHistogram = new LatencyHistogram();
+
+	private final LongAdder rejectedCount = new LongAdder();
+
+	/**
+	 * 带入队时间的任务
+	 */
+	static final class TimedTask implements Runnable {
+		final Runnable task;
+		final long enqueueNanos;
+
+		TimedTask(Runnable task, long enqueueNanos) {
+			this.task = task;
+			this.enqueueNanos = enqueueNanos;
+		}
+
+		@Override
+		public void run() {
+			task.run();
+		}
+
+		@Override
+		public String toString() {
+			return task.toString();
+		}
+	}
+
+	/**
+	 * 去掉TimedTask、KeyedTask包装后的原始任务
+	 */
+	static Runnable unwrap(Object task) {
+		if (task instanceof TimedTask) {
+			task = ((TimedTask) task).task;
+		}
+		return task instanceof FairShareTaskQueue.KeyedTask ? ((FairShareTaskQueue.KeyedTask) task).task : (Runnable) task;
+	}
+
 	private static final RuntimePermission shutdownPerm = new RuntimePermission("modifyThread");
 
 	private final class Worker extends MyAbstractQueuedSynchronizer implements Runnable {
@@ -170,9 +257,17 @@ public class MyThreadPoolExecutor extends MyAbstractExecutorService {
 		Runnable firstTask;
 		volatile long completedTasks;
 
+		/** 工作窃取模式下自己的任务队列，共享队列模式为null */
+		final WorkStealingDeque deque;
+		/** 是否已登记为空闲，唤醒方CAS为false后unpark */
+		final AtomicBoolean idle = new AtomicBoolean();
+		final int index;
+
 		Worker(Runnable firstTask) {
 			setState(-1); // inhibit interrupts until runWorker
 			this.firstTask = firstTask;
+			this.deque = workStealing ? new WorkStealingDeque() : null;
+			this.index = workerIndex.getAndIncrement();
 			this.thread = getThreadFactory().newThread(this);
 		}
 
@@ -238,7 +333,7 @@ public class MyThreadPoolExecutor extends MyAbstractExecutorService {
 	protected final void tryTerminate() {
 		for (;;) {
 			int c = ctl.get();
-			if (isRunning(c) || runStateAtLeast(c, TIDYING) || (runStateOf(c) == SHUTDOWN && !workQueue.isEmpty())) {
+			if (isRunning(c) || runStateAtLeast(c, TIDYING) || (runStateOf(c) == SHUTDOWN && !isQueueEmpty())) {
 				return;
 			}
 			if (workerCountOf(c) != 0) { // Eligible to terminate
@@ -328,7 +423,15 @@ public class MyThreadPoolExecutor extends MyAbstractExecutorService {
 	private static final boolean ONLY_ONE = true;
 
 	protected final void reject(Runnable command) {
-		handler.rejectedExecution(command, this);
+		rejectedCount.increment();
+		MyRejectedExecutionHandler rejectHandler = handler;
+		if (workQueue instanceof FairShareTaskQueue) {// 优先使用任务所属key的拒绝策略
+			MyRejectedExecutionHandler keyHandler = ((FairShareTaskQueue) workQueue).onRejected(command);
+			if (keyHandler != null) {
+				rejectHandler = keyHandler;
+			}
+		}
+		rejectHandler.rejectedExecution(unwrap(command), this);
 	}
 
 	protected void onShutdown() {
@@ -352,9 +455,73 @@ public class MyThreadPoolExecutor extends MyAbstractExecutorService {
 				}
 			}
 		}
+
+		if (workStealing) {
+			Runnable task;
+			for (ConcurrentLinkedQueue<Runnable> queue : submissionQueues) {
+				while ((task = queue.poll()) != null) {
+					tasks.add(task);
+				}
+			}
+			for (Worker worker : stealingWorkers) {
+				while ((task = worker.deque.steal()) != null) {
+					tasks.add(task);
+				}
+			}
+		}
+		for (int i = 0; i < tasks.size(); i++) {
+			tasks.set(i, unwrap(tasks.get(i)));
+		}
 		return tasks;
 	}
 
+	/**
+	 * 是否没有等待执行的任务(工作窃取模式包括提交队列和所有工作线程的队列)
+	 */
+	private boolean isQueueEmpty() {
+		if (!workQueue.isEmpty()) {
+			return false;
+		}
+		if (workStealing) {
+			for (ConcurrentLinkedQueue<Runnable> queue : submissionQueues) {
+				if (!queue.isEmpty()) {
+					return false;
+				}
+			}
+			for (Worker worker : stealingWorkers) {
+				if (!worker.deque.isEmpty()) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 等待执行的任务数
+	 */
+	private int queuedTaskCount() {
+		int count = workQueue.size();
+		if (workStealing) {
+			for (ConcurrentLinkedQueue<Runnable> queue : submissionQueues) {
+				count += queue.size();
+			}
+			for (Worker worker : stealingWorkers) {
+				count += worker.deque.size();
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * 在mainLock内调用，重建工作线程快照
+	 */
+	private void refreshStealingWorkers() {
+		if (workStealing) {
+			stealingWorkers = workers.toArray(new Worker[workers.size()]);
+		}
+	}
+
 	/**
 	 * 增加工作线程
 	 * @param firstTask 刚提交的command
@@ -366,7 +533,7 @@ public class MyThreadPoolExecutor extends MyAbstractExecutorService {
 			int c = ctl.get();
 			int runState = runStateOf(c);
 
-			if (runState >= SHUTDOWN && !(runState == SHUTDOWN && firstTask == null && !workQueue.isEmpty())) {
+			if (runState >= SHUTDOWN && !(runState == SHUTDOWN && firstTask == null && !isQueueEmpty())) {
 				return false;
 			}
 
@@ -405,6 +572,7 @@ public class MyThreadPoolExecutor extends MyAbstractExecutorService {
 							throw new IllegalThreadStateException();
 						}
 						workers.add(worker);
+						refreshStealingWorkers();
 						int workerCount = workers.size();
 						if (workerCount > largestPoolSize) {
 							largestPoolSize = workerCount;
@@ -433,6 +601,7 @@ public class MyThreadPoolExecutor extends MyAbstractExecutorService {
 		try {
 			if (worker != null) {
 				workers.remove(worker);
+				refreshStealingWorkers();
 			}
 			// 工作线程数量递减
 			decrementWorkerCount();
@@ -452,17 +621,31 @@ public class MyThreadPoolExecutor extends MyAbstractExecutorService {
 		try {
 			completedTaskCount += worker.completedTasks;
 			workers.remove(worker);
+			refreshStealingWorkers();
 		} finally {
 			mainLock.unlock();
 		}
 
+		if (workStealing) {
+			// 异常退出时自己队列中剩下的任务转入workQueue，由其他工作线程执行
+			currentWorker.remove();
+			idleWorkers.remove(worker);
+			Runnable task;
+			while ((task = worker.deque.pop()) != null) {
+				workQueue.offer(task);
+			}
+			if (!workQueue.isEmpty()) {
+				signalWork();
+			}
+		}
+
 		tryTerminate();
 
 		int c = ctl.get();
 		if (runStateLessThan(c, STOP)) {
 			if (!completedAbruptly) {
 				int min = allowCoreThreadTimeOut ? 0 : corePoolSize;
-				if (min == 0 && !workQueue.isEmpty()) {
+				if (min == 0 && !isQueueEmpty()) {
 					min = 1;
 				}
 				if (workerCountOf(c) >= min) {
@@ -514,11 +697,119 @@ public class MyThreadPoolExecutor extends MyAbstractExecutorService {
 		}
 	}
 
+	/**
+	 * === 工作窃取模式获取任务 ===
+	 * <pre>
+	 * 找不到任务时先登记为空闲，再扫描一次：提交方先放任务再查空闲队列，工作线程先登记再查任务，
+	 * 两者至少有一方能看到对方，不会出现任务已提交而所有工作线程都在park的情况。
+	 * </pre>
+	 */
+	private Runnable getStealingTask(Worker worker) {
+		boolean timedOut = false;
+
+		for (;;) {
+			int c = ctl.get();
+			int runState = runStateOf(c);
+			if (runState >= STOP) {
+				decrementWorkerCount();
+				return null;
+			}
+
+			Runnable task = scan(worker);
+			if (task != null) {
+				return task;
+			}
+			if (runState >= SHUTDOWN) {// 已关闭且没有剩余任务
+				decrementWorkerCount();
+				return null;
+			}
+
+			int workerCount = workerCountOf(c);
+			boolean timed = allowCoreThreadTimeOut || (workerCount > corePoolSize);
+			if ((workerCount > maximumPoolSize || (timed && timedOut)) && (workerCount > 1 || isQueueEmpty())) {
+				if (compareAndDecrementWorkerCount(c)) {
+					return null;
+				}
+				continue;
+			}
+
+			worker.idle.set(true);
+			idleWorkers.offer(worker);
+			task = scan(worker);
+			if (task != null || runStateAtLeast(ctl.get(), SHUTDOWN)) {
+				if (worker.idle.compareAndSet(true, false)) {
+					idleWorkers.remove(worker);
+				}
+				if (task != null) {
+					return task;
+				}
+				continue;
+			}
+
+			long parkStart = System.nanoTime();
+			if (timed) {
+				LockSupport.parkNanos(this, keepAliveTime);
+			} else {
+				LockSupport.park(this);
+			}
+			Thread.interrupted();// 关闭线程池时用中断唤醒，清除中断标志后重新检查状态
+
+			if (worker.idle.compareAndSet(true, false)) {// 不是被提交方唤醒的
+				idleWorkers.remove(worker);
+				timedOut = timed && System.nanoTime() - parkStart >= keepAliveTime;
+			} else {
+				timedOut = false;
+			}
+		}
+	}
+
+	/**
+	 * 依次从自己的队列、提交队列、其他工作线程的队列、workQueue中取任务
+	 */
+	private Runnable scan(Worker worker) {
+		Runnable task = worker.deque.pop();
+		if (task != null) {
+			return task;
+		}
+
+		ConcurrentLinkedQueue<Runnable>[] queues = submissionQueues;
+		for (int i = 0; i < queues.length; i++) {
+			if ((task = queues[(worker.index + i) % queues.length].poll()) != null) {
+				return task;
+			}
+		}
+
+		Worker[] victims = stealingWorkers;
+		for (int i = 1; i < victims.length; i++) {
+			Worker victim = victims[(worker.index + i) % victims.length];
+			if (victim != worker && (task = victim.deque.steal()) != null) {
+				return task;
+			}
+		}
+		return workQueue.poll();
+	}
+
+	/**
+	 * 唤醒一个空闲的工作线程
+	 */
+	private void signalWork() {
+		Worker worker;
+		while ((worker = idleWorkers.poll()) != null) {
+			if (worker.idle.compareAndSet(true, false)) {
+				LockSupport.unpark(worker.thread);
+				return;
+			}
+		}
+	}
+
 	final void runWorker(Worker worker) {
 		Thread workerThread = Thread.currentThread();
 		Runnable task = worker.firstTask;
 		worker.firstTask = null;
 		worker.unlock(); // allow interrupts
+		if (workStealing) {
+			currentWorker.set(worker);
+		}
 		boolean completedAbruptly = true;
 		try {
 			/**
@@ -526,12 +817,28 @@ public class MyThreadPoolExecutor extends MyAbstractExecutorService {
 			 * 每执行完一个任务后，就会去工作队列中取下一个任务，
 			 * 如果取出的任务为null，则当前worker线程终止
 			 */
-			while (task != null || (task = getTask()) != null) {
+			while (task != null || (task = (workStealing ? getStealingTask(worker) : getTask())) != null) {
 				worker.lock();
 				if ((runStateAtLeast(ctl.get(), STOP) || (Thread.interrupted() && runStateAtLeast(ctl.get(), STOP))) && !workerThread.isInterrupted()) {
 					workerThread.interrupt();
 				}
 
+				boolean timed = metricsEnabled;
+				long startNanos = timed ? System.nanoTime() : 0;
+				if (task instanceof TimedTask) {
+					TimedTask timedTask = (TimedTask) task;
+					task = timedTask.task;
+					if (timed) {
+						queueWaitHistogram.record(startNanos - timedTask.enqueueNanos);
+					}
+				}
+				if (task instanceof FairShareTaskQueue.KeyedTask) {
+					task = ((FairShareTaskQueue.KeyedTask) task).task;
+				}
+				if (timed) {
+					onTaskStart(task, startNanos);
+				}
+
 				try {
 					beforeExecute(workerThread, task);
 					Throwable thrown = null;
@@ -547,6 +854,9 @@ public class MyThreadPoolExecutor extends MyAbstractExecutorService {
 						thrown = x;
 						throw new Error(x);
 					} finally {
+						if (timed) {
+							runTimeHistogram.record(System.nanoTime() - startNanos);
+						}
 						afterExecute(task, thrown);
 					}
 				} finally {
@@ -593,12 +903,109 @@ public class MyThreadPoolExecutor extends MyAbstractExecutorService {
 		this.keepAliveTime = unit.toNanos(keepAliveTime);
 		this.threadFactory = threadFactory;
 		this.handler = handler;
+		this.workStealing = false;
+		this.submissionQueues = null;
+	}
+
+	private MyThreadPoolExecutor(int parallelism, ThreadFactory threadFactory, MyRejectedExecutionHandler handler) {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException();
+		}
+		if (threadFactory == null || handler == null) {
+			throw new NullPointerException();
+		}
+		this.corePoolSize = parallelism;
+		this.maximumPoolSize = parallelism;
+		this.workQueue = new LinkedBlockingQueue<Runnable>();
+		this.keepAliveTime = TimeUnit.SECONDS.toNanos(60);
+		this.threadFactory = threadFactory;
+		this.handler = handler;
+		this.workStealing = true;
+		@SuppressWarnings("unchecked")
+		ConcurrentLinkedQueue<Runnable>[] queues = (ConcurrentLinkedQueue<Runnable>[]) new ConcurrentLinkedQueue<?>[parallelism];
+		this.submissionQueues = queues;
+		for (int i = 0; i < parallelism; i++) {
+			submissionQueues[i] = new ConcurrentLinkedQueue<Runnable>();
+		}
+	}
+
+	/**
+	 * 工作窃取模式的线程池
+	 * <pre>
+	 * 共享队列模式下所有工作线程争用同一个BlockingQueue的头尾锁，大量细粒度任务时队列锁成为瓶颈。
+	 * 工作窃取模式下每个工作线程有自己的无锁双端队列，外部提交分散到多个提交队列，空闲线程从其他线程的队列窃取任务。
+	 * execute/shutdown/shutdownNow/awaitTermination的语义与共享队列模式相同。
+	 * </pre>
+	 * @param parallelism 工作线程数
+	 */
+	public static MyThreadPoolExecutor newWorkStealingPool(int parallelism) {
+		return new MyThreadPoolExecutor(parallelism, Executors.defaultThreadFactory(), defaultHandler);
+	}
+
+	public static MyThreadPoolExecutor newWorkStealingPool(int parallelism, ThreadFactory threadFactory) {
+		return new MyThreadPoolExecutor(parallelism, threadFactory, defaultHandler);
+	}
+
+	public boolean isWorkStealing() {
+		return workStealing;
+	}
+
+	/**
+	 * 多租户公平调度的线程池
+	 * <pre>
+	 * 工作队列为FairShareTaskQueue，通过executeKeyed(key, task)/submitKeyed(key, task)提交，各key按权重分享线程，
+	 * 某个key的子队列满时只拒绝该key的任务。核心线程数等于最大线程数，子队列满时不会创建额外线程绕过公平调度。
+	 * </pre>
+	 * @param nThreads 工作线程数
+	 * @param queue 公平调度队列(各key的权重、容量、拒绝策略在其上配置)
+	 */
+	public static MyThreadPoolExecutor newFairSharePool(int nThreads, FairShareTaskQueue queue) {
+		return new MyThreadPoolExecutor(nThreads, nThreads, 60, TimeUnit.SECONDS, queue);
+	}
+
+	public static MyThreadPoolExecutor newFairSharePool(int nThreads, FairShareTaskQueue queue, ThreadFactory threadFactory) {
+		return new MyThreadPoolExecutor(nThreads, nThreads, 60, TimeUnit.SECONDS, queue, threadFactory);
+	}
+
+	/**
+	 * 按key提交任务：工作队列为FairShareTaskQueue时进入key对应的子队列，其他队列忽略key
+	 */
+	public void executeKeyed(Object key, Runnable command) {
+		if (key == null || command == null) {
+			throw new NullPointerException();
+		}
+		execute(new FairShareTaskQueue.KeyedTask(key, command));
+	}
+
+	public Future<?> submitKeyed(Object key, Runnable task) {
+		if (task == null) {
+			throw new NullPointerException();
+		}
+		RunnableFuture<Void> futureTask = newTaskFor(task, null);
+		executeKeyed(key, futureTask);
+		return futureTask;
+	}
+
+	public <T> Future<T> submitKeyed(Object key, Callable<T> task) {
+		if (task == null) {
+			throw new NullPointerException();
+		}
+		RunnableFuture<T> futureTask = newTaskFor(task);
+		executeKeyed(key, futureTask);
+		return futureTask;
 	}
 
 	public void execute(Runnable command) {
 		if (command == null) {
 			throw new NullPointerException();
 		}
+		if (metricsEnabled) {
+			command = new TimedTask(command, System.nanoTime());
+		}
+		if (workStealing) {
+			executeStealing(command);
+			return;
+		}
 		int c = ctl.get();
 
 		// 1、线程池线程数小于核心线程数时，创建线程执行任务
@@ -624,6 +1031,52 @@ public class MyThreadPoolExecutor extends MyAbstractExecutorService {
 		}
 	}
 
+	/**
+	 * 工作窃取模式提交任务：工作线程内提交放入自己的队列，外部提交轮询放入提交队列
+	 */
+	private void executeStealing(Runnable command) {
+		int c = ctl.get();
+		if (workerCountOf(c) < corePoolSize) {
+			if (addWorker(command, true)) {
+				return;
+			}
+			c = ctl.get();
+		}
+		if (!isRunning(c)) {
+			reject(command);
+			return;
+		}
+
+		Worker worker = currentWorker.get();
+		if (worker != null) {
+			worker.deque.push(command);
+		} else {
+			int index = (submissionIndex.getAndIncrement() & Integer.MAX_VALUE) % submissionQueues.length;
+			submissionQueues[index].offer(command);
+		}
+
+		// 复检线程池状态：提交期间线程池被关闭时撤回任务并拒绝(已被取走的除外)
+		int recheck = ctl.get();
+		if (!isRunning(recheck)) {
+			if (worker != null) {
+				Runnable last = worker.deque.pop();
+				if (last == command) {
+					reject(command);
+					return;
+				}
+				if (last != null) {
+					worker.deque.push(last);
+				}
+			} else if (remove(command)) {
+				reject(command);
+				return;
+			}
+		} else if (workerCountOf(recheck) == 0) {
+			addWorker(null, false);
+		}
+		signalWork();
+	}
+
 	/**
 	 * 任务加入工作队列后复检线程池状态
 	 * @param command
@@ -735,9 +1188,9 @@ public class MyThreadPoolExecutor extends MyAbstractExecutorService {
 			interruptIdleWorkers();
 		}
 		else if (delta > 0) {
-			int k = Math.min(delta, workQueue.size());
+			int k = Math.min(delta, queuedTaskCount());
 			while (k-- > 0 && addWorker(null, true)) {
-				if (workQueue.isEmpty()) {
+				if (isQueueEmpty()) {
 					break;
 				}
 			}
@@ -822,25 +1275,51 @@ public class MyThreadPoolExecutor extends MyAbstractExecutorService {
 		return workQueue;
 	}
 
+	/**
+	 * 从等待队列中移除任务(工作窃取模式下只能移除提交队列中的任务，不能移除工作线程队列中的任务)
+	 */
 	public boolean remove(Runnable task) {
-		boolean removed = workQueue.remove(task);
+		boolean removed = workQueue.remove(task) || removeTimedTask(workQueue, task);
+		if (!removed && workStealing) {
+			for (ConcurrentLinkedQueue<Runnable> queue : submissionQueues) {
+				if (queue.remove(task) || removeTimedTask(queue, task)) {
+					removed = true;
+					break;
+				}
+			}
+		}
 		tryTerminate(); // In case SHUTDOWN and now empty
 		return removed;
 	}
 
+	/**
+	 * 移除包装了task的TimedTask/KeyedTask
+	 */
+	private static boolean removeTimedTask(Collection<Runnable> queue, Runnable task) {
+		for (Iterator<Runnable> iterator = queue.iterator(); iterator.hasNext();) {
+			Runnable queued = iterator.next();
+			if (queued != task && unwrap(queued) == task) {
+				iterator.remove();
+				return true;
+			}
+		}
+		return false;
+	}
+
 	public void purge() {
 		final BlockingQueue<Runnable> currentWorkQueue = workQueue;
 		try {
 			Iterator<Runnable> iterator = currentWorkQueue.iterator();
 			while (iterator.hasNext()) {
-				Runnable runnable = iterator.next();
+				Runnable runnable = unwrap(iterator.next());
 				if (runnable instanceof Future<?> && ((Future<?>) runnable).isCancelled()) {
 					iterator.remove();
 				}
 			}
 		} catch (ConcurrentModificationException fallThrough) {
 			for (Object task : currentWorkQueue.toArray()) {
-				if (task instanceof Future<?> && ((Future<?>) task).isCancelled()) {
+				Runnable runnable = unwrap(task);
+				if (runnable instanceof Future<?> && ((Future<?>) runnable).isCancelled()) {
 					currentWorkQueue.remove(task);
 				}
 			}
@@ -895,7 +1374,7 @@ public class MyThreadPoolExecutor extends MyAbstractExecutorService {
 					++completedCount;
 				}
 			}
-			return completedCount + workQueue.size();
+			return completedCount + queuedTaskCount();
 		} finally {
 			mainLock.unlock();
 		}
@@ -939,7 +1418,7 @@ public class MyThreadPoolExecutor extends MyAbstractExecutorService {
 			   .append(getRunState())// 运行状态
 			   .append(", pool size = ").append(workerCount)
 			   .append(", active threads = ").append(activeCount)
-			   .append(", queued tasks = ").append(workQueue.size())
+			   .append(", queued tasks = ").append(queuedTaskCount())
 			   .append(", completed tasks = ").append(completedCount)
 			   .append("]");
 		return builder.toString();
@@ -956,6 +1435,59 @@ public class MyThreadPoolExecutor extends MyAbstractExecutorService {
 		return "Shutting down";
 	}
 
+	/**
+	 * 开启或关闭耗时直方图(排队等待时间、执行时间)，关闭时执行路径上只多一次volatile读
+	 */
+	public void setMetricsEnabled(boolean metricsEnabled) {
+		this.metricsEnabled = metricsEnabled;
+	}
+
+	public boolean isMetricsEnabled() {
+		return metricsEnabled;
+	}
+
+	/**
+	 * 运行指标快照：线程数、活跃/空闲线程数、排队任务数、完成数、拒绝数、排队等待和执行耗时直方图
+	 */
+	public ThreadPoolMetrics getMetrics() {
+		int poolSize, largestSize, activeCount;
+		long completedCount;
+		final ReentrantLock mainLock = this.mainLock;
+		mainLock.lock();
+		try {
+			poolSize = runStateAtLeast(ctl.get(), TIDYING) ? 0 : workers.size();
+			largestSize = largestPoolSize;
+			activeCount = 0;
+			completedCount = completedTaskCount;
+			for (Worker worker : workers) {
+				completedCount += worker.completedTasks;
+				if (worker.isLocked()) {
+					++activeCount;
+				}
+			}
+		} finally {
+			mainLock.unlock();
+		}
+		return new ThreadPoolMetrics(poolSize, largestSize, activeCount, queuedTaskCount(), completedCount,
+			rejectedCount.sum(), queueWaitHistogram.snapshot(), runTimeHistogram.snapshot(), schedulingLatenessSnapshot());
+	}
+
+	/**
+	 * 开启指标时，任务开始执行前在工作线程中调用(供MyScheduledThreadPoolExecutor记录调度延迟)
+	 */
+	void onTaskStart(Runnable task, long startNanos) {}
+
+	LatencyHistogram.Snapshot schedulingLatenessSnapshot() {
+		return null;
+	}
+
+	/**
+	 * 排队等待时间直方图(供子类记录没有经过execute入队的任务)
+	 */
+	final LatencyHistogram queueWaitHistogram() {
+		return queueWaitHistogram;
+	}
+
 	protected void beforeExecute(Thread thread, Runnable runnable) {}
 
 	protected void afterExecute(Runnable runnable, Throwable throwable) {}
@@ -1,9 +1,14 @@
 package com.simon.credit.toolkit.concurrent;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.simon.credit.exception.ExceptionToolkits;
 
 /**
  * 自定义线程池
@@ -27,8 +32,26 @@ public class OptimizedThreadPool implements ExecutorService {
 	private static final int CPU_NUM = Runtime.getRuntime().availableProcessors();
 	/** 默认任务等待队列长度 */
 	private static final int DEFAULT_WORK_QUEUE_SIZE = 256;
+	/** 默认提交线程最长阻塞时间(毫秒) */
+	private static final long DEFAULT_MAX_BLOCK_MILLIS = 30000;
+
+	/**
+	 * 线程池饱和且提交线程阻塞超时后的处理方式
+	 */
+	public enum SaturationFallback {
+		/** 由提交线程自己执行任务，不丢任务，同时进一步降低提交速度 */
+		CALLER_RUNS,
+		/** 抛出RejectedExecutionException，由调用方决定重试或丢弃 */
+		ABORT
+	}
+
+	/** JDK21+的Executors.newVirtualThreadPerTaskExecutor，当前JVM不支持虚拟线程时为null */
+	private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutorFactory();
 
 	private ThreadPoolExecutor threadPool;
+	private BlockingPolicy blockingPolicy;
+	/** 自适应线程数控制器，固定大小的线程池为null */
+	private PoolSizeController sizeController;
 
 	private OptimizedThreadPool(int corePoolSize, int maximumPoolSize, int workQueueSize) {
 		this(corePoolSize, maximumPoolSize,
@@ -36,7 +59,18 @@ public class OptimizedThreadPool implements ExecutorService {
 	}
 
 	private OptimizedThreadPool(int corePoolSize, int maximumPoolSize, BlockingQueue<Runnable> workQueue) {
-		initThreadPool(corePoolSize, maximumPoolSize, workQueue);
+		this(corePoolSize, maximumPoolSize, workQueue, DEFAULT_MAX_BLOCK_MILLIS, TimeUnit.MILLISECONDS, SaturationFallback.CALLER_RUNS);
+	}
+
+	private OptimizedThreadPool(int corePoolSize, int maximumPoolSize, BlockingQueue<Runnable> workQueue,
+								long maxBlock, TimeUnit unit, SaturationFallback fallback) {
+		if (maxBlock < 0) {
+			throw new IllegalArgumentException("maxBlock can not be negative: " + maxBlock);
+		}
+		if (unit == null || fallback == null) {
+			throw new NullPointerException("unit and fallback can not be null.");
+		}
+		initThreadPool(corePoolSize, maximumPoolSize, workQueue, new BlockingPolicy(unit.toNanos(maxBlock), fallback));
 	}
 
 	/**
@@ -83,6 +117,126 @@ public class OptimizedThreadPool implements ExecutorService {
 		return new OptimizedThreadPool(corePoolSize, maximumPoolSize, new SynchronousQueue<Runnable>());
 	}
 
+	/**
+	 * 指定饱和处理方式的线程池
+	 * <pre>
+	 * 线程数达到maximumPoolSize且队列已满时，提交线程最多阻塞maxBlock等待队列空位(背压，放慢生产者)，
+	 * 超时后按fallback处理。阻塞次数、阻塞时长、调用者执行次数、拒绝次数可通过返回的线程池查询。
+	 * </pre>
+	 * @param corePoolSize 核心线程数
+	 * @param maximumPoolSize 最大线程数
+	 * @param workQueueSize 任务等待队列长度
+	 * @param maxBlock 提交线程最长阻塞时间，0表示不阻塞直接按fallback处理
+	 * @param unit 时间单位
+	 * @param fallback 阻塞超时后的处理方式
+	 */
+	public static final OptimizedThreadPool newThreadPool(int corePoolSize, int maximumPoolSize, int workQueueSize,
+														  long maxBlock, TimeUnit unit, SaturationFallback fallback) {
+		return new OptimizedThreadPool(corePoolSize, maximumPoolSize,
+			new ArrayBlockingQueue<Runnable>(workQueueSize <= 0 ? DEFAULT_WORK_QUEUE_SIZE : workQueueSize), maxBlock, unit, fallback);
+	}
+
+	/**
+	 * 自适应线程数的线程池(每秒采样一次)
+	 * @see #adaptiveThreadPool(int, int, int, long, TimeUnit)
+	 */
+	public static final OptimizedThreadPool adaptiveThreadPool(int minPoolSize, int maxPoolSize, int workQueueSize) {
+		return adaptiveThreadPool(minPoolSize, maxPoolSize, workQueueSize, 1, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * 自适应线程数的线程池
+	 * <pre>
+	 * cpuIntensiveThreadPool/ioIntensiveThreadPool按N+1、2N固定线程数，适合负载类型单一且已知的场景。
+	 * CPU密集与I/O密集混合、且比例随时间变化时，由PoolSizeController定期采样吞吐量和排队情况，
+	 * 在[minPoolSize, maxPoolSize]之间用爬山法调整线程数，初始为minPoolSize。
+	 * 调整记录通过getSizeController().getDecisions()查看。
+	 * </pre>
+	 * @param minPoolSize 最小线程数
+	 * @param maxPoolSize 最大线程数
+	 * @param workQueueSize 任务等待队列长度
+	 * @param samplePeriod 采样周期
+	 * @param unit 时间单位
+	 */
+	public static final OptimizedThreadPool adaptiveThreadPool(int minPoolSize, int maxPoolSize, int workQueueSize,
+															   long samplePeriod, TimeUnit unit) {
+		if (minPoolSize <= 0 || maxPoolSize < minPoolSize) {
+			throw new IllegalArgumentException("Illegal pool size range: [" + minPoolSize + ", " + maxPoolSize + "]");
+		}
+		OptimizedThreadPool pool = new OptimizedThreadPool(minPoolSize, minPoolSize, workQueueSize);
+		pool.sizeController = new PoolSizeController(pool.threadPool, minPoolSize, maxPoolSize, samplePeriod, unit);
+		pool.sizeController.start();
+		return pool;
+	}
+
+	/**
+	 * 当前JVM是否支持虚拟线程(JDK21+)
+	 */
+	public static final boolean isVirtualThreadSupported() {
+		return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+	}
+
+	/**
+	 * 每个任务一个虚拟线程的线程池
+	 * <pre>
+	 * 1、JDK21+：每个任务一个虚拟线程，阻塞I/O时虚拟线程从载体线程上卸载，大量并发阻塞任务只占用少量OS线程
+	 * 2、JDK21以下：退化为jdkCachedThreadPool(每个并发任务一个平台线程)
+	 * 运行时通过反射选择，本类仍按Java 8编译。
+	 * 注意：虚拟线程在synchronized块内阻塞会钉住载体线程，任务中的阻塞等待应使用MyReentrantLock等基于LockSupport的同步器。
+	 * </pre>
+	 */
+	public static final ExecutorService virtualThreadPerTaskExecutor() {
+		if (!isVirtualThreadSupported()) {
+			return jdkCachedThreadPool();
+		}
+		return newVirtualThreadExecutor();
+	}
+
+	/**
+	 * 限制并发数的虚拟线程池
+	 * <pre>
+	 * 虚拟线程本身几乎没有数量限制，但下游资源(连接池、远程服务)有，maxConcurrency限制同时执行的任务数：
+	 * 1、JDK21+：每个任务仍立即创建虚拟线程，在虚拟线程内获取信号量许可后才执行，等待许可的虚拟线程不占用载体线程，提交线程不阻塞
+	 * 2、JDK21以下：退化为maxConcurrency个平台线程、无界队列的线程池，OS线程数同样不超过maxConcurrency
+	 * </pre>
+	 * @param maxConcurrency 同时执行的最大任务数
+	 */
+	public static final ExecutorService virtualThreadPerTaskExecutor(int maxConcurrency) {
+		if (maxConcurrency <= 0) {
+			throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+		}
+		if (!isVirtualThreadSupported()) {
+			return new OptimizedThreadPool(maxConcurrency, maxConcurrency, new LinkedBlockingQueue<Runnable>());
+		}
+		return new ConcurrencyLimitedExecutor(newVirtualThreadExecutor(), maxConcurrency);
+	}
+
+	private static ExecutorService newVirtualThreadExecutor() {
+		try {
+			return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+		} catch (IllegalAccessException e) {
+			throw ExceptionToolkits.illegalStateException("create virtual thread executor error.", e);
+		} catch (InvocationTargetException e) {
+			throw ExceptionToolkits.illegalStateException("create virtual thread executor error.", e.getCause());
+		}
+	}
+
+	/**
+	 * 查找虚拟线程工厂方法：JDK19/20中该方法存在但属于预览特性，未开启预览时调用会抛异常，因此试创建一次
+	 */
+	private static Method findVirtualThreadExecutorFactory() {
+		try {
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			ExecutorService probe = (ExecutorService) method.invoke(null);
+			probe.shutdown();
+			return method;
+		} catch (Exception e) {// NoSuchMethodException或预览特性未开启
+			return null;
+		} catch (LinkageError e) {
+			return null;
+		}
+	}
+
 	/**
 	 * === 自定义线程池初始化方法 ===
 	 * <pre>
@@ -94,9 +248,9 @@ public class OptimizedThreadPool implements ExecutorService {
 	 * threadFactory 新建线程工厂----new CustomThreadFactory()====自定义线程工厂 
 	 * </pre>
 	 */
-	private void initThreadPool(int corePoolSize, int maximumPoolSize, BlockingQueue<Runnable> workQueue) {
+	private void initThreadPool(int corePoolSize, int maximumPoolSize, BlockingQueue<Runnable> workQueue, BlockingPolicy handler) {
 		ThreadFactory threadFactory = new SelfNamingThreadFactory();
-		RejectedExecutionHandler handler = new BlockingPolicy();
+		this.blockingPolicy = handler;
 
 		// 创建线程池
 		this.threadPool = new ThreadPoolExecutor(corePoolSize, maximumPoolSize, 60, TimeUnit.SECONDS, workQueue, threadFactory, handler);
@@ -126,16 +280,99 @@ public class OptimizedThreadPool implements ExecutorService {
 	 * AbortPolicy(default)	：直接抛出RejectedExecutionException异常阻止系统正常运行
 	 * DiscardPolicy		：直接丢弃任务，不予任何处理也不抛出异常。如果允许任务丢失，这是最好的一种方案
 	 * DiscardOldestPolicy	：抛弃队列中等待最久的任务，然后把当前任务加入队列中尝试再次提交当前任务
+	 *
+	 * 阻塞策略：
+	 * 1、线程池已关闭：直接拒绝，不再入队
+	 * 2、提交线程阻塞等待队列空位，最多等待maxBlockNanos(有界的put)，等到空位即入队
+	 * 3、等待期间线程池被关闭：把任务从队列中移除并拒绝(已被工作线程取走的除外)
+	 * 4、等待超时：按fallback由调用者执行或抛出RejectedExecutionException；等待中被中断则恢复中断标志并拒绝
 	 * </pre>
 	 * @author XUZIMING 2019-11-04
 	 */
-	private class BlockingPolicy implements RejectedExecutionHandler {
+	private static class BlockingPolicy implements RejectedExecutionHandler {
+		private final long maxBlockNanos;
+		private final SaturationFallback fallback;
+
+		private final LongAdder blockedCount = new LongAdder();
+		private final LongAdder blockedNanos = new LongAdder();
+		private final LongAdder callerRunsCount = new LongAdder();
+		private final LongAdder rejectedCount = new LongAdder();
+
+		BlockingPolicy(long maxBlockNanos, SaturationFallback fallback) {
+			this.maxBlockNanos = maxBlockNanos;
+			this.fallback = fallback;
+		}
+
 		@Override
 		public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
-			executor.getQueue().offer(task);
+			if (executor.isShutdown()) {
+				reject(task, "executor has been shut down.");
+			}
+
+			boolean queued = false;
+			boolean interrupted = false;
+			long start = System.nanoTime();
+			try {
+				queued = executor.getQueue().offer(task, maxBlockNanos, TimeUnit.NANOSECONDS);
+			} catch (InterruptedException e) {
+				interrupted = true;
+				Thread.currentThread().interrupt();
+			} finally {
+				blockedCount.increment();
+				blockedNanos.add(System.nanoTime() - start);
+			}
+
+			if (queued) {
+				if (executor.isShutdown() && executor.remove(task)) {
+					reject(task, "executor has been shut down while blocking.");
+				}
+				return;
+			}
+			if (interrupted) {
+				reject(task, "interrupted while blocking for queue space.");
+			}
+			if (fallback == SaturationFallback.CALLER_RUNS) {
+				callerRunsCount.increment();
+				task.run();
+				return;
+			}
+			reject(task, "queue still full after blocking " + TimeUnit.NANOSECONDS.toMillis(maxBlockNanos) + "ms.");
+		}
+
+		private void reject(Runnable task, String reason) {
+			rejectedCount.increment();
+			throw new RejectedExecutionException("Task " + task + " rejected: " + reason);
 		}
 	}
 
+	/**
+	 * 因线程池饱和而阻塞过的提交次数
+	 */
+	public long getBlockedCount() {
+		return blockingPolicy.blockedCount.sum();
+	}
+
+	/**
+	 * 提交线程阻塞的累计时长
+	 */
+	public long getBlockedTime(TimeUnit unit) {
+		return unit.convert(blockingPolicy.blockedNanos.sum(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * 阻塞超时后由提交线程自己执行的任务数
+	 */
+	public long getCallerRunsCount() {
+		return blockingPolicy.callerRunsCount.sum();
+	}
+
+	/**
+	 * 被拒绝(未执行)的任务数：线程池已关闭、阻塞超时(ABORT)或阻塞时被中断
+	 */
+	public long getRejectedCount() {
+		return blockingPolicy.rejectedCount.sum();
+	}
+
 	@Override
 	public void execute(Runnable task) {
 		threadPool.execute(task);
@@ -153,14 +390,29 @@ public class OptimizedThreadPool implements ExecutorService {
 
 	@Override
 	public void shutdown() {
+		stopSizeController();
 		threadPool.shutdown();
 	}
 
 	@Override
 	public List<Runnable> shutdownNow() {
+		stopSizeController();
 		return threadPool.shutdownNow();
 	}
 
+	private void stopSizeController() {
+		if (sizeController != null) {
+			sizeController.stop();
+		}
+	}
+
+	/**
+	 * 自适应线程数控制器，非adaptiveThreadPool创建的线程池返回null
+	 */
+	public PoolSizeController getSizeController() {
+		return sizeController;
+	}
+
 	@Override
 	public boolean isTerminated() {
 		return threadPool.isTerminated();
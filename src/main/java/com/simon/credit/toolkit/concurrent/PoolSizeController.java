@@ -0,0 +1,347 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 线程池大小自适应控制器(爬山法)
+ * <pre>
+ * CPU密集型任务线程数超过核数不会提升吞吐，I/O密集型任务需要的线程数取决于阻塞比例，而业务的负载类型随时间变化。
+ * 控制器定期采样线程池的吞吐量(完成任务数/采样周期)和排队情况，在[minPoolSize, maxPoolSize]之间调整线程数：
+ * 1、有空闲线程且队列为空：减少线程(SHRINK)
+ * 2、上次增加了线程：吞吐提升超过阈值则继续增加，否则撤回这次增加(多出的线程没有收益，例如CPU已满)
+ * 3、上次减少了线程：吞吐下降超过阈值则撤回这次减少，否则继续减少(少了线程吞吐不变，说明线程多余)
+ * 4、队列有积压且不在冷却期：交替向上、向下试探
+ * 撤回之后进入冷却期，若干个周期内保持不变，避免在最优值附近频繁抖动。
+ * 排队等待时间按利特尔法则估算：排队任务数 / 吞吐量。
+ * 每次决策(含保持不变)记录为Decision，可通过getDecisions/getLastDecision观察。
+ * 采样在共享的单个守护线程中执行，调整通过ThreadPoolExecutor.setCorePoolSize/setMaximumPoolSize完成。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class PoolSizeController {
+
+	/** 采样线程：所有控制器共用，只负责采样和调整，不执行业务任务 */
+	private static final MyScheduledThreadPoolExecutor SAMPLER = new MyScheduledThreadPoolExecutor(1, new ThreadFactory() {
+		private AtomicInteger index = new AtomicInteger(0);
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, PoolSizeController.class.getName() + "_sampler_" + index.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	static {
+		SAMPLER.setRemoveOnCancelPolicy(true);
+	}
+
+	/** 吞吐变化超过该比例才认为有效(过滤采样噪声) */
+	private static final double DEFAULT_THRESHOLD = 0.05;
+
+	/** 撤回一次调整后，多少个采样周期内不再试探 */
+	private static final int COOLDOWN_PERIODS = 5;
+
+	/** 保留最近多少次决策 */
+	private static final int HISTORY_SIZE = 64;
+
+	/** 调整动作 */
+	public enum Action {
+		GROW, SHRINK, HOLD
+	}
+
+	/**
+	 * 一次调整决策
+	 */
+	public static final class Decision {
+		private final long timestamp;
+		private final Action action;
+		private final int fromSize;
+		private final int toSize;
+		private final double throughput;
+		private final int queuedTasks;
+		private final int activeThreads;
+		private final long estimatedQueueWaitMillis;
+		private final String reason;
+
+		Decision(long timestamp, Action action, int fromSize, int toSize, double throughput, int queuedTasks,
+				 int activeThreads, long estimatedQueueWaitMillis, String reason) {
+			this.timestamp = timestamp;
+			this.action = action;
+			this.fromSize = fromSize;
+			this.toSize = toSize;
+			this.throughput = throughput;
+			this.queuedTasks = queuedTasks;
+			this.activeThreads = activeThreads;
+			this.estimatedQueueWaitMillis = estimatedQueueWaitMillis;
+			this.reason = reason;
+		}
+
+		/** 决策时间(毫秒时间戳) */
+		public long getTimestamp() {
+			return timestamp;
+		}
+
+		public Action getAction() {
+			return action;
+		}
+
+		public int getFromSize() {
+			return fromSize;
+		}
+
+		public int getToSize() {
+			return toSize;
+		}
+
+		/** 采样周期内的吞吐量(任务数/秒) */
+		public double getThroughput() {
+			return throughput;
+		}
+
+		public int getQueuedTasks() {
+			return queuedTasks;
+		}
+
+		public int getActiveThreads() {
+			return activeThreads;
+		}
+
+		/** 按利特尔法则估算的排队等待时间，没有吞吐但有积压时为Long.MAX_VALUE */
+		public long getEstimatedQueueWaitMillis() {
+			return estimatedQueueWaitMillis;
+		}
+
+		public String getReason() {
+			return reason;
+		}
+
+		@Override
+		public String toString() {
+			return action + " " + fromSize + "->" + toSize + " {throughput=" + Math.round(throughput) + "/s, queued="
+				+ queuedTasks + ", active=" + activeThreads + ", estimatedQueueWaitMillis="
+				+ (estimatedQueueWaitMillis == Long.MAX_VALUE ? "inf" : String.valueOf(estimatedQueueWaitMillis))
+				+ ", reason=" + reason + "}";
+		}
+	}
+
+	private final ThreadPoolExecutor pool;
+	private final int minPoolSize;
+	private final int maxPoolSize;
+	private final int step;
+	private final long periodNanos;
+
+	private final Deque<Decision> decisions = new ArrayDeque<Decision>(HISTORY_SIZE);
+	private volatile ScheduledFuture<?> sampling;
+
+	// 以下状态只在采样线程中读写
+	private long lastCompleted;
+	private long lastSampleNanos;
+	private double lastThroughput;
+	private Action lastAction = Action.HOLD;
+	private Action lastProbe = Action.SHRINK;
+	private int cooldown;
+
+	/**
+	 * @param pool 被控制的线程池
+	 * @param minPoolSize 最小线程数
+	 * @param maxPoolSize 最大线程数
+	 * @param period 采样周期
+	 * @param unit 时间单位
+	 */
+	PoolSizeController(ThreadPoolExecutor pool, int minPoolSize, int maxPoolSize, long period, TimeUnit unit) {
+		if (minPoolSize <= 0 || maxPoolSize < minPoolSize) {
+			throw new IllegalArgumentException("Illegal pool size range: [" + minPoolSize + ", " + maxPoolSize + "]");
+		}
+		if (period <= 0) {
+			throw new IllegalArgumentException("period must be positive: " + period);
+		}
+		this.pool = pool;
+		this.minPoolSize = minPoolSize;
+		this.maxPoolSize = maxPoolSize;
+		this.step = Math.max(1, (maxPoolSize - minPoolSize) / 16);
+		this.periodNanos = unit.toNanos(period);
+	}
+
+	/**
+	 * 开始定期采样
+	 */
+	synchronized void start() {
+		if (sampling != null) {
+			return;
+		}
+		lastCompleted = pool.getCompletedTaskCount();
+		lastSampleNanos = System.nanoTime();
+		sampling = SAMPLER.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					sample();
+				} catch (RuntimeException e) {// 不能让异常终止周期任务
+					record(new Decision(System.currentTimeMillis(), Action.HOLD, currentSize(), currentSize(), 0, 0, 0, 0,
+						"sample error: " + e));
+				}
+			}
+		}, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * 停止采样(线程池关闭时调用)，线程数保持当前值
+	 */
+	synchronized void stop() {
+		if (sampling != null) {
+			sampling.cancel(false);
+		}
+	}
+
+	void sample() {
+		if (pool.isShutdown()) {
+			stop();
+			return;
+		}
+
+		long now = System.nanoTime();
+		long completed = pool.getCompletedTaskCount();
+		double throughput = (completed - lastCompleted) * 1e9 / Math.max(1, now - lastSampleNanos);
+		lastCompleted = completed;
+		lastSampleNanos = now;
+
+		int queued = pool.getQueue().size();
+		int active = pool.getActiveCount();
+		int size = currentSize();
+		long estimatedWaitMillis = queued == 0 ? 0 : throughput <= 0 ? Long.MAX_VALUE : (long) (queued * 1000 / throughput);
+		double change = lastThroughput > 0 ? (throughput - lastThroughput) / lastThroughput : 0;
+
+		Action action = Action.HOLD;
+		String reason;
+		boolean revert = false;
+		if (cooldown > 0) {
+			cooldown--;
+		}
+
+		if (queued == 0 && active <= size - step) {
+			action = Action.SHRINK;
+			reason = "idle threads";
+		} else if (lastAction == Action.GROW) {
+			if (change > DEFAULT_THRESHOLD) {
+				action = Action.GROW;
+				reason = "throughput " + percent(change) + " after growing";
+			} else {
+				action = Action.SHRINK;
+				revert = true;
+				reason = "no gain after growing (" + percent(change) + "), revert";
+			}
+		} else if (lastAction == Action.SHRINK) {
+			if (change < -DEFAULT_THRESHOLD) {
+				action = Action.GROW;
+				revert = true;
+				reason = "throughput " + percent(change) + " after shrinking, revert";
+			} else {
+				action = Action.SHRINK;
+				reason = "no loss after shrinking (" + percent(change) + ")";
+			}
+		} else if (queued > 0 && cooldown == 0) {
+			action = lastProbe == Action.GROW ? Action.SHRINK : Action.GROW;
+			lastProbe = action;
+			reason = "queue backlog, probing";
+		} else {
+			reason = queued > 0 ? "cooling down" : "steady";
+		}
+		if (revert) {
+			cooldown = COOLDOWN_PERIODS;
+		}
+
+		int target = size;
+		if (action == Action.GROW) {
+			target = Math.min(maxPoolSize, size + step);
+		} else if (action == Action.SHRINK) {
+			target = Math.max(minPoolSize, size - step);
+		}
+		if (target == size && action != Action.HOLD) {
+			action = Action.HOLD;
+			reason += " (at bound)";
+		}
+		if (target != size) {
+			resize(target);
+		}
+
+		lastAction = revert ? Action.HOLD : action;// 撤回之后不再沿该方向评估
+		lastThroughput = throughput;
+		record(new Decision(System.currentTimeMillis(), action, size, target, throughput, queued, active, estimatedWaitMillis, reason));
+	}
+
+	private void resize(int target) {
+		if (target > pool.getMaximumPoolSize()) {
+			pool.setMaximumPoolSize(target);
+			pool.setCorePoolSize(target);
+		} else {
+			pool.setCorePoolSize(target);
+			pool.setMaximumPoolSize(target);
+		}
+	}
+
+	private int currentSize() {
+		return pool.getCorePoolSize();
+	}
+
+	private static String percent(double change) {
+		return (change > 0 ? "+" : "") + Math.round(change * 100) + "%";
+	}
+
+	private void record(Decision decision) {
+		synchronized (decisions) {
+			if (decisions.size() == HISTORY_SIZE) {
+				decisions.removeFirst();
+			}
+			decisions.addLast(decision);
+		}
+	}
+
+	/**
+	 * 最近的决策(按时间先后)
+	 */
+	public List<Decision> getDecisions() {
+		synchronized (decisions) {
+			return new ArrayList<Decision>(decisions);
+		}
+	}
+
+	/**
+	 * 最近一次决策，还没有采样时为null
+	 */
+	public Decision getLastDecision() {
+		synchronized (decisions) {
+			return decisions.peekLast();
+		}
+	}
+
+	public int getMinPoolSize() {
+		return minPoolSize;
+	}
+
+	public int getMaxPoolSize() {
+		return maxPoolSize;
+	}
+
+	/**
+	 * 当前线程数目标
+	 */
+	public int getCurrentPoolSize() {
+		return currentSize();
+	}
+
+	@Override
+	public String toString() {
+		return "PoolSizeController{range=[" + minPoolSize + ", " + maxPoolSize + "], current=" + currentSize()
+			+ ", last=" + getLastDecision() + "}";
+	}
+
+}
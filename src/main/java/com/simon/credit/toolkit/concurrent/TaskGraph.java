@@ -0,0 +1,167 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+import com.simon.credit.toolkit.concurrent.GraphRun.NodeRun;
+import com.simon.credit.toolkit.concurrent.GraphRun.NodeState;
+import com.simon.credit.toolkit.concurrent.TaskGraphBuilder.NodeDefinition;
+
+/**
+ * 任务图(DAG)，由TaskGraphBuilder构建，不可变，可以多次执行
+ * <pre>
+ * 执行规则：
+ * 1、每个节点在其所有依赖节点都完成的那一刻提交到线程池，没有依赖的节点立即提交，互不依赖的节点并行执行
+ * 2、依赖节点失败(或被跳过)时，下游节点不再执行，状态为SKIPPED
+ * 3、整个图执行完毕后得到GraphRun：每个节点的结果、状态、开始/结束时间，以及本次执行的关键路径
+ * 等待依赖不占用线程：节点由最后完成的依赖节点的回调触发提交。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public final class TaskGraph {
+
+	/** 按拓扑序排列的节点 */
+	private final List<NodeDefinition> nodes;
+
+	TaskGraph(List<NodeDefinition> nodes) {
+		this.nodes = nodes;
+	}
+
+	/**
+	 * 异步执行任务图
+	 * @param executor 执行节点任务的线程池
+	 * @return 所有节点结束后完成(节点失败不会使其异常完成，失败信息在GraphRun中)
+	 */
+	public AsyncResult<GraphRun> execute(final ExecutorService executor) {
+		final long startNanos = System.nanoTime();
+		final int nodeCount = nodes.size();
+		final long[] nodeStarts = new long[nodeCount];
+		final long[] nodeEnds = new long[nodeCount];
+		final boolean[] started = new boolean[nodeCount];
+		final Map<String, CompletableFuture<Object>> futures = new HashMap<String, CompletableFuture<Object>>(nodeCount * 4 / 3 + 1);
+		final CompletableFuture<?>[] all = new CompletableFuture<?>[nodeCount];
+
+		for (int i = 0; i < nodeCount; i++) {
+			final int index = i;
+			final NodeDefinition node = nodes.get(i);
+			final CompletableFuture<Object> future = new CompletableFuture<Object>();
+			final CompletableFuture<?>[] dependencies = new CompletableFuture<?>[node.dependsOn.length];
+			for (int j = 0; j < dependencies.length; j++) {
+				dependencies[j] = futures.get(node.dependsOn[j]);// 拓扑序保证依赖已创建
+			}
+			futures.put(node.name, future);
+			all[i] = future;
+
+			CompletableFuture.allOf(dependencies).whenComplete(new BiConsumer<Void, Throwable>() {
+				@Override
+				public void accept(Void ignored, Throwable dependencyError) {
+					if (dependencyError != null) {
+						future.completeExceptionally(new SkippedException(unwrap(dependencyError)));
+						return;
+					}
+
+					final Map<String, Object> inputs = new LinkedHashMap<String, Object>();
+					for (int j = 0; j < dependencies.length; j++) {
+						inputs.put(node.dependsOn[j], dependencies[j].join());
+					}
+					try {
+						executor.execute(new Runnable() {
+							@Override
+							public void run() {
+								started[index] = true;
+								nodeStarts[index] = System.nanoTime();
+								try {
+									Object result = node.task.call(new TaskInputs(inputs));
+									nodeEnds[index] = System.nanoTime();
+									future.complete(result);
+								} catch (Throwable e) {
+									nodeEnds[index] = System.nanoTime();
+									future.completeExceptionally(e);
+								}
+							}
+						});
+					} catch (RuntimeException e) {// 线程池拒绝
+						future.completeExceptionally(e);
+					}
+				}
+			});
+		}
+
+		// 节点失败不影响整体完成，统一在handle中汇总
+		return AsyncResult.of(CompletableFuture.allOf(all).handle(new BiFunction<Void, Throwable, GraphRun>() {
+			@Override
+			public GraphRun apply(Void ignored, Throwable error) {
+				long endNanos = System.nanoTime();
+				Map<String, NodeRun> runs = new LinkedHashMap<String, NodeRun>();
+				for (int i = 0; i < nodeCount; i++) {
+					NodeDefinition node = nodes.get(i);
+					CompletableFuture<Object> future = futures.get(node.name);
+					if (!future.isCompletedExceptionally()) {
+						runs.put(node.name, new NodeRun(node.name, NodeState.SUCCEEDED, future.join(), null,
+							nodeStarts[i] - startNanos, nodeEnds[i] - startNanos, node.dependsOn));
+						continue;
+					}
+
+					Throwable cause = null;
+					try {
+						future.join();
+					} catch (CompletionException e) {
+						cause = unwrap(e);
+					}
+					if (cause instanceof SkippedException) {
+						runs.put(node.name, new NodeRun(node.name, NodeState.SKIPPED, null, cause.getCause(), -1, -1, node.dependsOn));
+					} else if (!started[i]) {// 提交被拒绝
+						runs.put(node.name, new NodeRun(node.name, NodeState.FAILED, null, cause, -1, -1, node.dependsOn));
+					} else {
+						runs.put(node.name, new NodeRun(node.name, NodeState.FAILED, null, cause,
+							nodeStarts[i] - startNanos, nodeEnds[i] - startNanos, node.dependsOn));
+					}
+				}
+				return new GraphRun(runs, endNanos - startNanos);
+			}
+		}));
+	}
+
+	/**
+	 * 节点名称(拓扑序)
+	 */
+	public List<String> getTaskNames() {
+		List<String> names = new ArrayList<String>(nodes.size());
+		for (NodeDefinition node : nodes) {
+			names.add(node.name);
+		}
+		return names;
+	}
+
+	private static Throwable unwrap(Throwable error) {
+		while (error instanceof CompletionException && error.getCause() != null) {
+			error = error.getCause();
+		}
+		return error;
+	}
+
+	/**
+	 * 依赖失败导致跳过，cause为上游的原始异常
+	 */
+	private static final class SkippedException extends Exception {
+		private static final long serialVersionUID = 3027683425431868931L;
+
+		SkippedException(Throwable cause) {
+			super(cause instanceof SkippedException ? cause.getCause() : cause);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "TaskGraph" + nodes;
+	}
+
+}
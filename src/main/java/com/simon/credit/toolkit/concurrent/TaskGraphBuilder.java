@@ -0,0 +1,178 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 任务图(DAG)构造器
+ * <pre>
+ * AsyncTaskBuilder只能组装互相独立的任务，TaskGraphBuilder中的任务可以声明依赖：
+ * builder.addTask("A", taskA)
+ *        .addTask("B", taskB)
+ *        .addTask("C", taskC, "A")       // C依赖A，执行时通过inputs.get("A")拿到A的结果
+ *        .addTask("D", taskD, "B", "C")  // D依赖B和C
+ *        .build();
+ * build时校验：名称不能重复、依赖必须存在、不能有环(有环时报出环路)。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class TaskGraphBuilder {
+
+	/** 按添加顺序保存的节点定义 */
+	private final Map<String, NodeDefinition> definitions = new LinkedHashMap<String, NodeDefinition>();
+
+	/**
+	 * 添加节点
+	 * @param name 节点名称
+	 * @param task 节点任务，可以读取依赖节点的结果
+	 * @param dependsOn 依赖的节点名称
+	 */
+	public TaskGraphBuilder addTask(String name, GraphTask<?> task, String... dependsOn) {
+		if (name == null || task == null) {
+			throw new NullPointerException("task name and task can not be null.");
+		}
+		if (definitions.containsKey(name)) {
+			throw new IllegalArgumentException("Duplicate task name: " + name);
+		}
+		definitions.put(name, new NodeDefinition(name, task, dependsOn == null ? new String[0] : dependsOn.clone()));
+		return this;
+	}
+
+	/**
+	 * 添加不需要读取依赖结果的节点(例如AsyncTaskBuilder中的IAsyncTask)
+	 * @param name 节点名称
+	 * @param task 节点任务
+	 * @param dependsOn 依赖的节点名称(只约束执行顺序)
+	 */
+	public <T> TaskGraphBuilder addTask(String name, final IAsyncTask<T> task, String... dependsOn) {
+		if (task == null) {
+			throw new NullPointerException("task can not be null.");
+		}
+		return addTask(name, new GraphTask<T>() {
+			@Override
+			public T call(TaskInputs inputs) throws Exception {
+				return task.call();
+			}
+		}, dependsOn);
+	}
+
+	/**
+	 * 校验并构建任务图
+	 * @throws IllegalArgumentException 依赖不存在或存在环
+	 */
+	public TaskGraph build() {
+		if (definitions.isEmpty()) {
+			throw new IllegalStateException("Task graph has no task.");
+		}
+
+		Map<String, Integer> inDegrees = new HashMap<String, Integer>();
+		Map<String, List<String>> dependents = new HashMap<String, List<String>>();
+		for (NodeDefinition definition : definitions.values()) {
+			inDegrees.put(definition.name, definition.dependsOn.length);
+			dependents.put(definition.name, new ArrayList<String>());
+		}
+		for (NodeDefinition definition : definitions.values()) {
+			for (String dependency : definition.dependsOn) {
+				if (!definitions.containsKey(dependency)) {
+					throw new IllegalArgumentException("Task '" + definition.name + "' depends on unknown task '" + dependency + "'");
+				}
+				dependents.get(dependency).add(definition.name);
+			}
+		}
+
+		// Kahn拓扑排序
+		List<String> order = new ArrayList<String>(definitions.size());
+		Deque<String> ready = new ArrayDeque<String>();
+		for (NodeDefinition definition : definitions.values()) {
+			if (definition.dependsOn.length == 0) {
+				ready.add(definition.name);
+			}
+		}
+		while (!ready.isEmpty()) {
+			String name = ready.poll();
+			order.add(name);
+			for (String dependent : dependents.get(name)) {
+				int inDegree = inDegrees.get(dependent) - 1;
+				inDegrees.put(dependent, inDegree);
+				if (inDegree == 0) {
+					ready.add(dependent);
+				}
+			}
+		}
+		if (order.size() < definitions.size()) {
+			throw new IllegalArgumentException("Cycle detected in task graph: " + findCycle(inDegrees));
+		}
+
+		List<NodeDefinition> sorted = new ArrayList<NodeDefinition>(order.size());
+		for (String name : order) {
+			sorted.add(definitions.get(name));
+		}
+		return new TaskGraph(sorted);
+	}
+
+	/**
+	 * 在拓扑排序剩下的节点(入度大于0)中找出一个环，例如 A -> B -> C -> A
+	 */
+	private String findCycle(Map<String, Integer> inDegrees) {
+		String start = null;
+		for (Map.Entry<String, Integer> entry : inDegrees.entrySet()) {
+			if (entry.getValue() > 0) {
+				start = entry.getKey();
+				break;
+			}
+		}
+
+		// 剩下的节点都至少有一个剩下的依赖，沿依赖一直走必然回到走过的节点
+		List<String> path = new ArrayList<String>();
+		Map<String, Integer> visitedAt = new HashMap<String, Integer>();
+		String current = start;
+		while (!visitedAt.containsKey(current)) {
+			visitedAt.put(current, path.size());
+			path.add(current);
+			for (String dependency : definitions.get(current).dependsOn) {
+				if (inDegrees.get(dependency) > 0) {
+					current = dependency;
+					break;
+				}
+			}
+		}
+
+		List<String> cycle = new ArrayList<String>(path.subList(visitedAt.get(current), path.size()));
+		cycle.add(current);
+		StringBuilder text = new StringBuilder();
+		for (int i = cycle.size() - 1; i >= 0; i--) {// 按"被依赖 -> 依赖方"的方向输出
+			text.append(cycle.get(i));
+			if (i > 0) {
+				text.append(" -> ");
+			}
+		}
+		return text.toString();
+	}
+
+	/**
+	 * 节点定义
+	 */
+	static final class NodeDefinition {
+		final String name;
+		final GraphTask<?> task;
+		final String[] dependsOn;
+
+		NodeDefinition(String name, GraphTask<?> task, String[] dependsOn) {
+			this.name = name;
+			this.task = task;
+			this.dependsOn = dependsOn;
+		}
+
+		@Override
+		public String toString() {
+			return name + Arrays.toString(dependsOn);
+		}
+	}
+
+}
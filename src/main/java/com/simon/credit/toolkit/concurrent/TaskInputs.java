@@ -0,0 +1,40 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 任务图节点的输入：依赖节点的名称 -> 结果
+ * @author XUZIMING 2026-10-18
+ */
+public final class TaskInputs {
+
+	private final Map<String, Object> results;
+
+	TaskInputs(Map<String, Object> results) {
+		this.results = Collections.unmodifiableMap(results);
+	}
+
+	/**
+	 * 依赖节点的结果
+	 * @param name 依赖节点名称
+	 * @throws IllegalArgumentException 该节点不是当前节点的依赖
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> V get(String name) {
+		if (!results.containsKey(name)) {
+			throw new IllegalArgumentException("Task '" + name + "' is not a dependency, dependencies: " + results.keySet());
+		}
+		return (V) results.get(name);
+	}
+
+	public Map<String, Object> asMap() {
+		return results;
+	}
+
+	@Override
+	public String toString() {
+		return results.toString();
+	}
+
+}
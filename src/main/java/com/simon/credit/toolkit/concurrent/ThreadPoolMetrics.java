@@ -0,0 +1,90 @@
+package com.simon.credit.toolkit.concurrent;
+
+/**
+ * 线程池运行指标快照(MyThreadPoolExecutor.getMetrics)
+ * <pre>
+ * queueWait：任务从提交到开始执行的等待时间，偏高说明线程不够或任务堆积
+ * runTime：任务执行时间，偏高说明任务本身慢(下游慢、锁竞争等)
+ * schedulingLateness：定时任务实际开始时间晚于计划时间的部分(只有MyScheduledThreadPoolExecutor有)
+ * 耗时直方图需要先开启setMetricsEnabled(true)，线程数、拒绝数等计数始终可用。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public final class ThreadPoolMetrics {
+
+	private final int poolSize;
+	private final int largestPoolSize;
+	private final int activeCount;
+	private final int queuedTaskCount;
+	private final long completedTaskCount;
+	private final long rejectedCount;
+	private final LatencyHistogram.Snapshot queueWait;
+	private final LatencyHistogram.Snapshot runTime;
+	private final LatencyHistogram.Snapshot schedulingLateness;
+
+	ThreadPoolMetrics(int poolSize, int largestPoolSize, int activeCount, int queuedTaskCount, long completedTaskCount,
+					  long rejectedCount, LatencyHistogram.Snapshot queueWait, LatencyHistogram.Snapshot runTime,
+					  LatencyHistogram.Snapshot schedulingLateness) {
+		this.poolSize = poolSize;
+		this.largestPoolSize = largestPoolSize;
+		this.activeCount = activeCount;
+		this.queuedTaskCount = queuedTaskCount;
+		this.completedTaskCount = completedTaskCount;
+		this.rejectedCount = rejectedCount;
+		this.queueWait = queueWait;
+		this.runTime = runTime;
+		this.schedulingLateness = schedulingLateness;
+	}
+
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	public int getLargestPoolSize() {
+		return largestPoolSize;
+	}
+
+	/** 正在执行任务的线程数 */
+	public int getActiveCount() {
+		return activeCount;
+	}
+
+	/** 空闲(等待任务)的线程数 */
+	public int getIdleCount() {
+		return poolSize - activeCount;
+	}
+
+	public int getQueuedTaskCount() {
+		return queuedTaskCount;
+	}
+
+	public long getCompletedTaskCount() {
+		return completedTaskCount;
+	}
+
+	public long getRejectedCount() {
+		return rejectedCount;
+	}
+
+	public LatencyHistogram.Snapshot getQueueWait() {
+		return queueWait;
+	}
+
+	public LatencyHistogram.Snapshot getRunTime() {
+		return runTime;
+	}
+
+	/** 非定时线程池为null */
+	public LatencyHistogram.Snapshot getSchedulingLateness() {
+		return schedulingLateness;
+	}
+
+	@Override
+	public String toString() {
+		return "ThreadPoolMetrics{poolSize=" + poolSize + ", largestPoolSize=" + largestPoolSize + ", active=" + activeCount
+			+ ", idle=" + getIdleCount() + ", queued=" + queuedTaskCount + ", completed=" + completedTaskCount
+			+ ", rejected=" + rejectedCount + ", queueWait=" + queueWait + ", runTime=" + runTime
+			+ (schedulingLateness == null ? "" : ", schedulingLateness=" + schedulingLateness) + "}";
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 工作窃取双端队列(Chase-Lev)
+ * <pre>
+ * 单个所有者、多个窃取者的无锁双端队列：
+ * 1、所有者线程在底部push/pop(后进先出，刚提交的任务数据还在CPU缓存中)，无竞争时不需要CAS
+ * 2、其他线程从顶部steal(先进先出，偷走最早提交的任务)，窃取者之间通过CAS top竞争
+ * 3、只剩最后一个任务时，所有者的pop也要CAS top，与窃取者竞争
+ * 4、环形数组满时由所有者扩容为2倍，窃取者读到旧数组也能拿到正确的任务(所有者不再写旧数组)
+ * push/pop只能由所有者线程调用，steal/size/isEmpty可由任意线程调用。
+ * 被窃取的槽位不会立即置空，任务引用会保留到所有者覆盖该槽位为止(最多数组长度个)。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+final class WorkStealingDeque {
+
+	private static final int INITIAL_CAPACITY = 1 << 6;
+
+	/** 下一个被窃取的位置，窃取者和所有者(最后一个任务时)通过CAS推进 */
+	private final AtomicLong top = new AtomicLong();
+	/** 下一个push的位置，只有所有者写 */
+	private volatile long bottom;
+	private volatile AtomicReferenceArray<Runnable> array = new AtomicReferenceArray<Runnable>(INITIAL_CAPACITY);
+
+	/**
+	 * 所有者在底部加入任务
+	 */
+	void push(Runnable task) {
+		long b = bottom;
+		long t = top.get();
+		AtomicReferenceArray<Runnable> a = array;
+		if (b - t >= a.length()) {
+			a = grow(a, t, b);
+		}
+		a.set((int) b & (a.length() - 1), task);
+		bottom = b + 1;
+	}
+
+	/**
+	 * 所有者从底部取出最后加入的任务
+	 * @return 队列为空(或最后一个任务被窃取)时返回null
+	 */
+	Runnable pop() {
+		long b = bottom - 1;
+		AtomicReferenceArray<Runnable> a = array;
+		bottom = b;// volatile写之后再读top，保证与窃取者的CAS不会同时拿到同一个任务
+		long t = top.get();
+		if (t > b) {// 队列为空
+			bottom = b + 1;
+			return null;
+		}
+
+		int index = (int) b & (a.length() - 1);
+		Runnable task = a.get(index);
+		if (t < b) {// 不止一个任务，窃取者碰不到底部
+			a.set(index, null);
+			return task;
+		}
+
+		// 最后一个任务，与窃取者竞争
+		if (top.compareAndSet(t, t + 1)) {
+			a.set(index, null);
+		} else {
+			task = null;
+		}
+		bottom = b + 1;
+		return task;
+	}
+
+	/**
+	 * 从顶部窃取最早加入的任务，CAS失败(被其他窃取者或所有者抢先)时重试
+	 * @return 队列为空时返回null
+	 */
+	Runnable steal() {
+		for (;;) {
+			long t = top.get();
+			long b = bottom;
+			if (t >= b) {
+				return null;
+			}
+			AtomicReferenceArray<Runnable> a = array;
+			Runnable task = a.get((int) t & (a.length() - 1));
+			if (top.compareAndSet(t, t + 1)) {
+				return task;
+			}
+		}
+	}
+
+	int size() {
+		long size = bottom - top.get();
+		return size < 0 ? 0 : (int) size;
+	}
+
+	boolean isEmpty() {
+		return bottom <= top.get();
+	}
+
+	private AtomicReferenceArray<Runnable> grow(AtomicReferenceArray<Runnable> old, long t, long b) {
+		int capacity = old.length() << 1;
+		if (capacity <= 0) {
+			throw new IllegalStateException("Work stealing deque capacity exceeded.");
+		}
+		AtomicReferenceArray<Runnable> a = new AtomicReferenceArray<Runnable>(capacity);
+		for (long i = t; i < b; i++) {
+			a.set((int) i & (capacity - 1), old.get((int) i & (old.length() - 1)));
+		}
+		array = a;
+		return a;
+	}
+
+}
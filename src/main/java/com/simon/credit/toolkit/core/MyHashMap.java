@@ -294,6 +294,7 @@ public class MyHashMap<K, V> extends MyAbstractMap<K, V> implements Map<K, V>, C
 					prev.next = next;
 				}
 				entry.recordRemoval(this);
+				afterEntryRemoval(entry.key, entry.value);
 				return entry;
 			}
 			prev = entry;
@@ -327,6 +328,7 @@ public class MyHashMap<K, V> extends MyAbstractMap<K, V> implements Map<K, V>, C
 					prev.next = next;
 				}
 				entry.recordRemoval(this);
+				afterEntryRemoval(entry.key, entry.value);
 				return entry;
 			}
 			prev = entry;
@@ -336,6 +338,16 @@ public class MyHashMap<K, V> extends MyAbstractMap<K, V> implements Map<K, V>, C
 		return entry;
 	}
 
+	/**
+	 * 键值对被删除后的回调(扩展点)
+	 * <pre>
+	 * remove、removeEldestEntry淘汰以及keySet/entrySet/values视图和迭代器的删除都会回调，clear不回调。
+	 * </pre>
+	 */
+	protected void afterEntryRemoval(K key, V value) {
+		// nothing to do
+	}
+
 	@SuppressWarnings("rawtypes")
 	public void clear() {
 		modCount++;
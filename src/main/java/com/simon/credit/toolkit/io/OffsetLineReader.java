@@ -0,0 +1,146 @@
+package com.simon.credit.toolkit.io;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 记录字节偏移量的文本行读取器
+ * <pre>
+ * 与LineIterator相同按行读取，另外记录已读取行结束处的字节偏移量，可以从任意行首的偏移量继续读取：
+ * 1、getOffset返回最后一次next返回的行(含换行符)之后的字节位置
+ * 2、new OffsetLineReader(file, encoding, offset) 从该位置开始读，用于中断后断点续读
+ *
+ * 按字节'\n'分行，适用于UTF-8、GBK、ISO-8859-1等换行符为单字节0x0A的编码，不支持UTF-16；行尾的'\r'会被去掉。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class OffsetLineReader implements Iterator<String>, Closeable {
+
+	private final InputStream input;
+	private final Charset charset;
+
+	/** 当前行的字节缓冲 */
+	private byte[] lineBuffer = new byte[256];
+
+	/** 已读取(含缓存行)的字节位置 */
+	private long readOffset;
+
+	/** 已返回行之后的字节位置 */
+	private long offset;
+
+	private String cachedLine;
+	private long cachedLineEnd;
+	private boolean hadFinished = false;
+
+	public OffsetLineReader(File file, String encoding) throws IOException {
+		this(file, encoding, 0);
+	}
+
+	/**
+	 * @param file 文件
+	 * @param encoding 编码
+	 * @param offset 开始读取的字节位置，必须是行首(0或某行换行符之后)
+	 */
+	public OffsetLineReader(File file, String encoding, long offset) throws IOException {
+		if (offset < 0 || offset > file.length()) {
+			throw new IllegalArgumentException("Illegal offset " + offset + " of file " + file + " with length " + file.length());
+		}
+		FileInputStream fileInput = IOToolkits.openInputStream(file);
+		try {
+			fileInput.getChannel().position(offset);
+		} catch (IOException e) {
+			IOToolkits.close(fileInput);
+			throw e;
+		}
+		this.input = new BufferedInputStream(fileInput, 64 * 1024);
+		this.charset = Charset.forName(encoding);
+		this.readOffset = offset;
+		this.offset = offset;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (cachedLine != null) {
+			return true;
+		}
+		if (hadFinished) {
+			return false;
+		}
+		try {
+			return readLine();
+		} catch (IOException ioe) {
+			close();
+			throw new IllegalStateException(ioe.toString());
+		}
+	}
+
+	@Override
+	public String next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException("没有更多可读行");
+		}
+		String currentLine = cachedLine;
+		cachedLine = null;
+		offset = cachedLineEnd;
+		return currentLine;
+	}
+
+	/**
+	 * 最后一次next返回的行之后的字节位置
+	 */
+	public long getOffset() {
+		return offset;
+	}
+
+	@Override
+	public void close() {
+		hadFinished = true;
+		cachedLine = null;
+		IOToolkits.close(input);
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("不支持在行迭代器进行删除");
+	}
+
+	private boolean readLine() throws IOException {
+		int length = 0;
+		int b;
+		while ((b = input.read()) != -1) {
+			readOffset++;
+			if (b == '\n') {
+				cacheLine(length);
+				return true;
+			}
+			if (length == lineBuffer.length) {
+				lineBuffer = Arrays.copyOf(lineBuffer, length << 1);
+			}
+			lineBuffer[length++] = (byte) b;
+		}
+
+		hadFinished = true;
+		if (length > 0) {// 最后一行没有换行符
+			cacheLine(length);
+			return true;
+		}
+		return false;
+	}
+
+	private void cacheLine(int length) {
+		if (length > 0 && lineBuffer[length - 1] == '\r') {
+			length--;
+		}
+		cachedLine = new String(lineBuffer, 0, length, charset);
+		cachedLineEnd = readOffset;
+	}
+
+}
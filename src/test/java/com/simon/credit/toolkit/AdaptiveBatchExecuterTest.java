@@ -0,0 +1,46 @@
+package com.simon.credit.toolkit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.simon.credit.toolkit.batch.AdaptiveBatchSizer;
+import com.simon.credit.toolkit.batch.BatchCallback;
+import com.simon.credit.toolkit.batch.BatchExecuter;
+import com.simon.credit.toolkit.lang.ThreadToolkits;
+
+public class AdaptiveBatchExecuterTest {
+
+	public static void main(String[] args) {
+		List<Integer> rows = new ArrayList<Integer>(100000);
+		for (int i = 0; i < 100000; i++) {
+			rows.add(i);
+		}
+
+		// 模拟下游：每批固定2ms往返 + 每1000行1ms，目标单批耗时20ms，理想批大小约18000
+		AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, 50000, 100, 20, TimeUnit.MILLISECONDS);
+		BatchExecuter executer = new BatchExecuter(sizer);
+
+		long start = System.currentTimeMillis();
+		executer.execute(rows, new BatchCallback<List<Integer>>() {
+			@Override
+			public void process(List<Integer> batchParams) {
+				ThreadToolkits.sleep(2 + batchParams.size() / 1000, TimeUnit.MILLISECONDS);
+			}
+		});
+		System.out.println("first pass cost: " + (System.currentTimeMillis() - start) + "ms, " + sizer);
+
+		// 下游变慢(每1000行3ms)，批大小回落到约6000
+		start = System.currentTimeMillis();
+		executer.execute(rows, new BatchCallback<List<Integer>>() {
+			@Override
+			public void process(List<Integer> batchParams) {
+				ThreadToolkits.sleep(2 + batchParams.size() * 3 / 1000, TimeUnit.MILLISECONDS);
+			}
+		});
+		System.out.println("second pass cost: " + (System.currentTimeMillis() - start) + "ms, " + sizer);
+		System.out.println("size history: " + Arrays.toString(sizer.getSizeHistory()));
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.simon.credit.toolkit;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.simon.credit.toolkit.batch.BatchAccumulator;
+import com.simon.credit.toolkit.batch.BatchAccumulator.OverflowPolicy;
+import com.simon.credit.toolkit.batch.BatchCallback;
+import com.simon.credit.toolkit.lang.ThreadToolkits;
+
+public class BatchAccumulatorTest {
+
+	public static void main(String[] args) throws Exception {
+		// 1、8个生产者各写10000条，攒成500条一批批量写入，BLOCK策略不丢数据
+		final AtomicLong written = new AtomicLong();
+		final BatchAccumulator<Integer> accumulator = new BatchAccumulator<Integer>(500, 50, TimeUnit.MILLISECONDS,
+			2000, OverflowPolicy.BLOCK, 2, new BatchCallback<List<Integer>>() {
+				@Override
+				public void process(List<Integer> batchParams) {
+					ThreadToolkits.sleep(2, TimeUnit.MILLISECONDS);// 模拟批量insert
+					written.addAndGet(batchParams.size());
+				}
+			});
+		final CountDownLatch producers = new CountDownLatch(8);
+		for (int p = 0; p < 8; p++) {
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (int i = 0; i < 10000; i++) {
+							accumulator.add(i);
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						producers.countDown();
+					}
+				}
+			}).start();
+		}
+		producers.await();
+		accumulator.close();
+		System.out.println("written: " + written.get() + ", " + accumulator);
+
+		// 2、低流量：每批不满，由linger到期刷出
+		final long begin = System.currentTimeMillis();
+		BatchAccumulator<String> lingering = new BatchAccumulator<String>(100, 30, TimeUnit.MILLISECONDS,
+			new BatchCallback<List<String>>() {
+				@Override
+				public void process(List<String> batchParams) {
+					System.out.println("linger flush " + batchParams + " after " + (System.currentTimeMillis() - begin) + "ms");
+				}
+			});
+		lingering.add("a");
+		lingering.add("b");
+		ThreadToolkits.sleep(60, TimeUnit.MILLISECONDS);
+		lingering.add("c");
+		lingering.close();
+		System.out.println(lingering);
+
+		// 3、DROP策略：下游卡住时丢弃超出容量的数据，生产者不阻塞
+		BatchAccumulator<Integer> dropping = new BatchAccumulator<Integer>(10, 10, TimeUnit.MILLISECONDS,
+			20, OverflowPolicy.DROP, 1, new BatchCallback<List<Integer>>() {
+				@Override
+				public void process(List<Integer> batchParams) {
+					ThreadToolkits.sleep(100, TimeUnit.MILLISECONDS);
+				}
+			});
+		for (int i = 0; i < 100; i++) {
+			dropping.add(i);
+		}
+		dropping.close();
+		System.out.println(dropping);
+	}
+
+}
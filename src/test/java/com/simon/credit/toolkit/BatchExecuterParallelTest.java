@@ -0,0 +1,69 @@
+package com.simon.credit.toolkit;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.simon.credit.toolkit.batch.BatchCallback;
+import com.simon.credit.toolkit.batch.BatchExecuter;
+import com.simon.credit.toolkit.batch.BatchFunction;
+import com.simon.credit.toolkit.batch.BatchReport;
+import com.simon.credit.toolkit.concurrent.OptimizedThreadPool;
+import com.simon.credit.toolkit.lang.ThreadToolkits;
+
+public class BatchExecuterParallelTest {
+
+	public static void main(String[] args) {
+		List<Integer> rows = new ArrayList<Integer>(10000);
+		for (int i = 0; i < 10000; i++) {
+			rows.add(i);
+		}
+
+		BatchExecuter executer = new BatchExecuter(100);
+
+		// 1、串行：100批，每批模拟20ms的数据库I/O
+		long start = System.currentTimeMillis();
+		executer.execute(rows, new BatchCallback<List<Integer>>() {
+			@Override
+			public void process(List<Integer> batchParams) {
+				ThreadToolkits.sleep(20, TimeUnit.MILLISECONDS);
+			}
+		});
+		System.out.println("sequential cost: " + (System.currentTimeMillis() - start) + "ms");
+
+		// 2、并行：最多16批同时处理，第50批失败
+		ExecutorService executor = OptimizedThreadPool.jdkCachedThreadPool();
+		BatchReport<Integer> report = executer.execute(rows, new BatchFunction<List<Integer>, Integer>() {
+			@Override
+			public Integer process(List<Integer> batchParams) throws Exception {
+				ThreadToolkits.sleep(20, TimeUnit.MILLISECONDS);
+				if (batchParams.get(0) == 5000) {
+					throw new Exception("deadlock detected");
+				}
+				return batchParams.size();// 影响行数
+			}
+		}, executor, 16, true);
+		System.out.println("parallel report: " + report);
+		System.out.println("failures: " + report.getFailures());
+		System.out.println("first batch index: " + report.getResults().get(0).getBatchIndex());
+
+		// 3、Set并行：每批是独立的Set
+		Set<Integer> ids = new LinkedHashSet<Integer>(rows);
+		BatchReport<Void> setReport = executer.execute(ids, new BatchCallback<Set<Integer>>() {
+			@Override
+			public void process(Set<Integer> batchParams) {
+				ThreadToolkits.sleep(20, TimeUnit.MILLISECONDS);
+				if (batchParams.size() != 100) {
+					throw new IllegalStateException("batch size: " + batchParams.size());
+				}
+			}
+		}, executor, 16);
+		System.out.println("set report: " + setReport);
+
+		executor.shutdown();
+	}
+
+}
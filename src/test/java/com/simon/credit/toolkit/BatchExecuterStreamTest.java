@@ -0,0 +1,82 @@
+package com.simon.credit.toolkit;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import com.simon.credit.toolkit.batch.BatchCallback;
+import com.simon.credit.toolkit.batch.BatchExecuter;
+import com.simon.credit.toolkit.batch.BatchFunction;
+import com.simon.credit.toolkit.batch.BatchReport;
+import com.simon.credit.toolkit.concurrent.OptimizedThreadPool;
+import com.simon.credit.toolkit.io.LineIterator;
+
+public class BatchExecuterStreamTest {
+
+	public static void main(String[] args) {
+		final int rowCount = 5000000;
+
+		// 1、Iterator：模拟5百万行导出，数据源不落内存
+		Iterator<Long> rows = new Iterator<Long>() {
+			private long next = 0;
+
+			@Override
+			public boolean hasNext() {
+				return next < rowCount;
+			}
+
+			@Override
+			public Long next() {
+				return next++;
+			}
+		};
+		final AtomicLong sum = new AtomicLong();
+		new BatchExecuter(1000).execute(rows, new BatchCallback<List<Long>>() {
+			@Override
+			public void process(List<Long> batchParams) {
+				for (Long row : batchParams) {
+					sum.addAndGet(row);
+				}
+			}
+		});
+		System.out.println("iterator sum: " + sum.get() + ", expected: " + (long) rowCount * (rowCount - 1) / 2);
+
+		// 2、Stream + 并行 + 池化：最多8批同时处理，批次List被复用
+		final Set<List<Integer>> distinctBatches = Collections.synchronizedSet(
+			Collections.newSetFromMap(new IdentityHashMap<List<Integer>, Boolean>()));
+		ExecutorService executor = OptimizedThreadPool.jdkCachedThreadPool();
+		BatchReport<Integer> report = new BatchExecuter(1000, true).execute(IntStream.range(0, rowCount).boxed(),
+			new BatchFunction<List<Integer>, Integer>() {
+				@Override
+				public Integer process(List<Integer> batchParams) {
+					distinctBatches.add(batchParams);
+					return batchParams.size();
+				}
+			}, executor, 8, false);
+		System.out.println("stream report: " + report + ", distinct batch lists: " + distinctBatches.size());
+
+		// 3、LineIterator：按行分批
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 25; i++) {
+			text.append("line").append(i).append('\n');
+		}
+		final List<Integer> batchSizes = new ArrayList<Integer>();
+		new BatchExecuter(10).execute(new LineIterator(new StringReader(text.toString())), new BatchCallback<List<String>>() {
+			@Override
+			public void process(List<String> batchParams) {
+				batchSizes.add(batchParams.size());
+			}
+		});
+		System.out.println("line batch sizes: " + batchSizes);
+
+		executor.shutdown();
+	}
+
+}
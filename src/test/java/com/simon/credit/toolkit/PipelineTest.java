@@ -0,0 +1,85 @@
+package com.simon.credit.toolkit;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.simon.credit.toolkit.batch.BatchFunction;
+import com.simon.credit.toolkit.batch.Pipeline;
+import com.simon.credit.toolkit.batch.StageFunction;
+import com.simon.credit.toolkit.batch.StageMetrics;
+import com.simon.credit.toolkit.lang.ThreadToolkits;
+
+public class PipelineTest {
+
+	public static void main(String[] args) throws Exception {
+		// 1、解析 -> 补全(模拟1ms远程调用，瓶颈) -> 批量写入
+		final AtomicLong written = new AtomicLong();
+		Pipeline<String> pipeline = Pipeline.<String>builder()
+			.stage("parse", 1, 256, new StageFunction<String, Long>() {
+				@Override
+				public Long apply(String line) {
+					long id = Long.parseLong(line.substring(line.indexOf(',') + 1));
+					return id % 10 == 0 ? null : id;// 过滤掉10%
+				}
+			})
+			.stage("enrich", 32, 256, new StageFunction<Long, String>() {
+				@Override
+				public String apply(Long id) {
+					ThreadToolkits.sleep(1, TimeUnit.MILLISECONDS);
+					return "order-" + id;
+				}
+			})
+			.batchStage("write", 1, 256, 200, 20, TimeUnit.MILLISECONDS, new BatchFunction<List<String>, Integer>() {
+				@Override
+				public Integer process(List<String> orders) {
+					ThreadToolkits.sleep(2, TimeUnit.MILLISECONDS);
+					written.addAndGet(orders.size());
+					return orders.size();
+				}
+			})
+			.build();
+
+		for (int i = 0; i < 20000; i++) {
+			pipeline.submit("row," + i);
+			if (i == 10000) {
+				System.out.println("running: " + pipeline);
+			}
+		}
+		pipeline.complete();
+		pipeline.await();
+		System.out.println("written: " + written.get());
+		for (StageMetrics metrics : pipeline.getStageMetrics()) {
+			System.out.println(metrics);
+		}
+
+		// 2、异常传播：第二阶段处理到第500条时失败
+		Pipeline<Integer> failing = Pipeline.<Integer>builder()
+			.stage("double", 2, 64, new StageFunction<Integer, Integer>() {
+				@Override
+				public Integer apply(Integer value) {
+					return value * 2;
+				}
+			})
+			.stage("check", 2, 64, new StageFunction<Integer, Integer>() {
+				@Override
+				public Integer apply(Integer value) throws Exception {
+					if (value == 1000) {
+						throw new Exception("bad record: " + value);
+					}
+					return value;
+				}
+			})
+			.build();
+		try {
+			for (int i = 0; i < 100000; i++) {
+				failing.submit(i);
+			}
+			failing.complete();
+			failing.await();
+		} catch (IllegalStateException e) {
+			System.out.println("pipeline failed: " + e.getMessage() + ", cause: " + e.getCause().getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.simon.credit.toolkit;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.simon.credit.toolkit.batch.BatchFunction;
+import com.simon.credit.toolkit.batch.RequestCoalescer;
+import com.simon.credit.toolkit.lang.ThreadToolkits;
+
+public class RequestCoalescerTest {
+
+	public static void main(String[] args) throws Exception {
+		// 模拟远程批量查询：每次调用5ms，key为奇数时查不到
+		final List<Integer> batchSizes = new CopyOnWriteArrayList<Integer>();
+		final RequestCoalescer<Long, String> coalescer = new RequestCoalescer<Long, String>(100, 5, TimeUnit.MILLISECONDS, 4,
+			new BatchFunction<Set<Long>, Map<Long, String>>() {
+				@Override
+				public Map<Long, String> process(Set<Long> ids) {
+					batchSizes.add(ids.size());
+					ThreadToolkits.sleep(5, TimeUnit.MILLISECONDS);
+					Map<Long, String> users = new HashMap<Long, String>();
+					for (Long id : ids) {
+						if (id % 2 == 0) {
+							users.put(id, "user-" + id);
+						}
+					}
+					return users;
+				}
+			});
+
+		// 200个线程各查询50次，key范围0~999，存在大量重复key
+		final AtomicInteger mismatches = new AtomicInteger();
+		final CountDownLatch done = new CountDownLatch(200);
+		long start = System.currentTimeMillis();
+		for (int t = 0; t < 200; t++) {
+			final int seed = t;
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (int i = 0; i < 50; i++) {
+							long id = (seed * 31 + i * 17) % 1000;
+							CompletableFuture<String> user = coalescer.load(id);
+							String expected = id % 2 == 0 ? "user-" + id : null;
+							String actual = user.get();
+							if (expected == null ? actual != null : !expected.equals(actual)) {
+								mismatches.incrementAndGet();
+							}
+						}
+					} catch (Exception e) {
+						e.printStackTrace();
+					} finally {
+						done.countDown();
+					}
+				}
+			}).start();
+		}
+		done.await();
+		long cost = System.currentTimeMillis() - start;
+		coalescer.close();
+
+		int maxBatch = 0;
+		for (Integer size : batchSizes) {
+			maxBatch = Math.max(maxBatch, size);
+		}
+		System.out.println(coalescer + ", cost: " + cost + "ms, mismatches: " + mismatches.get() + ", max batch: " + maxBatch);
+		System.out.println("downstream calls reduced by " + coalescer.getRequestCount() / coalescer.getBatchLoadCount() + "x");
+	}
+
+}
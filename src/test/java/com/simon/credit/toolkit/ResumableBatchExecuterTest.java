@@ -0,0 +1,88 @@
+package com.simon.credit.toolkit;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import com.simon.credit.toolkit.batch.BatchFunction;
+import com.simon.credit.toolkit.batch.Checkpoint;
+import com.simon.credit.toolkit.batch.CheckpointFile;
+import com.simon.credit.toolkit.batch.ResumableBatchExecuter;
+
+public class ResumableBatchExecuterTest {
+
+	public static void main(String[] args) throws Exception {
+		// 准备10万行的文本文件(含中文，验证按字节偏移量续读)
+		File data = File.createTempFile("resumable", ".csv");
+		data.deleteOnExit();
+		Writer writer = new OutputStreamWriter(new FileOutputStream(data), "UTF-8");
+		for (int i = 0; i < 100000; i++) {
+			writer.write(i + ",订单-" + i + "\r\n");
+		}
+		writer.close();
+
+		CheckpointFile checkpointFile = new CheckpointFile(new File(data.getParentFile(), data.getName() + ".checkpoint"));
+		final BitSet processed = new BitSet();
+		final int[] processCount = {0};
+		final int[] failAtBatch = {370};
+
+		BatchFunction<List<String>, String> importer = new BatchFunction<List<String>, String>() {
+			private int batches = 0;
+
+			@Override
+			public String process(List<String> lines) throws Exception {
+				if (++batches == failAtBatch[0]) {
+					throw new Exception("connection reset");
+				}
+				String last = null;
+				for (String line : lines) {
+					int id = Integer.parseInt(line.substring(0, line.indexOf(',')));
+					if (!line.equals(id + ",订单-" + id)) {
+						throw new IllegalStateException("bad line: " + line);
+					}
+					processed.set(id);
+					processCount[0]++;
+					last = String.valueOf(id);
+				}
+				return last;// 用户游标：本批最后一条的主键
+			}
+		};
+
+		// 1、第一次执行：第370批失败，每50批落盘一次，失败时保存最后一次成功的进度
+		ResumableBatchExecuter executer = new ResumableBatchExecuter(200, checkpointFile, 50);
+		try {
+			executer.execute(data, "UTF-8", importer);
+		} catch (IllegalStateException e) {
+			System.out.println("first run: " + e.getMessage() + ", cause: " + e.getCause().getMessage());
+		}
+		System.out.println("saved: " + checkpointFile.load());
+
+		// 2、重新执行：从字节偏移量处继续
+		failAtBatch[0] = -1;
+		Checkpoint done = executer.execute(data, "UTF-8", importer);
+		System.out.println("second run finished: " + done + ", file length: " + data.length());
+		System.out.println("distinct processed: " + processed.cardinality() + ", total processed: " + processCount[0]
+			+ ", checkpoint exists: " + checkpointFile.getFile().exists());
+
+		// 3、List模式：检查点已提交5批(500条)，从第500条继续
+		List<Integer> ids = new ArrayList<Integer>();
+		for (int i = 0; i < 1000; i++) {
+			ids.add(i);
+		}
+		checkpointFile.save(new Checkpoint(5, 500, "499", System.currentTimeMillis()));
+		final List<Integer> firstIds = new ArrayList<Integer>();
+		new ResumableBatchExecuter(100, checkpointFile, 5).execute(ids, new BatchFunction<List<Integer>, String>() {
+			@Override
+			public String process(List<Integer> batchParams) {
+				firstIds.add(batchParams.get(0));
+				return String.valueOf(batchParams.get(batchParams.size() - 1));
+			}
+		});
+		System.out.println("list resumed batches start at: " + firstIds);
+	}
+
+}
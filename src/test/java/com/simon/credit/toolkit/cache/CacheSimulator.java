@@ -0,0 +1,140 @@
+package com.simon.credit.toolkit.cache;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 缓存命中率模拟器(基于访问轨迹)
+ * <pre>
+ * 用法：CacheSimulator [traceFile] [capacity]
+ * 1、traceFile：访问轨迹文件，每行一个key(按访问顺序)，不指定时生成合成轨迹：
+ *    Zipf分布的热点访问，每隔一段时间插入一次全新key的一次性扫描(模拟批处理遍历)
+ * 2、capacity：缓存容量，默认1000
+ *
+ * 对每个key依次get，未命中则put，统计各缓存的命中率。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class CacheSimulator {
+
+	public static void main(String[] args) throws IOException {
+		List<String> trace = args.length > 0 ? readTrace(args[0]) : syntheticTrace();
+		int capacity = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+		Map<String, Cache<String, String>> caches = new LinkedHashMap<String, Cache<String, String>>();
+		caches.put("LRUCache", new LRUCache<String, String>(capacity));
+		caches.put("FIFOCache", new FIFOCache<String, String>(capacity));
+		caches.put("LFUCache", new LFUCacheAdapter<String, String>(capacity));
+		caches.put("LinkedLFUCache", new LinkedLFUCache<String, String>(capacity, false, capacity * 10));
+		caches.put("TinyLFUCache", new TinyLFUCache<String, String>(capacity));
+
+		System.out.println("trace size: " + trace.size() + ", capacity: " + capacity);
+		for (Map.Entry<String, Cache<String, String>> entry : caches.entrySet()) {
+			Cache<String, String> cache = entry.getValue();
+			long hits = 0;
+			long start = System.nanoTime();
+			for (String key : trace) {
+				if (cache.get(key) != null) {
+					hits++;
+				} else {
+					cache.put(key, key);
+				}
+			}
+			long costMillis = (System.nanoTime() - start) / 1000000;
+			System.out.println(String.format("%-16s hitRate: %6.2f%%, cost: %dms",
+				entry.getKey(), hits * 100.0 / trace.size(), costMillis));
+		}
+	}
+
+	private static List<String> readTrace(String path) throws IOException {
+		List<String> trace = new ArrayList<String>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(path), "UTF-8"));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if (!line.isEmpty()) {
+					trace.add(line);
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		return trace;
+	}
+
+	/**
+	 * 合成轨迹：10000个key的Zipf(0.9)热点访问，每50000次访问插入一次5000个全新key的扫描
+	 */
+	private static List<String> syntheticTrace() {
+		Random random = new Random(20261018L);
+		int keyCount = 10000;
+		double[] cumulative = new double[keyCount];
+		double sum = 0;
+		for (int i = 0; i < keyCount; i++) {
+			sum += 1.0 / Math.pow(i + 1, 0.9);
+			cumulative[i] = sum;
+		}
+
+		List<String> trace = new ArrayList<String>();
+		int scanId = 0;
+		for (int i = 1; i <= 1000000; i++) {
+			int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+			trace.add("hot:" + (index >= 0 ? index : -index - 1));
+			if (i % 50000 == 0) {
+				for (int j = 0; j < 5000; j++) {
+					trace.add("scan:" + (scanId++));
+				}
+			}
+		}
+		return trace;
+	}
+
+	/**
+	 * LFUCache的put无返回值(适配后总是返回null)，适配为Cache
+	 */
+	private static final class LFUCacheAdapter<K, V> implements Cache<K, V> {
+		private final int capacity;
+		private LFUCache<K, V> cache;
+
+		LFUCacheAdapter(int capacity) {
+			this.capacity = capacity;
+			this.cache = new LFUCache<K, V>(capacity);
+		}
+
+		@Override
+		public V get(K key) {
+			return cache.get(key);
+		}
+
+		@Override
+		public V put(K key, V value) {
+			cache.put(key, value);
+			return null;
+		}
+
+		@Override
+		public V remove(K key) {
+			return cache.remove(key);
+		}
+
+		@Override
+		public int size() {
+			return cache.size();
+		}
+
+		@Override
+		public void clear() {
+			cache = new LFUCache<K, V>(capacity);
+		}
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.simon.credit.toolkit.cache;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.simon.credit.toolkit.lang.ThreadToolkits;
+
+public class CacheStatsTest {
+
+	public static void main(String[] args) throws Exception {
+		final ConcurrentLRUCache<Integer, Integer> lruCache = new ConcurrentLRUCache<Integer, Integer>(1000);
+		lruCache.setStatsCounter(new ConcurrentStatsCounter());
+		CacheStatsRegistry.register("lruCache", lruCache);
+
+		TimeCache<String, String> timeCache = new TimeCache<String, String>(16, TimeCache.ExpireMode.TIMING_WHEEL);
+		timeCache.setStatsCounter(new ConcurrentStatsCounter());
+		CacheStatsRegistry.register("timeCache", timeCache);
+
+		LoadingCache<Integer, String> loadingCache = new LoadingCache<Integer, String>(100, new CacheLoader<Integer, String>() {
+			@Override
+			public String load(Integer key) {
+				ThreadToolkits.sleep(5, TimeUnit.MILLISECONDS);
+				return "value" + key;
+			}
+		});
+		loadingCache.setStatsCounter(new ConcurrentStatsCounter());
+		CacheStatsRegistry.register("loadingCache", loadingCache);
+
+		// 多线程读写，key分布倾斜：一半访问落在0~9
+		int threadCount = 8;
+		final CountDownLatch latch = new CountDownLatch(threadCount);
+		for (int t = 0; t < threadCount; t++) {
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int i = 0; i < 200000; i++) {
+						int key = random.nextBoolean() ? random.nextInt(10) : random.nextInt(5000);
+						if (lruCache.get(key) == null) {
+							lruCache.put(key, key);
+						}
+					}
+					latch.countDown();
+				}
+			}).start();
+		}
+		latch.await();
+
+		timeCache.put("a", "a", 200, TimeUnit.MILLISECONDS);
+		timeCache.put("b", "b", 200, TimeUnit.MILLISECONDS);
+		timeCache.get("a");
+		timeCache.get("c");
+		ThreadToolkits.sleep(500, TimeUnit.MILLISECONDS);
+
+		for (int i = 0; i < 20; i++) {
+			loadingCache.get(i % 5);
+		}
+
+		// 按需导出
+		System.out.print(CacheStatsRegistry.export());
+
+		// 通过JMX导出(与jconsole调用同一个MXBean)
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		Object exported = server.invoke(new ObjectName("com.simon.credit.toolkit.cache:type=CacheStats"), "export", null, null);
+		System.out.println("jmx export equals: " + CacheStatsRegistry.export().equals(exported));
+
+		timeCache.destroy();
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.simon.credit.toolkit.cache;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRUCache(单锁) vs ConcurrentLRUCache(分段锁) 读多写少场景竞争压测
+ * <pre>
+ * 用法：java ConcurrentLRUCacheBenchmark [线程数] [每线程操作数] [读比例%]
+ * </pre>
+ */
+public class ConcurrentLRUCacheBenchmark {
+
+	private static final int CAPACITY = 10000;
+	private static final int KEY_SPACE = 20000;
+
+	interface CacheOps {
+		Integer get(Integer key);
+		void put(Integer key, Integer value);
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		int opsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+		int readPercent = args.length > 2 ? Integer.parseInt(args[2]) : 90;
+
+		final LRUCache<Integer, Integer> lruCache = new LRUCache<Integer, Integer>(CAPACITY);
+		final ConcurrentLRUCache<Integer, Integer> concurrentCache = new ConcurrentLRUCache<Integer, Integer>(CAPACITY);
+
+		CacheOps lruOps = new CacheOps() {
+			public Integer get(Integer key) { return lruCache.get(key); }
+			public void put(Integer key, Integer value) { lruCache.put(key, value); }
+		};
+		CacheOps concurrentOps = new CacheOps() {
+			public Integer get(Integer key) { return concurrentCache.get(key); }
+			public void put(Integer key, Integer value) { concurrentCache.put(key, value); }
+		};
+
+		for (int i = 0; i < CAPACITY; i++) {
+			lruOps.put(i, i);
+			concurrentOps.put(i, i);
+		}
+
+		// 预热
+		run("warmup-lru", lruOps, threads, opsPerThread / 10, readPercent);
+		run("warmup-concurrent", concurrentOps, threads, opsPerThread / 10, readPercent);
+
+		run("LRUCache", lruOps, threads, opsPerThread, readPercent);
+		run("ConcurrentLRUCache(segments=" + concurrentCache.getSegmentCount() + ")",
+			concurrentOps, threads, opsPerThread, readPercent);
+
+		System.out.println("lru size: " + lruCache.size() + ", concurrent size: " + concurrentCache.size());
+	}
+
+	private static void run(String name, final CacheOps ops, int threads, final int opsPerThread, final int readPercent)
+			throws InterruptedException {
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(threads);
+		final LongAdder hits = new LongAdder();
+
+		for (int t = 0; t < threads; t++) {
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					try {
+						start.await();
+						for (int i = 0; i < opsPerThread; i++) {
+							Integer key = random.nextInt(KEY_SPACE);
+							if (random.nextInt(100) < readPercent) {
+								if (ops.get(key) != null) {
+									hits.increment();
+								}
+							} else {
+								ops.put(key, key);
+							}
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						done.countDown();
+					}
+				}
+			}).start();
+		}
+
+		long begin = System.nanoTime();
+		start.countDown();
+		done.await();
+		long costNanos = System.nanoTime() - begin;
+
+		long totalOps = (long) threads * opsPerThread;
+		System.out.println(String.format("%-40s threads=%d ops=%d cost=%dms throughput=%.0f ops/s hits=%d",
+			name, threads, totalOps, costNanos / 1000000, totalOps * 1e9 / costNanos, hits.sum()));
+	}
+
+}
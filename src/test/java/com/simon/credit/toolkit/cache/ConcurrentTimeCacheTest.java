@@ -0,0 +1,48 @@
+package com.simon.credit.toolkit.cache;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.simon.credit.toolkit.lang.ThreadToolkits;
+
+public class ConcurrentTimeCacheTest {
+
+	public static void main(String[] args) throws InterruptedException {
+		final ConcurrentTimeCache<Integer, Integer> timeCache =
+			new ConcurrentTimeCache<Integer, Integer>(1024, 100, TimeUnit.MILLISECONDS, 1000);
+
+		// 惰性过期：无需等待后台清理
+		timeCache.put(-1, -1, 50, TimeUnit.MILLISECONDS);
+		ThreadToolkits.sleep(60, TimeUnit.MILLISECONDS);
+		System.out.println("lazy expired: " + timeCache.get(-1));
+
+		int threadCount = 200;
+		final CountDownLatch latch = new CountDownLatch(threadCount);
+		for (int t = 0; t < threadCount; t++) {
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int i = 0; i < 10000; i++) {
+						int key = random.nextInt(100000);
+						if (timeCache.get(key) == null) {
+							timeCache.put(key, key, 200, TimeUnit.MILLISECONDS);
+						}
+					}
+					latch.countDown();
+				}
+			}).start();
+		}
+		latch.await();
+		System.out.println("size after load: " + timeCache.size());
+
+		// 后台限速清理：每100ms最多扫描1000个
+		for (int i = 0; i < 15; i++) {
+			ThreadToolkits.sleep(200, TimeUnit.MILLISECONDS);
+			System.out.println("size after sweep " + i + ": " + timeCache.size());
+		}
+		timeCache.destroy();
+	}
+
+}
@@ -0,0 +1,30 @@
+package com.simon.credit.toolkit.cache;
+
+public class LinkedLFUCacheTest {
+
+	public static void main(String[] args) {
+		LinkedLFUCache<Integer, Integer> lfuCache = new LinkedLFUCache<Integer, Integer>(3);
+		lfuCache.put(1, 1);
+		lfuCache.put(2, 2);
+		lfuCache.put(3, 3);
+		lfuCache.get(1);
+		lfuCache.get(1);
+		lfuCache.get(2);
+		System.out.println(lfuCache);// {1=[3], 2=[2], 3=[1]}
+
+		lfuCache.put(4, 4);// 淘汰频次最低的3
+		System.out.println(lfuCache);// {1=[4], 2=[2], 3=[1]}
+		System.out.println(lfuCache.get(3));// null
+
+		// 老化：每6次访问频次减半
+		LinkedLFUCache<String, String> agingCache = new LinkedLFUCache<String, String>(2, true, 6);
+		agingCache.put("hot", "hot");
+		for (int i = 0; i < 4; i++) {
+			agingCache.get("hot");
+		}
+		System.out.println("before aging: " + agingCache.frequencyOf("hot"));// 5
+		agingCache.put("new", "new");// 第6次访问触发老化
+		System.out.println("after aging: " + agingCache.frequencyOf("hot") + ", " + agingCache);
+	}
+
+}
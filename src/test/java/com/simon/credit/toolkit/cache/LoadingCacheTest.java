@@ -0,0 +1,69 @@
+package com.simon.credit.toolkit.cache;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.simon.credit.toolkit.lang.ThreadToolkits;
+
+public class LoadingCacheTest {
+
+	public static void main(String[] args) throws InterruptedException {
+		final AtomicInteger loadCount = new AtomicInteger();
+		final AtomicInteger loadAllCount = new AtomicInteger();
+
+		CacheLoader<String, String> loader = new CacheLoader<String, String>() {
+			@Override
+			public String load(String key) {
+				loadCount.incrementAndGet();
+				ThreadToolkits.sleep(200, TimeUnit.MILLISECONDS);// 模拟慢查询
+				return key + "@" + System.currentTimeMillis();
+			}
+
+			@Override
+			public Map<String, String> loadAll(Collection<? extends String> keys) {
+				loadAllCount.incrementAndGet();
+				Map<String, String> result = new HashMap<String, String>();
+				for (String key : keys) {
+					result.put(key, key + "@batch");
+				}
+				return result;
+			}
+		};
+
+		final LoadingCache<String, String> cache =
+			new LoadingCache<String, String>(100, loader, 2, 1, TimeUnit.SECONDS);
+
+		// 1、单飞：100个线程同时未命中，只加载一次
+		int threadCount = 100;
+		final CountDownLatch latch = new CountDownLatch(threadCount);
+		for (int i = 0; i < threadCount; i++) {
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					cache.get("user:1");
+					latch.countDown();
+				}
+			}).start();
+		}
+		latch.await();
+		System.out.println("single-flight load count: " + loadCount.get());// 1
+
+		// 2、提前刷新：超过1秒后读取立即返回旧值，后台刷新
+		ThreadToolkits.sleep(1100, TimeUnit.MILLISECONDS);
+		long start = System.currentTimeMillis();
+		String stale = cache.get("user:1");
+		System.out.println("stale value served in " + (System.currentTimeMillis() - start) + "ms: " + stale);
+		ThreadToolkits.sleep(300, TimeUnit.MILLISECONDS);
+		System.out.println("refreshed value: " + cache.get("user:1") + ", load count: " + loadCount.get());// 2
+
+		// 3、批量：未命中的key合并为一次loadAll
+		Map<String, String> values = cache.getAll(Arrays.asList("user:1", "user:2", "user:3", "user:4"));
+		System.out.println("getAll: " + values + ", loadAll count: " + loadAllCount.get());// 1
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.simon.credit.toolkit.cache;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+
+public class OffHeapCacheTest {
+
+	public static void main(String[] args) {
+		// 1、按权重(字节数)限制的LRUCache
+		LRUCache<Integer, byte[]> weightedCache = new LRUCache<Integer, byte[]>(10L << 20, new Weigher<Integer, byte[]>() {
+			@Override
+			public int weigh(Integer key, byte[] value) {
+				return value.length;
+			}
+		});
+		Random random = new Random(1);
+		for (int i = 0; i < 1000; i++) {
+			weightedCache.put(i, new byte[100 + random.nextInt(1 << 20)]);
+		}
+		System.out.println("weighted lru size: " + weightedCache.size() + ", weightedSize: "
+			+ weightedCache.getWeightedSize() + " <= " + weightedCache.getMaxWeight());
+
+		// 通过视图和迭代器删除，权重之和同步减少(全部删除后应为0)
+		weightedCache.keySet().remove(weightedCache.keySet().iterator().next());
+		weightedCache.entrySet().remove(weightedCache.entrySet().iterator().next());
+		for (Iterator<byte[]> iterator = weightedCache.values().iterator(); iterator.hasNext();) {
+			iterator.next();
+			iterator.remove();
+		}
+		System.out.println("after removing through views, size: " + weightedCache.size() + ", weightedSize: "
+			+ weightedCache.getWeightedSize());
+
+		// 2、堆外缓存：数据大小100字节~5MB
+		Serializer<byte[]> bytesSerializer = new Serializer<byte[]>() {
+			@Override
+			public byte[] serialize(byte[] value) {
+				return value;
+			}
+
+			@Override
+			public byte[] deserialize(byte[] bytes) {
+				return bytes;
+			}
+		};
+		OffHeapCache<Integer, byte[]> offHeapCache = new OffHeapCache<Integer, byte[]>(256L << 20, bytesSerializer);
+		offHeapCache.setStatsCounter(new ConcurrentStatsCounter());
+
+		int corrupted = 0;
+		for (int i = 0; i < 5000; i++) {
+			int length = random.nextInt(50) == 0 ? (1 << 20) + random.nextInt(4 << 20) : 100 + random.nextInt(4096);
+			byte[] value = new byte[length];
+			Arrays.fill(value, (byte) i);
+			offHeapCache.put(i, value);
+
+			int key = random.nextInt(i + 1);
+			byte[] cached = offHeapCache.get(key);
+			if (cached != null && cached[0] != (byte) key) {
+				corrupted++;
+			}
+		}
+		System.out.println("off-heap size: " + offHeapCache.size() + ", usedBytes: " + offHeapCache.getUsedBytes()
+			+ " <= " + offHeapCache.getCapacityBytes() + ", corrupted: " + corrupted);
+		System.out.println(offHeapCache.stats());
+
+		// 3、JDK序列化
+		OffHeapCache<String, String> stringCache = new OffHeapCache<String, String>(16L << 20, 1 << 20, new JdkSerializer<String>());
+		stringCache.put("hello", "world");
+		System.out.println("hello -> " + stringCache.get("hello"));
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.simon.credit.toolkit.cache;
+
+import java.util.concurrent.TimeUnit;
+
+import com.simon.credit.toolkit.cache.TimeCache.ExpireMode;
+import com.simon.credit.toolkit.lang.ThreadToolkits;
+
+public class TimeCacheWheelTest {
+
+	public static void main(String[] args) {
+		// tick=10ms，8秒需要跨越第1层(64 tick)与第2层(4096 tick)的降级
+		TimeCache<String, Object> timeCache = new TimeCache<String, Object>(16, ExpireMode.TIMING_WHEEL, 10, TimeUnit.MILLISECONDS);
+		timeCache.put("abc", "abc", 300, TimeUnit.MILLISECONDS);
+		timeCache.put("def", "def", 2, TimeUnit.SECONDS);
+		timeCache.put("ghi", "ghi", 8, TimeUnit.SECONDS);
+
+		long start = System.currentTimeMillis();
+		boolean abc = true, def = true, ghi = true;
+		while (abc || def || ghi) {
+			ThreadToolkits.sleep(10, TimeUnit.MILLISECONDS);
+			long cost = System.currentTimeMillis() - start;
+			// containsKey不续期
+			if (abc && !timeCache.containsKey("abc")) {
+				abc = false;
+				System.out.println("abc expired after " + cost + "ms (expect ~300ms)");
+			}
+			if (def && !timeCache.containsKey("def")) {
+				def = false;
+				System.out.println("def expired after " + cost + "ms (expect ~2000ms)");
+			}
+			if (ghi && !timeCache.containsKey("ghi")) {
+				ghi = false;
+				System.out.println("ghi expired after " + cost + "ms (expect ~8000ms)");
+			}
+		}
+
+		// 访问续期
+		timeCache.put("sliding", "sliding", 200, TimeUnit.MILLISECONDS);
+		for (int i = 0; i < 10; i++) {
+			ThreadToolkits.sleep(100, TimeUnit.MILLISECONDS);
+			timeCache.get("sliding");
+		}
+		System.out.println("sliding after 1s of access: " + timeCache.get("sliding"));
+		ThreadToolkits.sleep(300, TimeUnit.MILLISECONDS);
+		System.out.println("sliding after 300ms idle: " + timeCache.get("sliding"));
+
+		timeCache.destroy();
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.simon.credit.toolkit.concurrent.PoolSizeController.Decision;
+
+/**
+ * 自适应线程数测试
+ * <pre>
+ * 生产者持续提交任务(队列满时被阻塞)，前半段是阻塞10ms的I/O型任务，后半段是占用CPU 2ms的计算型任务：
+ * I/O阶段线程数应逐步增加，计算阶段增加线程没有收益，线程数应停止增长或回落。
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class AdaptiveThreadPoolTest {
+
+	public static void main(String[] args) throws InterruptedException {
+		OptimizedThreadPool pool = OptimizedThreadPool.adaptiveThreadPool(1, 64, 200, 200, TimeUnit.MILLISECONDS);
+
+		System.out.println("=== I/O bound ===");
+		runPhase(pool, ioTask(10), 4000);
+		printDecisions(pool);
+
+		System.out.println("=== CPU bound ===");
+		int decisionsBefore = pool.getSizeController().getDecisions().size();
+		runPhase(pool, cpuTask(2), 4000);
+		printDecisions(pool, decisionsBefore);
+
+		pool.shutdown();
+		pool.awaitTermination(10, TimeUnit.SECONDS);
+		System.out.println(pool.getSizeController());
+	}
+
+	private static void runPhase(final OptimizedThreadPool pool, final Runnable task, long millis) throws InterruptedException {
+		final AtomicBoolean running = new AtomicBoolean(true);
+		Thread producer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				while (running.get()) {
+					pool.execute(task);
+				}
+			}
+		}, "producer");
+		producer.start();
+		Thread.sleep(millis);
+		running.set(false);
+		producer.join();
+	}
+
+	private static void printDecisions(OptimizedThreadPool pool) {
+		printDecisions(pool, 0);
+	}
+
+	private static void printDecisions(OptimizedThreadPool pool, int from) {
+		java.util.List<Decision> decisions = pool.getSizeController().getDecisions();
+		for (int i = Math.min(from, decisions.size()); i < decisions.size(); i++) {
+			System.out.println("  " + decisions.get(i));
+		}
+	}
+
+	private static Runnable ioTask(final long millis) {
+		return new Runnable() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(millis);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+	}
+
+	private static Runnable cpuTask(final long millis) {
+		return new Runnable() {
+			@Override
+			public void run() {
+				long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+				long x = 0;
+				while (System.nanoTime() < end) {
+					x += x * 31 + 7;
+				}
+				if (x == 42) {
+					System.out.print("");
+				}
+			}
+		};
+	}
+
+}
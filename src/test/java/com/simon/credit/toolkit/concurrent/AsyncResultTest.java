@@ -0,0 +1,88 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import com.simon.credit.toolkit.lang.ThreadToolkits;
+
+/**
+ * 可组合异步结果测试
+ * @author XUZIMING 2026-10-18
+ */
+public class AsyncResultTest {
+
+	public static void main(String[] args) throws Exception {
+		ExecutorService executor = OptimizedThreadPool.ioIntensiveThreadPool(64);
+		final AsyncTaskHandler<String> handler = new AsyncTaskHandler<String>(executor);
+
+		// 1、串联：查用户 -> 查订单 -> 拼装，中间没有线程阻塞在get上
+		long start = System.currentTimeMillis();
+		AsyncResult<String> page = handler.handleAsync(mockRemoteCall("user-1", 50)).thenCompose(new Function<String, AsyncResult<String>>() {
+			@Override
+			public AsyncResult<String> apply(String user) {
+				return handler.handleAsync(mockRemoteCall(user + ".orders", 50));
+			}
+		}).thenApply(new Function<String, String>() {
+			@Override
+			public String apply(String orders) {
+				return "page(" + orders + ")";
+			}
+		});
+		System.out.println(page.get() + " cost " + (System.currentTimeMillis() - start) + "ms");
+
+		// 2、AsyncTaskBuilder任务列表：8个调用各50ms
+		start = System.currentTimeMillis();
+		AsyncTaskBuilder<String> builder = new AsyncTaskBuilder<String>();
+		for (int i = 0; i < 8; i++) {
+			builder.append(mockRemoteCall("shard-" + i, 50));
+		}
+		List<String> shards = handler.handleAllAsync(builder.buildAsList()).get();
+		System.out.println("allOf: " + shards + " cost " + (System.currentTimeMillis() - start) + "ms");
+
+		// 3、超时 + 降级：卡住的调用200ms后降级，执行线程被中断
+		final AtomicInteger interrupted = new AtomicInteger();
+		start = System.currentTimeMillis();
+		String degraded = new AsyncTask<String>() {
+			@Override
+			protected String execute() {
+				try {
+					Thread.sleep(10000);
+				} catch (InterruptedException e) {
+					interrupted.incrementAndGet();
+				}
+				return "slow";
+			}
+		}.executeAsync(executor).timeout(200, TimeUnit.MILLISECONDS).whenComplete(new BiConsumer<String, Throwable>() {
+			@Override
+			public void accept(String value, Throwable error) {
+				System.out.println("timeout error: " + error);
+			}
+		}).fallback("cached-value").get();
+		ThreadToolkits.sleep(20, TimeUnit.MILLISECONDS);
+		System.out.println("fallback: " + degraded + " cost " + (System.currentTimeMillis() - start) + "ms, interrupted: " + interrupted.get());
+
+		// 4、anyOf：取最快的副本
+		AsyncResult<String> fastest = AsyncResult.anyOf(Arrays.asList(
+			handler.handleAsync(mockRemoteCall("replica-a", 80)),
+			handler.handleAsync(mockRemoteCall("replica-b", 20))));
+		System.out.println("anyOf: " + fastest.get());
+
+		handler.destroy();
+	}
+
+	private static IAsyncTask<String> mockRemoteCall(final String name, final long millis) {
+		return new IAsyncTask<String>() {
+			@Override
+			public String call() throws Exception {
+				Thread.sleep(millis);
+				return name;
+			}
+		};
+	}
+
+}
@@ -0,0 +1,131 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 多租户公平调度测试
+ * <pre>
+ * 1、吵闹邻居：租户noisy一次提交1000个2ms的任务，租户interactive每10ms提交一个任务，
+ *    对比共享FIFO队列与FairShareTaskQueue下interactive任务的排队延迟
+ * 2、权重：两个租户都积压时，出队数量按权重3:1分配
+ * 3、各自的容量和拒绝策略：子队列满时只拒绝该租户
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class FairShareSchedulingTest {
+
+	public static void main(String[] args) throws InterruptedException {
+		System.out.println("=== noisy neighbour ===");
+		MyThreadPoolExecutor fifo = new MyThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+		System.out.println("shared FIFO   interactive " + noisyNeighbour(fifo));
+		fifo.shutdown();
+
+		FairShareTaskQueue queue = new FairShareTaskQueue().setTenant("noisy", 1, 2000).setTenant("interactive", 1, 100);
+		MyThreadPoolExecutor fair = MyThreadPoolExecutor.newFairSharePool(2, queue);
+		System.out.println("fair share    interactive " + noisyNeighbour(fair));
+		System.out.println("  " + queue);
+		fair.shutdown();
+
+		System.out.println("=== weights 3:1 ===");
+		weights();
+
+		System.out.println("=== per tenant bound & rejection ===");
+		perTenantRejection();
+	}
+
+	private static LatencyHistogram.Snapshot noisyNeighbour(MyThreadPoolExecutor pool) throws InterruptedException {
+		for (int i = 0; i < 1000; i++) {
+			pool.executeKeyed("noisy", busyTask(2));
+		}
+		final LatencyHistogram latency = new LatencyHistogram();
+		final CountDownLatch done = new CountDownLatch(50);
+		for (int i = 0; i < 50; i++) {
+			final long submitNanos = System.nanoTime();
+			pool.executeKeyed("interactive", new Runnable() {
+				@Override
+				public void run() {
+					latency.record(System.nanoTime() - submitNanos);
+					done.countDown();
+				}
+			});
+			Thread.sleep(10);
+		}
+		done.await();
+		pool.getQueue().clear();
+		return latency.snapshot();
+	}
+
+	private static void weights() throws InterruptedException {
+		FairShareTaskQueue queue = new FairShareTaskQueue().setTenant("gold", 3, 1000).setTenant("bronze", 1, 1000);
+		MyThreadPoolExecutor pool = MyThreadPoolExecutor.newFairSharePool(1, queue);
+		final CountDownLatch gate = new CountDownLatch(1);
+		pool.execute(new Runnable() {// 先占住唯一的线程，让两个租户都积压
+			@Override
+			public void run() {
+				try {
+					gate.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		for (int i = 0; i < 800; i++) {
+			pool.executeKeyed("gold", busyTask(1));
+			pool.executeKeyed("bronze", busyTask(1));
+		}
+		while (pool.getActiveCount() == 0) {
+			Thread.sleep(1);
+		}
+		gate.countDown();
+		while (queue.getDispatchedCount("gold") + queue.getDispatchedCount("bronze") < 400) {
+			Thread.sleep(1);
+		}
+		long gold = queue.getDispatchedCount("gold");
+		long bronze = queue.getDispatchedCount("bronze");
+		pool.shutdownNow();
+		System.out.println("dispatched gold=" + gold + ", bronze=" + bronze + ", ratio=" + String.format("%.2f", (double) gold / bronze));
+	}
+
+	private static void perTenantRejection() throws InterruptedException {
+		final AtomicInteger droppedByFree = new AtomicInteger();
+		FairShareTaskQueue queue = new FairShareTaskQueue()
+			.setTenant("free", 1, 10, new MyRejectedExecutionHandler() {
+				@Override
+				public void rejectedExecution(Runnable runnable, MyThreadPoolExecutor executor) {
+					droppedByFree.incrementAndGet();// 免费租户超限直接丢弃
+				}
+			})
+			.setTenant("paid", 1, 1000);
+		MyThreadPoolExecutor pool = MyThreadPoolExecutor.newFairSharePool(1, queue);
+		int paidRejected = 0;
+		for (int i = 0; i < 100; i++) {
+			pool.executeKeyed("free", busyTask(1));
+			try {
+				pool.executeKeyed("paid", busyTask(1));
+			} catch (RejectedExecutionException e) {
+				paidRejected++;
+			}
+		}
+		System.out.println("free dropped by its own handler: " + droppedByFree.get() + ", paid rejected: " + paidRejected);
+		System.out.println("  " + queue);
+		pool.shutdown();
+		System.out.println("terminated: " + pool.awaitTermination(10, TimeUnit.SECONDS));
+	}
+
+	private static Runnable busyTask(final long millis) {
+		return new Runnable() {
+			@Override
+			public void run() {
+				long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+				while (System.nanoTime() < end) {
+					Thread.yield();
+				}
+			}
+		};
+	}
+
+}
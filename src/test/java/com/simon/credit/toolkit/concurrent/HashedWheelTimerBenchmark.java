@@ -0,0 +1,151 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 时间轮 vs 堆定时器 对比测试
+ * <pre>
+ * 1、吞吐：多个线程模拟RPC超时，每次设置一个3秒的超时任务，请求返回后取消，统计每秒schedule+cancel次数。
+ *    每个线程保持inFlight个未返回的请求(取消最早的一个)，在途请求越多，堆越大，堆定时器的O(log n)越明显
+ * 2、延迟：设置一批10~200ms随机延迟的任务，统计实际执行时间比预定时间晚多少(时间轮精度为1个tick)
+ * 3、周期任务与关闭：固定频率任务的执行次数，shutdownNow返回未执行的任务
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class HashedWheelTimerBenchmark {
+
+	private static final int THREADS = 4;
+	private static final int OPERATIONS_PER_THREAD = 200000;
+	private static final int LATENCY_TASKS = 20000;
+
+	public static void main(String[] args) throws Exception {
+		scheduleAndCancel(1000);// 预热
+		for (int inFlight : new int[] { 1, 1000, 25000 }) {
+			System.out.println("=== schedule + cancel, in flight per thread: " + inFlight + " ===");
+			scheduleAndCancel(inFlight);
+		}
+
+		System.out.println("=== firing lateness ===");
+		MyScheduledThreadPoolExecutor heap = new MyScheduledThreadPoolExecutor(1);
+		System.out.println("heap          " + lateness(heap));
+		heap.shutdown();
+		MyHashedWheelTimer wheel = new MyHashedWheelTimer(1, TimeUnit.MILLISECONDS, 512, 1);
+		System.out.println("hashed wheel  " + lateness(wheel));
+		wheel.shutdown();
+		System.out.println("terminated: " + wheel.awaitTermination(5, TimeUnit.SECONDS));
+
+		System.out.println("=== periodic & shutdownNow ===");
+		periodicAndShutdown();
+	}
+
+	private static void scheduleAndCancel(int inFlight) throws InterruptedException {
+		MyScheduledThreadPoolExecutor heap = new MyScheduledThreadPoolExecutor(1);
+		heap.setRemoveOnCancelPolicy(true);
+		report("heap(removeOnCancel)", scheduleAndCancel(heap, inFlight));
+		heap.shutdownNow();
+		MyHashedWheelTimer wheel = new MyHashedWheelTimer(1, TimeUnit.MILLISECONDS, 512, 1);
+		report("hashed wheel", scheduleAndCancel(wheel, inFlight));
+		wheel.shutdownNow();
+	}
+
+	private static long scheduleAndCancel(final ScheduledExecutorService scheduler, final int inFlight) throws InterruptedException {
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(THREADS);
+		final Runnable timeout = new Runnable() {
+			@Override
+			public void run() {
+				throw new IllegalStateException("request timed out");
+			}
+		};
+		for (int i = 0; i < THREADS; i++) {
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						ScheduledFuture<?>[] window = new ScheduledFuture<?>[inFlight];
+						start.await();
+						for (int j = 0; j < OPERATIONS_PER_THREAD; j++) {
+							int slot = j % inFlight;
+							if (window[slot] != null) {
+								window[slot].cancel(false);
+							}
+							window[slot] = scheduler.schedule(timeout, 3, TimeUnit.SECONDS);
+						}
+						for (ScheduledFuture<?> future : window) {
+							if (future != null) {
+								future.cancel(false);
+							}
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						done.countDown();
+					}
+				}
+			}).start();
+		}
+		long begin = System.nanoTime();
+		start.countDown();
+		done.await();
+		return System.nanoTime() - begin;
+	}
+
+	private static void report(String name, long nanos) {
+		long operations = (long) THREADS * OPERATIONS_PER_THREAD;
+		System.out.println(String.format("%-22s %,12d ops/s (%d ms)", name, operations * 1000000000L / nanos,
+			TimeUnit.NANOSECONDS.toMillis(nanos)));
+	}
+
+	private static LatencyHistogram.Snapshot lateness(ScheduledExecutorService scheduler) throws InterruptedException {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		final CountDownLatch fired = new CountDownLatch(LATENCY_TASKS);
+		Random random = new Random(42);
+		for (int i = 0; i < LATENCY_TASKS; i++) {
+			long delayMillis = 10 + random.nextInt(190);
+			final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+			scheduler.schedule(new Runnable() {
+				@Override
+				public void run() {
+					long late = System.nanoTime() - deadline;
+					if (late < 0) {
+						throw new IllegalStateException("fired " + (-late) + "ns early");
+					}
+					histogram.record(late);
+					fired.countDown();
+				}
+			}, delayMillis, TimeUnit.MILLISECONDS);
+		}
+		fired.await();
+		return histogram.snapshot();
+	}
+
+	private static void periodicAndShutdown() throws InterruptedException {
+		MyHashedWheelTimer timer = new MyHashedWheelTimer(1, TimeUnit.MILLISECONDS, 64, 2);
+		final AtomicInteger ticks = new AtomicInteger();
+		ScheduledFuture<?> periodic = timer.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				ticks.incrementAndGet();
+			}
+		}, 10, 10, TimeUnit.MILLISECONDS);
+		// 超过一圈(64ms)的任务
+		timer.schedule(new Runnable() {
+			@Override
+			public void run() {
+			}
+		}, 10, TimeUnit.SECONDS);
+		Thread.sleep(505);
+		periodic.cancel(false);
+		System.out.println("fixed rate 10ms in ~500ms: " + ticks.get() + " runs, pending " + timer.getPendingCount());
+		List<Runnable> unexecuted = timer.shutdownNow();
+		System.out.println("shutdownNow returned " + unexecuted.size() + " task(s), terminated: "
+			+ timer.awaitTermination(5, TimeUnit.SECONDS));
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.simon.credit.toolkit.concurrent.OptimizedThreadPool.SaturationFallback;
+
+/**
+ * 线程池饱和背压测试
+ * @author XUZIMING 2026-10-18
+ */
+public class OptimizedThreadPoolBackpressureTest {
+
+	public static void main(String[] args) throws InterruptedException {
+		// 1、阻塞后由调用者执行：1个线程、队列2，每个任务50ms，提交线程被放慢但任务一个不丢
+		AtomicInteger executed = new AtomicInteger();
+		OptimizedThreadPool pool = OptimizedThreadPool.newThreadPool(1, 1, 2, 30, TimeUnit.MILLISECONDS, SaturationFallback.CALLER_RUNS);
+		long start = System.nanoTime();
+		for (int i = 0; i < 20; i++) {
+			pool.execute(sleepTask(50, executed));
+		}
+		pool.shutdown();
+		pool.awaitTermination(10, TimeUnit.SECONDS);
+		System.out.println("CALLER_RUNS: executed=" + executed.get() + "/20, submitCost="
+			+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms, blocked=" + pool.getBlockedCount()
+			+ ", blockedMillis=" + pool.getBlockedTime(TimeUnit.MILLISECONDS) + ", callerRuns=" + pool.getCallerRunsCount()
+			+ ", rejected=" + pool.getRejectedCount());
+
+		// 2、阻塞后拒绝：任务200ms，最多阻塞20ms，超出部分抛出RejectedExecutionException
+		executed.set(0);
+		int rejected = 0;
+		pool = OptimizedThreadPool.newThreadPool(1, 1, 2, 20, TimeUnit.MILLISECONDS, SaturationFallback.ABORT);
+		for (int i = 0; i < 10; i++) {
+			try {
+				pool.execute(sleepTask(200, executed));
+			} catch (RejectedExecutionException e) {
+				rejected++;
+			}
+		}
+
+		// 3、关闭后提交直接拒绝，不入队
+		pool.shutdown();
+		try {
+			pool.execute(sleepTask(1, executed));
+		} catch (RejectedExecutionException e) {
+			rejected++;
+			System.out.println("after shutdown: " + e.getMessage());
+		}
+		pool.awaitTermination(10, TimeUnit.SECONDS);
+		System.out.println("ABORT: executed=" + executed.get() + ", rejected=" + rejected + ", blocked=" + pool.getBlockedCount()
+			+ ", rejectedCount=" + pool.getRejectedCount());
+	}
+
+	private static Runnable sleepTask(final long millis, final AtomicInteger executed) {
+		return new Runnable() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(millis);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				executed.incrementAndGet();
+			}
+		};
+	}
+
+}
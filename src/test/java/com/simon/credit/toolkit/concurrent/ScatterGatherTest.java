@@ -0,0 +1,75 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.simon.credit.toolkit.concurrent.GatherResult.TaskOutcome;
+import com.simon.credit.toolkit.lang.ThreadToolkits;
+
+/**
+ * 分发-汇总测试
+ * @author XUZIMING 2026-10-18
+ */
+public class ScatterGatherTest {
+
+	public static void main(String[] args) {
+		final AtomicInteger interruptedStragglers = new AtomicInteger();
+		AsyncTaskHandler<String> handler = new AsyncTaskHandler<String>();
+
+		// 1、截止时间：5个下游各耗时20~100ms，另有1个卡住10秒，截止时间200ms
+		List<IAsyncTask<String>> tasks = new ArrayList<IAsyncTask<String>>();
+		for (int i = 0; i < 5; i++) {
+			tasks.add(mockRemoteCall("shard-" + i, 100 - i * 20, false, interruptedStragglers));
+		}
+		tasks.add(mockRemoteCall("stuck", 10000, false, interruptedStragglers));
+		GatherResult<String> result = handler.scatterGather(tasks, 200, TimeUnit.MILLISECONDS);
+		System.out.println(result);
+		System.out.println("completion order: " + result.getResults());
+		System.out.println("timed out: " + result.getTimedOut());
+
+		// 2、快速失败：第2个任务30ms时失败，其余慢任务立即被取消
+		tasks.clear();
+		tasks.add(mockRemoteCall("fast", 10, false, interruptedStragglers));
+		tasks.add(mockRemoteCall("broken", 30, true, interruptedStragglers));
+		tasks.add(mockRemoteCall("slow-1", 5000, false, interruptedStragglers));
+		tasks.add(mockRemoteCall("slow-2", 5000, false, interruptedStragglers));
+		result = handler.scatterGather(tasks, 1, TimeUnit.SECONDS);
+		System.out.println(result);
+		for (TaskOutcome<String> outcome : result.getOutcomes()) {
+			System.out.println("  " + outcome);
+		}
+
+		// 3、syncHandle：按任务顺序返回，失败的任务为null
+		tasks.clear();
+		tasks.add(mockRemoteCall("a", 30, false, interruptedStragglers));
+		tasks.add(mockRemoteCall("b", 10, true, interruptedStragglers));
+		tasks.add(mockRemoteCall("c", 20, false, interruptedStragglers));
+		System.out.println("syncHandle: " + handler.syncHandle(tasks));
+
+		ThreadToolkits.sleep(50, TimeUnit.MILLISECONDS);
+		System.out.println("stragglers interrupted: " + interruptedStragglers.get());
+		handler.destroy();
+	}
+
+	private static IAsyncTask<String> mockRemoteCall(final String name, final long millis, final boolean fail,
+													 final AtomicInteger interruptedStragglers) {
+		return new IAsyncTask<String>() {
+			@Override
+			public String call() throws Exception {
+				try {
+					Thread.sleep(millis);
+				} catch (InterruptedException e) {
+					interruptedStragglers.incrementAndGet();
+					throw e;
+				}
+				if (fail) {
+					throw new IllegalStateException(name + " unavailable");
+				}
+				return name;
+			}
+		};
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务图测试
+ * @author XUZIMING 2026-10-18
+ */
+public class TaskGraphTest {
+
+	public static void main(String[] args) throws Exception {
+		ExecutorService executor = OptimizedThreadPool.jdkCachedThreadPool();
+
+		// A(100ms)、B(30ms)并行；C依赖A(50ms)；D依赖B和C(20ms)
+		// 串行执行需要200ms，按依赖并行只需要 A -> C -> D = 170ms，B不在关键路径上
+		TaskGraph graph = new TaskGraphBuilder()
+			.addTask("A", mockRemoteCall("user", 100))
+			.addTask("B", mockRemoteCall("config", 30))
+			.addTask("C", new GraphTask<String>() {
+				@Override
+				public String call(TaskInputs inputs) throws Exception {
+					Thread.sleep(50);
+					return inputs.get("A") + ".orders";
+				}
+			}, "A")
+			.addTask("D", new GraphTask<String>() {
+				@Override
+				public String call(TaskInputs inputs) throws Exception {
+					Thread.sleep(20);
+					return "render(" + inputs.get("B") + ", " + inputs.get("C") + ")";
+				}
+			}, "B", "C")
+			.build();
+
+		GraphRun run = graph.execute(executor).get();
+		System.out.println("D = " + run.get("D"));
+		System.out.println("elapsed: " + run.getElapsed(TimeUnit.MILLISECONDS) + "ms, critical path: " + run.getCriticalPath()
+			+ " = " + run.getCriticalPath(TimeUnit.MILLISECONDS) + "ms");
+
+		// 失败：C失败，D被跳过，B不受影响
+		TaskGraph failing = new TaskGraphBuilder()
+			.addTask("A", mockRemoteCall("user", 10))
+			.addTask("B", mockRemoteCall("config", 10))
+			.addTask("C", new GraphTask<String>() {
+				@Override
+				public String call(TaskInputs inputs) {
+					throw new IllegalStateException("order service down");
+				}
+			}, "A")
+			.addTask("D", mockRemoteCall("render", 10), "B", "C")
+			.build();
+		System.out.println(failing.execute(executor).get());
+
+		// 环检测
+		try {
+			new TaskGraphBuilder()
+				.addTask("A", mockRemoteCall("a", 0), "C")
+				.addTask("B", mockRemoteCall("b", 0), "A")
+				.addTask("C", mockRemoteCall("c", 0), "B")
+				.addTask("E", mockRemoteCall("e", 0))
+				.build();
+		} catch (IllegalArgumentException e) {
+			System.out.println(e.getMessage());
+		}
+
+		executor.shutdown();
+	}
+
+	private static IAsyncTask<String> mockRemoteCall(final String name, final long millis) {
+		return new IAsyncTask<String>() {
+			@Override
+			public String call() throws Exception {
+				Thread.sleep(millis);
+				return name;
+			}
+		};
+	}
+
+}
@@ -0,0 +1,89 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 线程池运行指标测试
+ * @author XUZIMING 2026-10-18
+ */
+public class ThreadPoolMetricsTest {
+
+	public static void main(String[] args) throws InterruptedException {
+		// 1、排队等待 vs 执行耗时：2个线程处理20个20ms的任务，后提交的任务排队等待越来越久
+		MyThreadPoolExecutor executor = new MyThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(20));
+		executor.setMetricsEnabled(true);
+		for (int i = 0; i < 20; i++) {
+			executor.execute(sleepTask(20));
+		}
+		Thread.sleep(50);
+		System.out.println("running: " + executor.getMetrics());
+
+		// 2、拒绝计数：队列已满时AbortPolicy拒绝
+		int rejected = 0;
+		for (int i = 0; i < 30; i++) {
+			try {
+				executor.execute(sleepTask(1));
+			} catch (RejectedExecutionException e) {
+				rejected++;
+			}
+		}
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+		System.out.println("rejected by caller: " + rejected);
+		System.out.println("finished: " + executor.getMetrics());
+
+		// 3、调度延迟：单线程被一个200ms的任务占住，期间到期的定时任务都会晚执行
+		MyScheduledThreadPoolExecutor scheduler = new MyScheduledThreadPoolExecutor(1);
+		scheduler.setMetricsEnabled(true);
+		scheduler.execute(sleepTask(200));
+		for (int i = 1; i <= 10; i++) {
+			scheduler.schedule(sleepTask(1), i * 30, TimeUnit.MILLISECONDS);
+		}
+		Thread.sleep(500);
+		System.out.println("scheduler: " + scheduler.getMetrics());
+		scheduler.shutdown();
+
+		// 4、记录开销：100万个空任务，关闭/开启指标各跑一次
+		for (int round = 0; round < 2; round++) {
+			System.out.println("overhead: metrics off " + emptyTasks(false) + "ms, metrics on " + emptyTasks(true) + "ms");
+		}
+	}
+
+	private static long emptyTasks(boolean metricsEnabled) throws InterruptedException {
+		int tasks = 1000000;
+		MyThreadPoolExecutor executor = new MyThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+		executor.setMetricsEnabled(metricsEnabled);
+		final CountDownLatch done = new CountDownLatch(tasks);
+		long start = System.nanoTime();
+		for (int i = 0; i < tasks; i++) {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					done.countDown();
+				}
+			});
+		}
+		done.await();
+		long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		executor.shutdown();
+		return millis;
+	}
+
+	private static Runnable sleepTask(final long millis) {
+		return new Runnable() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(millis);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+	}
+
+}
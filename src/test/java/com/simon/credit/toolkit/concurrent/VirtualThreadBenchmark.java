@@ -0,0 +1,63 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 阻塞I/O任务吞吐量对比：平台线程池 vs 虚拟线程池
+ * <pre>
+ * 每个任务阻塞10ms(模拟远程调用)，比较完成全部任务的耗时、吞吐量和峰值OS线程数。
+ * 在JDK21+上运行才能看到虚拟线程的效果，JDK21以下虚拟线程池退化为平台线程池：
+ * java -cp target/classes:target/test-classes com.simon.credit.toolkit.concurrent.VirtualThreadBenchmark
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class VirtualThreadBenchmark {
+
+	private static final int TASKS = 2000;
+	private static final long IO_MILLIS = 10;
+
+	public static void main(String[] args) throws InterruptedException {
+		System.out.println("java.version=" + System.getProperty("java.version") + ", virtualThreadSupported="
+			+ OptimizedThreadPool.isVirtualThreadSupported() + ", tasks=" + TASKS + ", ioMillis=" + IO_MILLIS);
+
+		// 平台线程退出有延迟，先跑虚拟线程池，避免残留线程计入峰值
+		run("virtual per task", OptimizedThreadPool.virtualThreadPerTaskExecutor());
+		run("virtual bounded(200)", OptimizedThreadPool.virtualThreadPerTaskExecutor(200));
+		run("platform cached(unbounded)", OptimizedThreadPool.jdkCachedThreadPool());
+		run("platform ioIntensive(2N)", OptimizedThreadPool.ioIntensiveThreadPool(TASKS));
+	}
+
+	private static void run(String name, ExecutorService executor) throws InterruptedException {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		threads.resetPeakThreadCount();
+		final CountDownLatch done = new CountDownLatch(TASKS);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < TASKS; i++) {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						Thread.sleep(IO_MILLIS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						done.countDown();
+					}
+				}
+			});
+		}
+		done.await();
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		System.out.println(String.format("%-28s elapsed=%6dms, throughput=%8.0f tasks/s, peakThreads=%d",
+			name, elapsedMillis, TASKS * 1000.0 / Math.max(1, elapsedMillis), threads.getPeakThreadCount()));
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+}
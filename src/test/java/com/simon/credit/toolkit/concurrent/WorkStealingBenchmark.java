@@ -0,0 +1,98 @@
+package com.simon.credit.toolkit.concurrent;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 细粒度任务吞吐量对比：共享队列模式 vs 工作窃取模式
+ * <pre>
+ * 1、外部提交：主线程提交大量极短的任务
+ * 2、递归拆分：任务在工作线程内继续提交子任务(二叉树)，工作窃取模式下子任务进入本线程队列
+ * </pre>
+ * @author XUZIMING 2026-10-18
+ */
+public class WorkStealingBenchmark {
+
+	private static final int PARALLELISM = Math.max(4, Runtime.getRuntime().availableProcessors());
+	private static final int EXTERNAL_TASKS = 1000000;
+	private static final int TREE_DEPTH = 18;
+
+	public static void main(String[] args) throws InterruptedException {
+		System.out.println("parallelism=" + PARALLELISM + ", externalTasks=" + EXTERNAL_TASKS + ", treeTasks=" + ((1 << (TREE_DEPTH + 1)) - 1));
+		for (int round = 1; round <= 3; round++) {// 第1轮预热
+			System.out.println("round " + round);
+			run("shared queue", new MyThreadPoolExecutor(PARALLELISM, PARALLELISM, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>()));
+			run("work stealing", MyThreadPoolExecutor.newWorkStealingPool(PARALLELISM));
+		}
+	}
+
+	private static void run(String name, MyThreadPoolExecutor executor) throws InterruptedException {
+		final AtomicLong checksum = new AtomicLong();
+
+		// 1、外部提交
+		final CountDownLatch externalDone = new CountDownLatch(EXTERNAL_TASKS);
+		long start = System.nanoTime();
+		for (int i = 0; i < EXTERNAL_TASKS; i++) {
+			final int value = i;
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					checksum.addAndGet(value & 7);
+					externalDone.countDown();
+				}
+			});
+		}
+		externalDone.await();
+		long externalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		// 2、递归拆分
+		int treeTasks = (1 << (TREE_DEPTH + 1)) - 1;
+		CountDownLatch treeDone = new CountDownLatch(treeTasks);
+		start = System.nanoTime();
+		executor.execute(new TreeTask(executor, TREE_DEPTH, treeDone, checksum));
+		treeDone.await();
+		long treeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		executor.shutdown();
+		boolean terminated = executor.awaitTermination(10, TimeUnit.SECONDS);
+		boolean rejectedAfterShutdown = false;
+		try {
+			executor.execute(new TreeTask(executor, 0, new CountDownLatch(1), checksum));
+		} catch (RejectedExecutionException e) {
+			rejectedAfterShutdown = true;
+		}
+
+		System.out.println(String.format("  %-14s external=%5dms (%8.0f tasks/s), tree=%5dms (%8.0f tasks/s), completed=%d, terminated=%s, rejectedAfterShutdown=%s",
+			name, externalMillis, EXTERNAL_TASKS * 1000.0 / Math.max(1, externalMillis), treeMillis, treeTasks * 1000.0 / Math.max(1, treeMillis),
+			executor.getCompletedTaskCount(), terminated, rejectedAfterShutdown));
+	}
+
+	private static class TreeTask implements Runnable {
+		private final MyThreadPoolExecutor executor;
+		private final int depth;
+		private final CountDownLatch done;
+		private final AtomicLong checksum;
+
+		TreeTask(MyThreadPoolExecutor executor, int depth, CountDownLatch done, AtomicLong checksum) {
+			this.executor = executor;
+			this.depth = depth;
+			this.done = done;
+			this.checksum = checksum;
+		}
+
+		@Override
+		public void run() {
+			if (depth > 0) {
+				executor.execute(new TreeTask(executor, depth - 1, done, checksum));
+				executor.execute(new TreeTask(executor, depth - 1, done, checksum));
+			} else {
+				checksum.incrementAndGet();
+			}
+			done.countDown();
+		}
+	}
+
+}